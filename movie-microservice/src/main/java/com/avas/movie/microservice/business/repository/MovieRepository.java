@@ -5,18 +5,48 @@ import com.avas.library.business.repository.model.MovieType;
 import com.avas.library.business.repository.model.Review;
 import com.avas.library.business.repository.model.User;
 import com.avas.library.model.MovieDTO;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
 
 public interface MovieRepository extends JpaRepository<Movie, Long> {
     boolean existsByTitle(String title);
+
+    /**
+     * Loads the movie type with the movie, so the movie can be mapped without an open session.
+     */
+    @Override
+    @EntityGraph(attributePaths = "movieType")
+    Optional<Movie> findById(Long id);
+
+    /**
+     * Loads the movie types with the movies, as the gRPC lookups map them on threads with no open
+     * session.
+     */
+    @Override
+    @EntityGraph(attributePaths = "movieType")
+    List<Movie> findAllById(Iterable<Long> ids);
+
     @Query(value = "SELECT * FROM movie ORDER BY RAND() Limit 1" , nativeQuery = true)
     Movie findRandomMovie();
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     List<Movie> findMovieByMovieType(MovieType movieType);
 
     @Query("select count(c) from Movie p join p.movieLikes c where p = ?1")
     Long countChildrenByParent(Movie movie);
+
+    @Query("select r.id from Review r where r.movieId.id = ?1 order by r.id")
+    List<Long> findReviewIdsByMovieId(Long movieId);
+
+    @Query("select r.movieId.id, r.id from Review r where r.movieId.id in ?1 order by r.id")
+    List<Object[]> findReviewIdsByMovieIds(Collection<Long> movieIds);
 }
@@ -15,6 +15,7 @@ public interface MovieService {
     List<MovieDTO> getMovieOfAGenre(MovieTypeDTO movieGenre);
     List<MovieDTO> getAllMovies();
     Optional<MovieDTO> findMovieById(Long id);
+    List<MovieDTO> findMoviesByIds(List<Long> ids);
     void deleteMovieById(Long id);
     MovieDTO createMovie(MovieDTO newMovie);
     MovieDTO updateMovieById(MovieDTO modifyExistingMovie, Long id);
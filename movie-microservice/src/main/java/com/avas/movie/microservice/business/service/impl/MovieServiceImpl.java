@@ -8,9 +8,14 @@ import lombok.extern.log4j.Log4j2;
 import com.avas.library.business.exceptions.ResourceAlreadyExists;
 import com.avas.library.business.exceptions.ResourceNotFoundException;
 import com.avas.library.business.mappers.MovieMapping;
+import com.avas.library.business.reference.ReferenceDataResolver;
 import com.avas.library.business.repository.model.Movie;
+import com.avas.library.model.LongIdList;
 import com.avas.library.model.MovieDTO;
+import com.avas.library.business.cache.DtoCache;
+import com.avas.library.business.cache.DtoCaches;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
@@ -20,6 +25,7 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.TreeMap;
 import java.util.stream.Collectors;
@@ -28,6 +34,9 @@ import java.util.stream.Stream;
 @Log4j2
 @Service
 public class MovieServiceImpl implements MovieService {
+
+    private static final ResourceNotFoundException NO_MOVIES_FOUND = ResourceNotFoundException.shared("No movies found");
+
     @Autowired
     MovieRepository movieRepository;
 
@@ -35,6 +44,10 @@ public class MovieServiceImpl implements MovieService {
     MovieMapping movieMapper;
     @Autowired
     MovieTypeMapping movieTypeMapping;
+    @Autowired
+    DtoCaches dtoCaches;
+    @Autowired
+    ReferenceDataResolver referenceDataResolver;
 
     @Override
     public List<MovieDTO>  getTopTenMovies() {
@@ -61,31 +74,51 @@ public class MovieServiceImpl implements MovieService {
         List<Movie> movieList = movieRepository.findMovieByMovieType(movieTypeMapping.mapMovieTypeDtoToMovieType(movieGenre));
         log.info("Movies list size is : {}", movieList.size());
         if(movieList.isEmpty())
-            throw new ResourceNotFoundException("No movies found");
+            throw NO_MOVIES_FOUND;
         log.info("movie list size is :{}", movieList.size());
         return movieMapper.mapMovieListToMovieListDto(movieList);
     }
     public List<MovieDTO> getAllMovies() {
         List<Movie> returnedMovieList = movieRepository.findAll();
         if(returnedMovieList.isEmpty())
-            throw new ResourceNotFoundException("No movies found");
+            throw NO_MOVIES_FOUND;
         log.info("movie list size is :{}", returnedMovieList.size());
         return movieMapper.mapMovieListToMovieListDto(returnedMovieList);
 
     }
 
+    /**
+     * The movie itself comes from the "movies" cache, which holds it without review ids. Reviews
+     * are written by the review service, so the ids are read fresh on every lookup.
+     */
     public Optional<MovieDTO> findMovieById(Long id) {
-        Optional<MovieDTO> foundMovieDto = movieRepository.findById(id)
-                .map(foundUser -> movieMapper.mapMovieToMovieDto(foundUser));
+        Optional<MovieDTO> foundMovieDto = movieCache().get(id, key -> movieRepository.findById(key)
+                .map(foundUser -> movieMapper.mapMovieToMovieDtoWithoutReviews(foundUser)))
+                .map(cached -> withReviewIds(cached, toLongIdList(movieRepository.findReviewIdsByMovieId(id))));
         foundMovieDto.orElseThrow(() -> new ResourceNotFoundException("Movie with id:{0} Not found" , id));
         log.info("Found movie :{}", foundMovieDto);
         return foundMovieDto;
     }
 
+    public List<MovieDTO> findMoviesByIds(List<Long> ids) {
+        Map<Long, MovieDTO> found = movieCache().getAll(ids, missing -> movieRepository.findAllById(missing).stream()
+                .collect(Collectors.toMap(Movie::getId, movie -> movieMapper.mapMovieToMovieDtoWithoutReviews(movie))));
+        log.info("Found {} of {} requested movies", found.size(), ids.size());
+        Map<Long, LongIdList.Builder> reviewIds = new HashMap<>();
+        if (!found.isEmpty())
+            for (Object[] row : movieRepository.findReviewIdsByMovieIds(found.keySet()))
+                reviewIds.computeIfAbsent((Long) row[0], movieId -> LongIdList.builder(8)).add((Long) row[1]);
+        return ids.stream().distinct().map(found::get).filter(Objects::nonNull)
+                .map(cached -> withReviewIds(cached, reviewIds.containsKey(cached.getId())
+                        ? reviewIds.get(cached.getId()).build() : LongIdList.empty()))
+                .collect(Collectors.toList());
+    }
+
     public void deleteMovieById(Long id) {
         findMovieById(id)
                 .orElseThrow(() -> new ResourceAlreadyExists("Movie for delete with id {0} is not found.", id));
         movieRepository.deleteById(id);
+        movieCache().invalidate(id);
         log.info("Movie with id: {} is deleted", id);
 
     }
@@ -96,7 +129,7 @@ public class MovieServiceImpl implements MovieService {
             log.warn("Can not create movie, movie with this title already exists");
             throw new ResourceAlreadyExists("Can not create movie, movie with this title already exists");
         }
-        Movie savedMovie = movieRepository.save(movieMapper.mapMovieDtoToMovie(newMovie));
+        Movie savedMovie = saveMovie(newMovie);
         log.info("Movie is created : {}", savedMovie);
         return movieMapper.mapMovieToMovieDto(savedMovie);
     }
@@ -111,9 +144,38 @@ public class MovieServiceImpl implements MovieService {
             throw new ResourceAlreadyExists("Movie with this id:{0} does not exist", id);
         }
         modifyExistingMovie.setId(id);
-        Movie modifiedMovie = movieRepository.save(movieMapper.mapMovieDtoToMovie(modifyExistingMovie));
+        Movie modifiedMovie = saveMovie(modifyExistingMovie);
+        movieCache().invalidate(id);
         log.info("Movie is updated movie id :{}, movie is now :{}", modifiedMovie.getId(), modifiedMovie);
         return movieMapper.mapMovieToMovieDto(modifiedMovie);
     }
 
+    /**
+     * Saves the movie, resolving its type name again if the write fails on a type id the movie
+     * type service changed since the last refresh of the reference data.
+     */
+    private Movie saveMovie(MovieDTO movieDTO) {
+        try {
+            return movieRepository.save(movieMapper.mapMovieDtoToMovie(movieDTO));
+        } catch (DataIntegrityViolationException e) {
+            if (!referenceDataResolver.refreshAfterFailedWrite())
+                throw e;
+            return movieRepository.save(movieMapper.mapMovieDtoToMovie(movieDTO));
+        }
+    }
+
+    private static MovieDTO withReviewIds(MovieDTO cached, LongIdList reviewIds) {
+        return new MovieDTO(cached.getId(), cached.getTitle(), cached.getDescription(), reviewIds, cached.getMovieType());
+    }
+
+    private static LongIdList toLongIdList(List<Long> ids) {
+        LongIdList.Builder builder = LongIdList.builder(ids.size());
+        for (Long id : ids)
+            builder.add(id);
+        return builder.build();
+    }
+
+    private DtoCache<Long, MovieDTO> movieCache() {
+        return dtoCaches.get("movies");
+    }
 }
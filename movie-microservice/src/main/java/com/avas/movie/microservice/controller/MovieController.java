@@ -1,12 +1,15 @@
 package com.avas.movie.microservice.controller;
 
+import com.avas.library.business.exceptions.InvalidRequest;
 import com.avas.library.business.exceptions.ResourceNotFoundException;
+import com.avas.library.instrumentation.SqlBudget;
 import com.avas.library.model.MovieDTO;
 import com.avas.library.model.MovieTypeDTO;
 import com.avas.movie.microservice.business.service.MovieService;
 import com.avas.movie.microservice.controller.feign.MovieTypeMicroserviceProxy;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
@@ -18,6 +21,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import java.util.List;
 import java.util.Optional;
@@ -27,10 +31,14 @@ import java.util.Optional;
 @RequestMapping("api/v1/movie")
 public class MovieController {
 
+    private static final ResourceNotFoundException GENRE_NOT_FOUND = ResourceNotFoundException.shared("Genre not found");
+
     @Autowired
     MovieService movieService;
     @Autowired
     MovieTypeMicroserviceProxy movieTypeMicroserviceProxy;
+    @Value("${lookup.batch.max-size:100}")
+    private int maxLookupIds;
 
 
     //TODO GET top 10 liked movies
@@ -49,7 +57,7 @@ public class MovieController {
         Optional<MovieTypeDTO> optionalMovieTypeDTO = movieTypeMicroserviceProxy.getMovieType(genre);
         log.info("Genre found :{}", optionalMovieTypeDTO.get().getType());
         optionalMovieTypeDTO
-                .orElseThrow(() -> new ResourceNotFoundException("Genre not found"));
+                .orElseThrow(() -> GENRE_NOT_FOUND);
         return new ResponseEntity<>(movieService.getMovieOfAGenre(optionalMovieTypeDTO.get()), HttpStatus.OK);
     }
     @GetMapping
@@ -57,7 +65,15 @@ public class MovieController {
         List<MovieDTO> movieList = movieService.getAllMovies();
         return ResponseEntity.ok(movieList);
     }
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<MovieDTO>> getMoviesByIds(@RequestParam List<Long> ids) {
+        if (ids.size() > maxLookupIds)
+            throw new InvalidRequest("At most {0} ids can be looked up at once", maxLookupIds);
+        return new ResponseEntity<>(movieService.findMoviesByIds(ids), HttpStatus.OK);
+    }
+
     @GetMapping("/{id}")
+    @SqlBudget(maxStatements = 3)
     public ResponseEntity<MovieDTO> getMovieById(@PathVariable Long id) {
         Optional<MovieDTO> foundMovie = movieService.findMovieById(id);
         log.info("Movie found : {}", foundMovie.get());
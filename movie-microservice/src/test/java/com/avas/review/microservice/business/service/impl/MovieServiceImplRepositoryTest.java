@@ -0,0 +1,57 @@
+package com.avas.review.microservice.business.service.impl;
+
+import com.avas.library.business.repository.model.Movie;
+import com.avas.library.business.repository.model.MovieType;
+import com.avas.library.model.MovieDTO;
+import com.avas.movie.microservice.MovieMicroserviceApplication;
+import com.avas.movie.microservice.business.repository.MovieRepository;
+import com.avas.movie.microservice.business.service.MovieService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Runs the multi-get the gRPC lookups serve through the real service and repository on an
+ * in-memory H2 database, from a thread with no open session, as the gRPC executor calls it.
+ */
+@SpringBootTest(classes = MovieMicroserviceApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:movies;MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.open-in-view=false",
+        "spring.sql.init.mode=never"})
+public class MovieServiceImplRepositoryTest {
+
+    @Autowired
+    private MovieService movieService;
+    @Autowired
+    private MovieRepository movieRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Movies looked up by ids off the request thread come with their type")
+    public void findMoviesByIdsWithoutSession() {
+        jdbcTemplate.update("INSERT INTO movie_type (id, type) VALUES (?, ?)", 901L, "noir");
+        MovieType noir = new MovieType(901L, "noir", null);
+        Movie first = movieRepository.save(new Movie(null, "The Third Man", "Vienna", null, null, noir));
+        Movie second = movieRepository.save(new Movie(null, "Double Indemnity", "Insurance", null, null, noir));
+
+        List<MovieDTO> movies = CompletableFuture
+                .supplyAsync(() -> movieService.findMoviesByIds(Arrays.asList(first.getId(), second.getId(), -1L)))
+                .join();
+        Assertions.assertEquals(2, movies.size());
+        Assertions.assertEquals(first.getId(), movies.get(0).getId());
+        Assertions.assertEquals("noir", movies.get(0).getMovieType());
+        Assertions.assertEquals("noir", movies.get(1).getMovieType());
+    }
+}
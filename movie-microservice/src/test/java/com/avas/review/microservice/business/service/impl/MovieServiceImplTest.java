@@ -3,10 +3,13 @@ package com.avas.review.microservice.business.service.impl;
 
 import com.avas.movie.microservice.business.repository.MovieRepository;
 import com.avas.movie.microservice.business.service.impl.MovieServiceImpl;
+import com.avas.library.business.cache.DtoCaches;
 import com.avas.library.business.exceptions.ResourceAlreadyExists;
 import com.avas.library.business.exceptions.ResourceNotFoundException;
 import com.avas.library.business.mappers.MovieMapping;
+import com.avas.library.business.reference.ReferenceDataResolver;
 import com.avas.library.business.repository.model.Movie;
+import com.avas.library.model.LongIdList;
 import com.avas.library.model.MovieDTO;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -18,8 +21,10 @@ import org.mockito.Spy;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
@@ -45,6 +50,12 @@ public class MovieServiceImplTest {
     @Mock
     private MovieMapping mockMovieMapping;
 
+    @MockBean
+    private ReferenceDataResolver referenceDataResolver;
+
+    @Spy
+    private DtoCaches dtoCaches = new DtoCaches();
+
     @Spy
     @InjectMocks
     private MovieServiceImpl movieService;
@@ -55,6 +66,7 @@ public class MovieServiceImplTest {
     @BeforeEach
     public void createTestData(){
         this.movieDTO = createMovieDTO();
+        when(referenceDataResolver.movieTypeId(anyString())).thenReturn(1L);
         this.movie = movieMapping.mapMovieDtoToMovie(movieDTO);
     }
     @Test
@@ -101,9 +113,11 @@ public class MovieServiceImplTest {
     @DisplayName("Testing finding movie by id")
     public void testSuccessfullyFindingMovieById(){
 
-        when(mockMovieMapping.mapMovieToMovieDto(movie)).thenReturn(movieDTO);
+        when(mockMovieMapping.mapMovieToMovieDtoWithoutReviews(movie)).thenReturn(movieDTO);
         when(movieRepository.findById(anyLong())).thenReturn(Optional.of(movie));
-        movieService.findMovieById(anyLong());
+        when(movieRepository.findReviewIdsByMovieId(anyLong())).thenReturn(Arrays.asList(3L, 4L));
+        MovieDTO found = movieService.findMovieById(1L).get();
+        Assertions.assertEquals(LongIdList.of(3L, 4L), found.getReviewIds());
         verify(movieRepository, times(1)).findById(anyLong());
     }
 
@@ -1,5 +1,6 @@
 package com.avas.review.microservice.test.data;
 
+import com.avas.library.model.LongIdList;
 import com.avas.library.model.MovieDTO;
 
 import java.util.Arrays;
@@ -21,7 +22,7 @@ public class MovieTestData {
         MovieDTO movieDTO = new MovieDTO();
         movieDTO.setId(movieId.nextLong());
         movieDTO.setTitle(movieTypeRandomList[titles.nextInt(movieTypeRandomList.length)]);
-        movieDTO.setReviewIds(Arrays.asList(reviewIds.nextLong(),reviewIds.nextLong(),reviewIds.nextLong()));
+        movieDTO.setReviewIds(LongIdList.of(reviewIds.nextLong(),reviewIds.nextLong(),reviewIds.nextLong()));
         movieDTO.setMovieType(movieTypeRandomList[movieTypes.nextInt(movieTypeRandomList.length)]);
         return movieDTO;
     }
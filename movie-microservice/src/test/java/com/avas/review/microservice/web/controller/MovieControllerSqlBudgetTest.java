@@ -0,0 +1,92 @@
+package com.avas.review.microservice.web.controller;
+
+import com.avas.library.business.exceptions.CustomizedResponseEntityExceptionHandler;
+import com.avas.library.instrumentation.SqlBudgetAdvice;
+import com.avas.library.instrumentation.SqlInstrumentationFilter;
+import com.avas.library.instrumentation.SqlStatementCounter;
+import com.avas.library.model.MovieDTO;
+import com.avas.movie.microservice.business.service.MovieService;
+import com.avas.movie.microservice.controller.MovieController;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs {@code GET /api/v1/movie/{id}} through the SQL instrumentation with
+ * {@code sql-instrumentation.budget-mode=fail}. The mocked service reports the statements a
+ * repository would prepare, so the test needs no database.
+ */
+public class MovieControllerSqlBudgetTest {
+
+    private static final String URL = "/api/v1/movie";
+
+    private MovieService movieService;
+    private SqlBudgetAdvice sqlBudgetAdvice;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void beforeEach() {
+        movieService = Mockito.mock(MovieService.class);
+        MovieController movieController = new MovieController();
+        ReflectionTestUtils.setField(movieController, "movieService", movieService);
+        sqlBudgetAdvice = new SqlBudgetAdvice();
+        ReflectionTestUtils.setField(sqlBudgetAdvice, "budgetMode", SqlBudgetAdvice.BudgetMode.FAIL);
+        mockMvc = MockMvcBuilders.standaloneSetup(movieController)
+                .setControllerAdvice(sqlBudgetAdvice, new CustomizedResponseEntityExceptionHandler(10000, 1000))
+                .addFilters(new SqlInstrumentationFilter(new SimpleMeterRegistry(), 5))
+                .build();
+    }
+
+    @Test
+    @DisplayName("A lookup within its SQL budget succeeds without exposing SQL headers")
+    public void findMovieByIdWithinBudget() throws Exception {
+        when(movieService.findMovieById(anyLong())).thenAnswer(invocation -> runStatements(2));
+
+        mockMvc.perform(MockMvcRequestBuilders.get(URL + "/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1L))
+                .andExpect(header().doesNotExist("X-SQL-Statements"));
+    }
+
+    @Test
+    @DisplayName("A lookup over its SQL budget fails when the budget mode is fail")
+    public void findMovieByIdOverBudget() throws Exception {
+        when(movieService.findMovieById(anyLong())).thenAnswer(invocation -> runStatements(4));
+
+        mockMvc.perform(MockMvcRequestBuilders.get(URL + "/1"))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.message").value("MovieController.getMovieById ran 4 SQL statements, its budget is 3"));
+    }
+
+    @Test
+    @DisplayName("SQL headers are only added when they are switched on")
+    public void findMovieByIdWithHeaders() throws Exception {
+        ReflectionTestUtils.setField(sqlBudgetAdvice, "responseHeaders", true);
+        when(movieService.findMovieById(anyLong())).thenAnswer(invocation -> runStatements(3));
+
+        mockMvc.perform(MockMvcRequestBuilders.get(URL + "/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-SQL-Statements", "3"));
+    }
+
+    private static Optional<MovieDTO> runStatements(int statements) {
+        SqlStatementCounter counter = new SqlStatementCounter();
+        for (int i = 0; i < statements; i++)
+            counter.inspect("select * from movie where id=?");
+        return Optional.of(new MovieDTO(1L, "Testing Returns 3d", null, null, "Comedy"));
+    }
+}
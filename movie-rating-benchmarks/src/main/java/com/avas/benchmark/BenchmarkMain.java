@@ -0,0 +1,24 @@
+package com.avas.benchmark;
+
+import org.openjdk.jmh.Main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Entry point of {@code benchmarks.jar}. Takes the usual JMH command line, and unless a result
+ * format is given writes the results as JSON to {@code jmh-result.json}, so runs can be
+ * compared against each other to spot regressions.
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws Exception {
+        List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        if (!arguments.contains("-rf"))
+            arguments.addAll(Arrays.asList("-rf", "json"));
+        if (!arguments.contains("-rff"))
+            arguments.addAll(Arrays.asList("-rff", "jmh-result.json"));
+        Main.main(arguments.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,101 @@
+package com.avas.benchmark.error;
+
+import com.avas.library.business.exceptions.ErrorBodies;
+import com.avas.library.business.exceptions.ExceptionResponse;
+import com.avas.library.business.exceptions.ResourceNotFoundException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.text.MessageFormat;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Cost of a not-found outcome from the throw in the service to the error body, thrown from a
+ * few frames down like in a real request. {@code previous} rebuilds the old path: a stack
+ * trace, {@link MessageFormat} and a new body per miss.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ErrorPathBenchmark {
+
+    private static final ResourceNotFoundException NO_MOVIES_FOUND = ResourceNotFoundException.shared("No movies found");
+    private static final int DEPTH = 40;
+
+    private final ErrorBodies errorBodies = new ErrorBodies(10000, 1000);
+    private long id;
+
+    @Benchmark
+    public ExceptionResponse previousWithId() {
+        try {
+            throwAt(DEPTH, () -> new PreviousNotFound("Movie with id:{0} Not found", ++id));
+        } catch (PreviousNotFound e) {
+            return new ExceptionResponse(new Date(), e.getLocalizedMessage(), "uri=/api/v1/movie/" + id);
+        }
+        throw new IllegalStateException();
+    }
+
+    @Benchmark
+    public ExceptionResponse currentWithId() {
+        try {
+            throwAt(DEPTH, () -> new ResourceNotFoundException("Movie with id:{0} Not found", ++id));
+        } catch (ResourceNotFoundException e) {
+            return errorBodies.bodyFor(e, "uri=/api/v1/movie/" + id);
+        }
+        throw new IllegalStateException();
+    }
+
+    @Benchmark
+    public ExceptionResponse previousEmptyList() {
+        try {
+            throwAt(DEPTH, () -> new PreviousNotFound("No movies found", null));
+        } catch (PreviousNotFound e) {
+            return new ExceptionResponse(new Date(), e.getLocalizedMessage(), "uri=/api/v1/movie");
+        }
+        throw new IllegalStateException();
+    }
+
+    @Benchmark
+    public ExceptionResponse currentEmptyList() {
+        try {
+            throwAt(DEPTH, () -> NO_MOVIES_FOUND);
+        } catch (ResourceNotFoundException e) {
+            return errorBodies.bodyFor(e, "uri=/api/v1/movie");
+        }
+        throw new IllegalStateException();
+    }
+
+    private static void throwAt(int depth, Supplier<RuntimeException> exception) {
+        if (depth == 0)
+            throw exception.get();
+        throwAt(depth - 1, exception);
+    }
+
+    private static final class PreviousNotFound extends RuntimeException {
+        private final String message;
+        private final Long resourceId;
+
+        private PreviousNotFound(String message, Long resourceId) {
+            super(message);
+            this.message = message;
+            this.resourceId = resourceId;
+        }
+
+        @Override
+        public String getLocalizedMessage() {
+            return resourceId == null ? message : MessageFormat.format(message, resourceId);
+        }
+    }
+}
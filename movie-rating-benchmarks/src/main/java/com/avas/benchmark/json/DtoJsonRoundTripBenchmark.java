@@ -0,0 +1,113 @@
+package com.avas.benchmark.json;
+
+import com.avas.library.model.LongIdList;
+import com.avas.library.model.MovieDTO;
+import com.avas.library.model.MovieLikeDTO;
+import com.avas.library.model.ReviewDTO;
+import com.avas.library.model.UserDTO;
+import com.avas.library.web.json.DtoObjectWriters;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and decode of DTO lists with the ObjectMapper the services run with, built the way
+ * Spring Boot builds it plus the library modules, and cached readers and writers per list type.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoJsonRoundTripBenchmark {
+
+    @Param({"10", "1000"})
+    private int size;
+
+    private List<MovieDTO> movies;
+    private List<ReviewDTO> reviews;
+    private List<UserDTO> users;
+    private List<MovieLikeDTO> movieLikes;
+    private RoundTrip<MovieDTO> movieRoundTrip;
+    private RoundTrip<ReviewDTO> reviewRoundTrip;
+    private RoundTrip<UserDTO> userRoundTrip;
+    private RoundTrip<MovieLikeDTO> movieLikeRoundTrip;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+                .modulesToInstall(new JavaTimeModule(), new AfterburnerModule())
+                .build();
+        DtoObjectWriters writers = new DtoObjectWriters(objectMapper);
+        movieRoundTrip = new RoundTrip<>(objectMapper, writers, MovieDTO.class);
+        reviewRoundTrip = new RoundTrip<>(objectMapper, writers, ReviewDTO.class);
+        userRoundTrip = new RoundTrip<>(objectMapper, writers, UserDTO.class);
+        movieLikeRoundTrip = new RoundTrip<>(objectMapper, writers, MovieLikeDTO.class);
+        movies = new ArrayList<>(size);
+        reviews = new ArrayList<>(size);
+        users = new ArrayList<>(size);
+        movieLikes = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            movies.add(new MovieDTO(id, "Movie " + id, "Description of movie " + id,
+                    LongIdList.of(id, id + 1, id + 2), "Comedy"));
+            reviews.add(new ReviewDTO(id, "Review text " + id, (int) (id % 10), LocalDate.of(2022, 1, 1), id, id));
+            users.add(new UserDTO(id, "Name" + id, "Surname" + id, "user" + id + "@mail.com", "Critic"));
+            movieLikes.add(new MovieLikeDTO(id, id, id));
+        }
+    }
+
+    @Benchmark
+    public List<MovieDTO> movies() throws IOException {
+        return movieRoundTrip.apply(movies);
+    }
+
+    @Benchmark
+    public List<ReviewDTO> reviews() throws IOException {
+        return reviewRoundTrip.apply(reviews);
+    }
+
+    @Benchmark
+    public List<UserDTO> users() throws IOException {
+        return userRoundTrip.apply(users);
+    }
+
+    @Benchmark
+    public List<MovieLikeDTO> movieLikes() throws IOException {
+        return movieLikeRoundTrip.apply(movieLikes);
+    }
+
+    private static final class RoundTrip<D> {
+        private final ObjectWriter writer;
+        private final ObjectReader reader;
+
+        private RoundTrip(ObjectMapper objectMapper, DtoObjectWriters writers, Class<D> type) {
+            this.writer = writers.forListOf(type);
+            this.reader = objectMapper.readerForListOf(type);
+        }
+
+        private List<D> apply(List<D> values) throws IOException {
+            return reader.readValue(writer.writeValueAsBytes(values));
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.avas.benchmark.json;
+
+import com.avas.library.model.LongIdList;
+import com.avas.library.model.MovieDTO;
+import com.avas.library.model.ReviewDTO;
+import com.avas.library.model.UserDTO;
+import com.avas.library.web.json.DtoObjectWriters;
+import com.avas.library.web.json.PooledBuffers;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the default {@link ObjectMapper} with the library serialization setup, Afterburner
+ * plus cached writers plus pooled buffers, for lists of movie, review and user DTOs.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"10", "1000"})
+    private int size;
+
+    private ObjectMapper defaultMapper;
+    private ObjectWriter movieWriter;
+    private ObjectWriter reviewWriter;
+    private ObjectWriter userWriter;
+    private PooledBuffers buffers;
+    private List<MovieDTO> movies;
+    private List<ReviewDTO> reviews;
+    private List<UserDTO> users;
+
+    @Setup
+    public void setUp() {
+        defaultMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        ObjectMapper tunedMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+                .registerModule(new AfterburnerModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        DtoObjectWriters writers = new DtoObjectWriters(tunedMapper);
+        movieWriter = writers.forListOf(MovieDTO.class);
+        reviewWriter = writers.forListOf(ReviewDTO.class);
+        userWriter = writers.forListOf(UserDTO.class);
+        buffers = new PooledBuffers(8192, 1 << 20);
+        movies = new ArrayList<>(size);
+        reviews = new ArrayList<>(size);
+        users = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            movies.add(new MovieDTO(id, "Movie " + id, "Description of movie " + id,
+                    LongIdList.of(id, id + 1, id + 2), "Comedy"));
+            reviews.add(new ReviewDTO(id, "Review text " + id, (int) (id % 10), LocalDate.of(2022, 1, 1), id, id));
+            users.add(new UserDTO(id, "Name" + id, "Surname" + id, "user" + id + "@mail.com", "Critic"));
+        }
+    }
+
+    @Benchmark
+    public void defaultMapper(Blackhole blackhole) throws IOException {
+        blackhole.consume(defaultMapper.writeValueAsBytes(movies));
+        blackhole.consume(defaultMapper.writeValueAsBytes(reviews));
+        blackhole.consume(defaultMapper.writeValueAsBytes(users));
+    }
+
+    @Benchmark
+    public void pooledCachedWriters(Blackhole blackhole) throws IOException {
+        blackhole.consume(write(movieWriter, movies));
+        blackhole.consume(write(reviewWriter, reviews));
+        blackhole.consume(write(userWriter, users));
+    }
+
+    private int write(ObjectWriter writer, Object value) throws IOException {
+        PooledBuffers.Buffer buffer = buffers.acquire();
+        try {
+            writer.writeValue(buffer, value);
+            return buffer.size();
+        } finally {
+            buffers.release(buffer);
+        }
+    }
+}
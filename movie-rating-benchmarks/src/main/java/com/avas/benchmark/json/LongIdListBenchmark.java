@@ -0,0 +1,105 @@
+package com.avas.benchmark.json;
+
+import com.avas.library.model.LongIdList;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compares {@code List<Long>} with {@link LongIdList} for building an id list from entities and
+ * for a Jackson round trip. Run with {@code -prof gc} to see the allocation difference.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LongIdListBenchmark {
+
+    private static final TypeReference<List<Long>> LIST_OF_LONGS = new TypeReference<List<Long>>() {
+    };
+
+    @Param({"10", "1000", "100000"})
+    private int size;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private List<Entity> entities;
+    private List<Long> boxedIds;
+    private LongIdList primitiveIds;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws IOException {
+        entities = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++)
+            entities.add(new Entity(id * 7));
+        boxedIds = entities.stream().map(Entity::getId).collect(Collectors.toList());
+        LongIdList.Builder builder = LongIdList.builder(size);
+        for (Entity entity : entities)
+            builder.add(entity.getId());
+        primitiveIds = builder.build();
+        json = objectMapper.writeValueAsBytes(boxedIds);
+    }
+
+    @Benchmark
+    public List<Long> mapToBoxedList() {
+        return entities.stream().map(Entity::getId).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public LongIdList mapToLongIdList() {
+        LongIdList.Builder builder = LongIdList.builder(entities.size());
+        for (Entity entity : entities)
+            builder.add(entity.getId());
+        return builder.build();
+    }
+
+    @Benchmark
+    public byte[] serializeBoxedList() throws IOException {
+        return objectMapper.writeValueAsBytes(boxedIds);
+    }
+
+    @Benchmark
+    public byte[] serializeLongIdList() throws IOException {
+        return objectMapper.writeValueAsBytes(primitiveIds);
+    }
+
+    @Benchmark
+    public List<Long> deserializeBoxedList() throws IOException {
+        return objectMapper.readValue(json, LIST_OF_LONGS);
+    }
+
+    @Benchmark
+    public LongIdList deserializeLongIdList() throws IOException {
+        return objectMapper.readValue(json, LongIdList.class);
+    }
+
+    private static final class Entity {
+        private final Long id;
+
+        private Entity(Long id) {
+            this.id = id;
+        }
+
+        Long getId() {
+            return id;
+        }
+    }
+}
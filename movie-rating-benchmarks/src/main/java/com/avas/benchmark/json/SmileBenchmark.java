@@ -0,0 +1,79 @@
+package com.avas.benchmark.json;
+
+import com.avas.library.model.LongIdList;
+import com.avas.library.model.MovieDTO;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and decode cost of a movie list as JSON and as Smile, the format the Feign proxies
+ * ask for. The payload sizes of both encodings are printed during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SmileBenchmark {
+
+    private static final TypeReference<List<MovieDTO>> MOVIES = new TypeReference<List<MovieDTO>>() {
+    };
+
+    @Param({"10", "1000"})
+    private int size;
+
+    private final ObjectMapper jsonMapper = new ObjectMapper();
+    private final ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+    private List<MovieDTO> movies;
+    private byte[] json;
+    private byte[] smile;
+
+    @Setup
+    public void setUp() throws IOException {
+        movies = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++)
+            movies.add(new MovieDTO(id, "Movie " + id, "Description of movie " + id,
+                    LongIdList.of(id, id + 1, id + 2), "Comedy"));
+        json = jsonMapper.writeValueAsBytes(movies);
+        smile = smileMapper.writeValueAsBytes(movies);
+        System.out.printf("%n%d movies: json %d bytes, smile %d bytes%n", size, json.length, smile.length);
+    }
+
+    @Benchmark
+    public byte[] encodeJson() throws IOException {
+        return jsonMapper.writeValueAsBytes(movies);
+    }
+
+    @Benchmark
+    public byte[] encodeSmile() throws IOException {
+        return smileMapper.writeValueAsBytes(movies);
+    }
+
+    @Benchmark
+    public List<MovieDTO> decodeJson() throws IOException {
+        return jsonMapper.readValue(json, MOVIES);
+    }
+
+    @Benchmark
+    public List<MovieDTO> decodeSmile() throws IOException {
+        return smileMapper.readValue(smile, MOVIES);
+    }
+}
@@ -0,0 +1,214 @@
+package com.avas.benchmark.mapper;
+
+import com.avas.library.business.mappers.MovieLikeMapper;
+import com.avas.library.business.mappers.MovieLikeMapperImpl;
+import com.avas.library.business.mappers.MovieMapping;
+import com.avas.library.business.mappers.MovieMappingImpl;
+import com.avas.library.business.mappers.MovieTypeMapping;
+import com.avas.library.business.mappers.MovieTypeMappingImpl;
+import com.avas.library.business.mappers.ReviewMapping;
+import com.avas.library.business.mappers.ReviewMappingImpl;
+import com.avas.library.business.mappers.UserLikeMapper;
+import com.avas.library.business.mappers.UserLikeMapperImpl;
+import com.avas.library.business.mappers.UserMapping;
+import com.avas.library.business.mappers.UserMappingImpl;
+import com.avas.library.business.mappers.UserTypeMapper;
+import com.avas.library.business.mappers.UserTypeMapperImpl;
+import com.avas.library.business.reference.ReferenceDataResolver;
+import com.avas.library.business.repository.model.Movie;
+import com.avas.library.business.repository.model.MovieLike;
+import com.avas.library.business.repository.model.MovieType;
+import com.avas.library.business.repository.model.Review;
+import com.avas.library.business.repository.model.ReviewLike;
+import com.avas.library.business.repository.model.User;
+import com.avas.library.business.repository.model.UserType;
+import com.avas.library.model.MovieDTO;
+import com.avas.library.model.MovieLikeDTO;
+import com.avas.library.model.MovieTypeDTO;
+import com.avas.library.model.ReviewDTO;
+import com.avas.library.model.ReviewLikeDTO;
+import com.avas.library.model.UserDTO;
+import com.avas.library.model.UserTypeDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO and DTO to entity list mapping for every MapStruct mapper of the library. The
+ * type name lookups of {@link MovieMapping} and {@link UserMapping} are answered from a fixed
+ * map instead of the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"100", "10000"})
+    private int size;
+
+    private final MovieMapping movieMapping = withReferenceData(new MovieMappingImpl());
+    private final UserMapping userMapping = withReferenceData(new UserMappingImpl());
+    private final ReviewMapping reviewMapping = new ReviewMappingImpl();
+    private final UserLikeMapper userLikeMapper = new UserLikeMapperImpl();
+    private final MovieLikeMapper movieLikeMapper = new MovieLikeMapperImpl();
+    private final MovieTypeMapping movieTypeMapping = new MovieTypeMappingImpl();
+    private final UserTypeMapper userTypeMapper = new UserTypeMapperImpl();
+
+    private List<Movie> movies;
+    private List<MovieDTO> movieDtos;
+    private List<User> users;
+    private List<UserDTO> userDtos;
+    private List<Review> reviews;
+    private List<ReviewDTO> reviewDtos;
+    private List<ReviewLike> reviewLikes;
+    private List<ReviewLikeDTO> reviewLikeDtos;
+    private List<MovieLike> movieLikes;
+    private List<MovieLikeDTO> movieLikeDtos;
+    private List<MovieType> movieTypes;
+    private List<MovieTypeDTO> movieTypeDtos;
+    private List<UserType> userTypes;
+    private List<UserTypeDTO> userTypeDtos;
+
+    @Setup
+    public void setUp() {
+        MovieType comedy = new MovieType(1L, "Comedy", null);
+        UserType critic = new UserType(1L, "Critic", null);
+        movies = new ArrayList<>(size);
+        users = new ArrayList<>(size);
+        reviews = new ArrayList<>(size);
+        reviewLikes = new ArrayList<>(size);
+        movieLikes = new ArrayList<>(size);
+        movieTypes = new ArrayList<>(size);
+        userTypes = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            User user = new User(id, "Name" + id, "Surname" + id, "user" + id + "@mail.com", null, critic);
+            Review review = new Review(id, "Review text " + id, (int) (id % 10), LocalDate.of(2022, 1, 1),
+                    user, new Movie(id), null);
+            List<Review> movieReviews = new ArrayList<>();
+            for (long reviewId = id; reviewId < id + 5; reviewId++)
+                movieReviews.add(new Review(reviewId));
+            movies.add(new Movie(id, "Movie " + id, "Description of movie " + id, movieReviews, null, comedy));
+            users.add(user);
+            reviews.add(review);
+            reviewLikes.add(new ReviewLike(id, user, review));
+            movieLikes.add(new MovieLike(id, user, new Movie(id)));
+            movieTypes.add(new MovieType(id, "Type " + id, null));
+            userTypes.add(new UserType(id, "Type " + id, null));
+        }
+        movieDtos = movieMapping.mapMovieListToMovieListDto(movies);
+        userDtos = userMapping.mapUserListToUserDto(users);
+        reviewDtos = reviewMapping.mapReviewListToReviewListDto(reviews);
+        reviewLikeDtos = userLikeMapper.mapUserLikeListToUserLikeDtoList(reviewLikes);
+        movieLikeDtos = movieLikeMapper.mapMovieLikeListToMovieLikeDtoList(movieLikes);
+        movieTypeDtos = movieTypeMapping.mapMovieTypeListToMovieTypeListDto(movieTypes);
+        userTypeDtos = userTypeMapper.mapUserTypeListToUserTypeListDto(userTypes);
+    }
+
+    @Benchmark
+    public List<MovieDTO> movieToDto() {
+        return movieMapping.mapMovieListToMovieListDto(movies);
+    }
+
+    @Benchmark
+    public List<Movie> movieFromDto() {
+        return movieMapping.mapMovieDtoListToMovieList(movieDtos);
+    }
+
+    @Benchmark
+    public List<UserDTO> userToDto() {
+        return userMapping.mapUserListToUserDto(users);
+    }
+
+    @Benchmark
+    public List<User> userFromDto() {
+        return userMapping.mapUserListDtoToUserList(userDtos);
+    }
+
+    @Benchmark
+    public List<ReviewDTO> reviewToDto() {
+        return reviewMapping.mapReviewListToReviewListDto(reviews);
+    }
+
+    @Benchmark
+    public List<Review> reviewFromDto() {
+        return reviewMapping.mapReviewListDtoToReviewList(reviewDtos);
+    }
+
+    @Benchmark
+    public List<ReviewLikeDTO> reviewLikeToDto() {
+        return userLikeMapper.mapUserLikeListToUserLikeDtoList(reviewLikes);
+    }
+
+    @Benchmark
+    public List<ReviewLike> reviewLikeFromDto() {
+        return userLikeMapper.mapUserLikeDtoListToUserLikeList(reviewLikeDtos);
+    }
+
+    @Benchmark
+    public List<MovieLikeDTO> movieLikeToDto() {
+        return movieLikeMapper.mapMovieLikeListToMovieLikeDtoList(movieLikes);
+    }
+
+    @Benchmark
+    public List<MovieLike> movieLikeFromDto() {
+        return movieLikeMapper.mapMovieLikeDtoListToMovieLikeList(movieLikeDtos);
+    }
+
+    @Benchmark
+    public List<MovieTypeDTO> movieTypeToDto() {
+        return movieTypeMapping.mapMovieTypeListToMovieTypeListDto(movieTypes);
+    }
+
+    @Benchmark
+    public List<MovieType> movieTypeFromDto() {
+        return movieTypeMapping.mapMovieTypeListDtoToMovieTypeList(movieTypeDtos);
+    }
+
+    @Benchmark
+    public List<UserTypeDTO> userTypeToDto() {
+        return userTypeMapper.mapUserTypeListToUserTypeListDto(userTypes);
+    }
+
+    @Benchmark
+    public List<UserType> userTypeFromDto() {
+        return userTypeMapper.mapUserTypeDtoListToUserTypeList(userTypeDtos);
+    }
+
+    private static <M> M withReferenceData(M mapper) {
+        Field field = ReflectionUtils.findField(mapper.getClass(), "referenceDataResolver");
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, mapper, new FixedReferenceData());
+        return mapper;
+    }
+
+    private static final class FixedReferenceData extends ReferenceDataResolver {
+
+        @Override
+        public Long userTypeId(String name) {
+            return name == null ? null : 1L;
+        }
+
+        @Override
+        public Long movieTypeId(String name) {
+            return name == null ? null : 1L;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.avas.benchmark.service;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Starts a service application against an in-memory H2 database in MySQL mode.
+ * <p>
+ * The settings are passed as command line arguments because every service jar brings its own
+ * {@code application.properties}, and those would win over default properties. The services'
+ * {@code data.sql} is skipped, benchmarks seed the tables they need themselves.
+ */
+public final class ServiceContexts {
+
+    private ServiceContexts() {
+    }
+
+    public static ConfigurableApplicationContext start(Class<?> application, String database, String... properties) {
+        List<String> arguments = new ArrayList<>(Arrays.asList(
+                "--spring.datasource.url=jdbc:h2:mem:" + database
+                        + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--spring.jpa.show-sql=false",
+                "--spring.sql.init.mode=never",
+                "--spring.cloud.config.enabled=false",
+                "--grpc.lookup.enabled=false",
+                "--grpc.lookup.client.enabled=false",
+                "--logging.level.root=WARN"));
+        for (String property : properties)
+            arguments.add("--" + property);
+        return new SpringApplicationBuilder(application)
+                .web(WebApplicationType.NONE)
+                .run(arguments.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,89 @@
+package com.avas.benchmark.service;
+
+import com.avas.library.model.MovieDTO;
+import com.avas.library.model.MovieLikeDTO;
+import com.avas.library.model.UserDTO;
+import com.avas.user.like.microservice.UserLikeMicroserviceApplication;
+import com.avas.user.like.microservice.business.service.impl.UserLikeServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link UserLikeServiceImpl#toggleMovieLike(MovieDTO, UserDTO)} on random movie and user pairs,
+ * with the write coalescer on and off, from four threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class ToggleMovieLikeBenchmark {
+
+    private static final int MOVIES = 1000;
+    private static final int USERS = 1000;
+
+    @Param({"true", "false"})
+    private String coalescing;
+
+    private ConfigurableApplicationContext context;
+    private UserLikeServiceImpl userLikeService;
+
+    @Setup
+    public void setUp() throws IOException {
+        context = ServiceContexts.start(UserLikeMicroserviceApplication.class, "likes",
+                "like.coalescing.enabled=" + coalescing,
+                "like.index.directory=" + Files.createTempDirectory("like-index"),
+                "like.events.directory=" + Files.createTempDirectory("like-events"));
+        userLikeService = context.getBean(UserLikeServiceImpl.class);
+        seed(context.getBean(JdbcTemplate.class));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<MovieLikeDTO> toggleMovieLike() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        MovieDTO movie = new MovieDTO(random.nextLong(1, MOVIES + 1), null, null, null, null);
+        UserDTO user = new UserDTO(random.nextLong(1, USERS + 1), null, null, null, null);
+        return userLikeService.toggleMovieLike(movie, user);
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("INSERT INTO user_type (id, type) VALUES (1, 'Critic')");
+        jdbcTemplate.update("INSERT INTO movie_type (id, type) VALUES (1, 'Comedy')");
+        List<Object[]> users = new ArrayList<>();
+        for (long id = 1; id <= USERS; id++)
+            users.add(new Object[]{id, "Name" + id, "Surname" + id, "user" + id + "@mail.com", 1L});
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, name, surname, email, user_type_id) VALUES (?, ?, ?, ?, ?)", users);
+        List<Object[]> movies = new ArrayList<>();
+        for (long id = 1; id <= MOVIES; id++)
+            movies.add(new Object[]{id, "Movie " + id, "Description of movie " + id, 1L});
+        jdbcTemplate.batchUpdate("INSERT INTO movie (id, title, description, movie_type) VALUES (?, ?, ?, ?)", movies);
+    }
+}
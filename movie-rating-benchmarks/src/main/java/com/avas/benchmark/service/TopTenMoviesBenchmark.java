@@ -0,0 +1,86 @@
+package com.avas.benchmark.service;
+
+import com.avas.library.model.MovieDTO;
+import com.avas.movie.microservice.MovieMicroserviceApplication;
+import com.avas.movie.microservice.business.service.impl.MovieServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link MovieServiceImpl#getTopTenMovies()} on the movie service with 1k, 100k and 1M movies.
+ * Every movie gets between zero and three likes. Each invocation is timed on its own because a
+ * single call on the largest data set takes far longer than a normal measurement window.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx4g"})
+public class TopTenMoviesBenchmark {
+
+    private static final int USERS = 100;
+    private static final int BATCH_SIZE = 10_000;
+
+    @Param({"1000", "100000", "1000000"})
+    private int movies;
+
+    private ConfigurableApplicationContext context;
+    private MovieServiceImpl movieService;
+
+    @Setup
+    public void setUp() {
+        context = ServiceContexts.start(MovieMicroserviceApplication.class, "movies");
+        movieService = context.getBean(MovieServiceImpl.class);
+        seed(context.getBean(JdbcTemplate.class));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<MovieDTO> getTopTenMovies() {
+        return movieService.getTopTenMovies();
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("INSERT INTO user_type (id, type) VALUES (1, 'Critic')");
+        jdbcTemplate.update("INSERT INTO movie_type (id, type) VALUES (1, 'Comedy'), (2, 'Horror'), (3, 'Drama')");
+        List<Object[]> users = new ArrayList<>();
+        for (long id = 1; id <= USERS; id++)
+            users.add(new Object[]{id, "Name" + id, "Surname" + id, "user" + id + "@mail.com", 1L});
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, name, surname, email, user_type_id) VALUES (?, ?, ?, ?, ?)", users);
+        List<Object[]> movieRows = new ArrayList<>(BATCH_SIZE);
+        List<Object[]> likeRows = new ArrayList<>(BATCH_SIZE * 3);
+        long likeId = 0;
+        for (long id = 1; id <= movies; id++) {
+            movieRows.add(new Object[]{id, "Movie " + id, "Description of movie " + id, id % 3 + 1});
+            for (long like = 0; like < id % 4; like++)
+                likeRows.add(new Object[]{++likeId, id, (id + like) % USERS + 1});
+            if (movieRows.size() == BATCH_SIZE || id == movies) {
+                jdbcTemplate.batchUpdate("INSERT INTO movie (id, title, description, movie_type) VALUES (?, ?, ?, ?)", movieRows);
+                jdbcTemplate.batchUpdate("INSERT INTO movie_likes (id, movie_id, user_id) VALUES (?, ?, ?)", likeRows);
+                movieRows.clear();
+                likeRows.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.avas.library.business.activity;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the {@code user_activity} totals up to date from review and like writes.
+ * <p>
+ * Writes only add to a per-user delta in memory; deltas are flushed as one batch of additive
+ * upserts, so a user with many writes between flushes costs one row update. The owners of the
+ * source tables reconcile their columns against them on a schedule to repair lost deltas. A
+ * recount already includes the writes whose deltas are still pending, so those deltas are dropped
+ * rather than flushed on top of it.
+ */
+@Log4j2
+@Component
+public class UserActivityRecorder {
+
+    private static final String UPSERT_DELTA = "INSERT INTO user_activity "
+            + "(user_id, review_count, score_total, movies_liked, reviews_liked) VALUES (?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE review_count = review_count + VALUES(review_count), "
+            + "score_total = score_total + VALUES(score_total), movies_liked = movies_liked + VALUES(movies_liked), "
+            + "reviews_liked = reviews_liked + VALUES(reviews_liked)";
+    private static final String RESET_REVIEWS = "UPDATE user_activity SET review_count = 0, score_total = 0";
+    private static final String COUNT_REVIEWS = "INSERT INTO user_activity "
+            + "(user_id, review_count, score_total, movies_liked, reviews_liked) "
+            + "SELECT user_id, COUNT(*), SUM(score), 0, 0 FROM review WHERE user_id IS NOT NULL GROUP BY user_id "
+            + "ON DUPLICATE KEY UPDATE review_count = VALUES(review_count), score_total = VALUES(score_total)";
+    private static final String RESET_LIKES = "UPDATE user_activity SET movies_liked = 0, reviews_liked = 0";
+    private static final String COUNT_MOVIE_LIKES = "SELECT user_id, COUNT(*) FROM movie_likes GROUP BY user_id";
+    private static final String COUNT_REVIEW_LIKES = "SELECT user_id, COUNT(*) FROM user_likes GROUP BY user_id";
+    private static final String UPSERT_LIKES = "INSERT INTO user_activity "
+            + "(user_id, review_count, score_total, movies_liked, reviews_liked) VALUES (?, 0, 0, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE movies_liked = VALUES(movies_liked), reviews_liked = VALUES(reviews_liked)";
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    private final Map<Long, long[]> pending = new ConcurrentHashMap<>();
+
+    public void reviewAdded(Long userId, int score) {
+        add(userId, 1, score, 0, 0);
+    }
+
+    public void reviewRemoved(Long userId, int score) {
+        add(userId, -1, -score, 0, 0);
+    }
+
+    public void reviewRescored(Long userId, int oldScore, int newScore) {
+        add(userId, 0, newScore - oldScore, 0, 0);
+    }
+
+    public void movieLiked(Long userId, boolean liked) {
+        add(userId, 0, 0, liked ? 1 : -1, 0);
+    }
+
+    public void reviewLiked(Long userId, boolean liked) {
+        add(userId, 0, 0, 0, liked ? 1 : -1);
+    }
+
+    @Scheduled(fixedDelayString = "${user-activity.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        List<Object[]> batch = new ArrayList<>();
+        for (Long userId : pending.keySet()) {
+            long[] delta = pending.remove(userId);
+            if (delta != null)
+                batch.add(new Object[]{userId, delta[0], delta[1], delta[2], delta[3]});
+        }
+        if (batch.isEmpty())
+            return;
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_DELTA, batch);
+            log.debug("Flushed activity of {} users", batch.size());
+        } catch (DataAccessException e) {
+            batch.forEach(row -> add((Long) row[0], (long) row[1], (long) row[2], (long) row[3], (long) row[4]));
+            log.warn("Could not flush activity of {} users, will retry on next flush", batch.size(), e);
+        }
+    }
+
+    /**
+     * Recounts the review columns of every user from the review table and drops the pending
+     * review deltas, which are recorded after their review is saved. A review saved while the
+     * recount runs may be off by one until the next reconcile.
+     */
+    public synchronized void reconcileReviews() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update(RESET_REVIEWS);
+            jdbcTemplate.update(COUNT_REVIEWS);
+            discard(0, 1);
+        });
+        log.info("User activity review totals reconciled");
+    }
+
+    /**
+     * Runs {@code action} with flushes held, for callers that reconcile the like columns in the
+     * two steps below. A flush in between would add deltas recorded after the snapshot to totals
+     * the recount then overwrites.
+     */
+    public synchronized void holdingFlushes(Runnable action) {
+        action.run();
+    }
+
+    /**
+     * Drops the pending like deltas. Called with flushes held, at a point where the like tables
+     * contain every like recorded so far and a read view of them is opened.
+     */
+    public void discardPendingLikes() {
+        discard(2, 3);
+    }
+
+    /**
+     * Recounts the like columns of every user from the like tables. Called with flushes held
+     * after {@link #discardPendingLikes()}, inside the transaction whose read view was opened at
+     * that point: the counts are plain consistent reads, so they see the like tables as they were
+     * then even if likes changed since.
+     */
+    public void recountLikes() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<Long, long[]> likes = new HashMap<>();
+            jdbcTemplate.query(COUNT_MOVIE_LIKES, resultSet -> {
+                likes.computeIfAbsent(resultSet.getLong(1), userId -> new long[2])[0] = resultSet.getLong(2);
+            });
+            jdbcTemplate.query(COUNT_REVIEW_LIKES, resultSet -> {
+                likes.computeIfAbsent(resultSet.getLong(1), userId -> new long[2])[1] = resultSet.getLong(2);
+            });
+            List<Object[]> batch = new ArrayList<>(likes.size());
+            likes.forEach((userId, counts) -> batch.add(new Object[]{userId, counts[0], counts[1]}));
+            jdbcTemplate.update(RESET_LIKES);
+            if (!batch.isEmpty())
+                jdbcTemplate.batchUpdate(UPSERT_LIKES, batch);
+        });
+        log.info("User activity like totals reconciled");
+    }
+
+    private void discard(int... columns) {
+        for (Long userId : pending.keySet())
+            pending.computeIfPresent(userId, (key, delta) -> {
+                for (int column : columns)
+                    delta[column] = 0;
+                for (long value : delta)
+                    if (value != 0)
+                        return delta;
+                return null;
+            });
+    }
+
+    private void add(Long userId, long reviews, long score, long moviesLiked, long reviewsLiked) {
+        if (userId == null)
+            return;
+        pending.compute(userId, (key, delta) -> {
+            long[] sum = delta == null ? new long[4] : delta;
+            sum[0] += reviews;
+            sum[1] += score;
+            sum[2] += moviesLiked;
+            sum[3] += reviewsLiked;
+            return sum;
+        });
+    }
+}
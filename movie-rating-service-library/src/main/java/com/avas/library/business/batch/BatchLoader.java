@@ -0,0 +1,108 @@
+package com.avas.library.business.batch;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Collects single-key lookups and resolves them with one batch call.
+ * <p>
+ * The first lookup of a batch schedules its dispatch one tick later; every lookup arriving in
+ * the meantime, from any thread, joins the same batch, and a lookup for a key already in the
+ * batch shares its future. A batch that reaches {@code maxBatchSize} is closed and dispatched
+ * right away, so no batch call ever carries more keys than that. Ticks fire on the
+ * {@code scheduler}, the batch calls themselves run on the {@code executor}, so a slow call never
+ * holds up the dispatch of other batches.
+ */
+public class BatchLoader<K, V> {
+
+    private final Function<List<K>, Map<K, V>> batchFunction;
+    private final ScheduledExecutorService scheduler;
+    private final Executor executor;
+    private final long tickMillis;
+    private final int maxBatchSize;
+
+    private Map<K, CompletableFuture<Optional<V>>> pending = new HashMap<>();
+
+    public BatchLoader(Function<List<K>, Map<K, V>> batchFunction, ScheduledExecutorService scheduler,
+                       Executor executor, long tickMillis, int maxBatchSize) {
+        this.batchFunction = batchFunction;
+        this.scheduler = scheduler;
+        this.executor = executor;
+        this.tickMillis = tickMillis;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public CompletableFuture<Optional<V>> load(K key) {
+        CompletableFuture<Optional<V>> future;
+        Map<K, CompletableFuture<Optional<V>>> full = null;
+        boolean first;
+        synchronized (this) {
+            future = pending.get(key);
+            if (future != null)
+                return future;
+            future = new CompletableFuture<>();
+            pending.put(key, future);
+            first = pending.size() == 1;
+            if (pending.size() >= maxBatchSize) {
+                full = pending;
+                pending = new HashMap<>();
+            }
+        }
+        if (full != null)
+            submit(full);
+        else if (first)
+            scheduler.schedule(this::dispatch, tickMillis, TimeUnit.MILLISECONDS);
+        return future;
+    }
+
+    /**
+     * Blocking form of {@link #load}; failures of the batch call are rethrown as they were thrown.
+     */
+    public Optional<V> get(K key) {
+        try {
+            return load(key).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw e;
+        }
+    }
+
+    private void dispatch() {
+        Map<K, CompletableFuture<Optional<V>>> batch;
+        synchronized (this) {
+            if (pending.isEmpty())
+                return;
+            batch = pending;
+            pending = new HashMap<>();
+        }
+        submit(batch);
+    }
+
+    private void submit(Map<K, CompletableFuture<Optional<V>>> batch) {
+        try {
+            executor.execute(() -> resolve(batch));
+        } catch (RejectedExecutionException e) {
+            batch.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+    private void resolve(Map<K, CompletableFuture<Optional<V>>> batch) {
+        try {
+            Map<K, V> found = batchFunction.apply(new ArrayList<>(batch.keySet()));
+            batch.forEach((key, future) -> future.complete(Optional.ofNullable(found.get(key))));
+        } catch (RuntimeException e) {
+            batch.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+}
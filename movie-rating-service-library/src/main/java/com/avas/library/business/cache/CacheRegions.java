@@ -0,0 +1,18 @@
+package com.avas.library.business.cache;
+
+/**
+ * Hibernate second-level cache regions. Each region is a Caffeine JCache cache configured in the
+ * library's {@code reference.conf}, which a service can override in its {@code application.conf}.
+ * Writes through Hibernate only update the regions of the service that made them, and the other
+ * services write the same tables, so every region expires its entries 60 seconds after they were
+ * written, like the {@link com.avas.library.business.reference.ReferenceDataResolver} refresh.
+ */
+public final class CacheRegions {
+
+    public static final String MOVIE_TYPE = "movie-type";
+    public static final String USER_TYPE = "user-type";
+    public static final String MOVIE = "movie";
+
+    private CacheRegions() {
+    }
+}
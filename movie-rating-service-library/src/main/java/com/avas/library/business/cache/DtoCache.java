@@ -0,0 +1,62 @@
+package com.avas.library.business.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of DTOs by id. Concurrent misses on the same key share a single load, and
+ * lookups that find nothing are not cached. Cached DTOs are shared between callers and must not be
+ * modified.
+ */
+public class DtoCache<K, V> {
+
+    private final String name;
+    private final Cache<K, V> cache;
+
+    DtoCache(String name, Cache<K, V> cache) {
+        this.name = name;
+        this.cache = cache;
+    }
+
+    public Optional<V> get(K key, Function<K, Optional<V>> loader) {
+        return Optional.ofNullable(cache.get(key, missing -> loader.apply(missing).orElse(null)));
+    }
+
+    /**
+     * Returns the cached entries for {@code keys} and loads all missing ones with a single call of
+     * {@code loader}. Keys the loader does not return are left out.
+     */
+    public Map<K, V> getAll(Iterable<K> keys, Function<Set<K>, Map<K, V>> loader) {
+        return cache.getAll(keys, missing -> {
+            Set<K> missingKeys = new HashSet<>();
+            missing.forEach(missingKeys::add);
+            return loader.apply(missingKeys);
+        });
+    }
+
+    /**
+     * Drops the entry after its row was changed. A load of the key that is still running finishes
+     * first, so it can not put the old row back afterwards.
+     */
+    public void invalidate(K key) {
+        cache.invalidate(key);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+}
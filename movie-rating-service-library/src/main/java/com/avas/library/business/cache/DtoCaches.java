@@ -0,0 +1,48 @@
+package com.avas.library.business.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Named {@link DtoCache}s shared by the services. Each cache is built on first use from the
+ * Caffeine spec in {@code cache.specs.<name>}, falling back to {@code cache.default-spec}, and
+ * its hit, miss, load and eviction statistics are published as {@code cache.*} metrics.
+ */
+@Log4j2
+@Component
+public class DtoCaches {
+
+    static final String DEFAULT_SPEC = "maximumSize=10000,expireAfterWrite=5m";
+
+    @Autowired(required = false)
+    Environment environment;
+    @Autowired(required = false)
+    MeterRegistry meterRegistry;
+
+    private final Map<String, DtoCache<?, ?>> caches = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    public <K, V> DtoCache<K, V> get(String name) {
+        return (DtoCache<K, V>) caches.computeIfAbsent(name, this::create);
+    }
+
+    private DtoCache<Object, Object> create(String name) {
+        String spec = DEFAULT_SPEC;
+        if (environment != null)
+            spec = environment.getProperty("cache.specs." + name, environment.getProperty("cache.default-spec", DEFAULT_SPEC));
+        Cache<Object, Object> cache = Caffeine.from(spec).recordStats().build();
+        if (meterRegistry != null)
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+        log.info("Cache {} created with spec {}", name, spec);
+        return new DtoCache<>(name, cache);
+    }
+}
@@ -0,0 +1,43 @@
+package com.avas.library.business.cache;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.AutoConfigureBefore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Hibernate second-level and query cache backed by Caffeine through JCache.
+ * <p>
+ * Only entities annotated with {@link javax.persistence.Cacheable} are cached, in the regions of
+ * {@link CacheRegions}, and only queries with the {@code org.hibernate.cacheable} hint use the
+ * query cache. Writes through Hibernate update the entity regions and invalidate the cached
+ * queries on the written tables of the same service; writes of other services are only picked up
+ * once the entries expire. With {@code sql-instrumentation.hibernate-statistics} Boot also
+ * publishes the hit, miss and put counts of every region as
+ * {@code hibernate.second.level.cache.*} and {@code hibernate.query.cache.*} metrics.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass({SessionFactory.class, JCacheRegionFactory.class})
+@ConditionalOnProperty(prefix = "second-level-cache", name = "enabled", matchIfMissing = true)
+@AutoConfigureBefore(HibernateJpaAutoConfiguration.class)
+public class SecondLevelCacheAutoConfiguration {
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheHibernateCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, "true");
+            properties.put(AvailableSettings.USE_QUERY_CACHE, "true");
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, JCacheRegionFactory.class.getName());
+            properties.put(AvailableSettings.JPA_SHARED_CACHE_MODE, "ENABLE_SELECTIVE");
+            properties.put(ConfigSettings.PROVIDER, "com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider");
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "create-warn");
+        };
+    }
+}
@@ -0,0 +1,77 @@
+package com.avas.library.business.encoding;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact binary form of an ascending id list: each id is written as its difference to the
+ * previous one (the first to zero) in unsigned LEB128 varint encoding. Dense id ranges take one
+ * byte per id instead of the eight of a long, or the twenty or so of a JSON number.
+ */
+public final class DeltaVarintIds {
+
+    public static final String MEDIA_TYPE = "application/vnd.avas.ids+varint";
+
+    private DeltaVarintIds() {
+    }
+
+    /**
+     * Writes the ids, which must be ascending and greater than {@code previous}, and returns the
+     * last id written so a long list can be written in chunks.
+     */
+    public static long write(OutputStream out, long previous, List<Long> ids) throws IOException {
+        for (Long id : ids) {
+            long delta = id - previous;
+            if (delta <= 0)
+                throw new IllegalArgumentException("Ids must be ascending, got " + id + " after " + previous);
+            writeVarint(out, delta);
+            previous = id;
+        }
+        return previous;
+    }
+
+    public static long[] read(byte[] encoded) throws IOException {
+        return read(new ByteArrayInputStream(encoded));
+    }
+
+    public static long[] read(InputStream in) throws IOException {
+        long[] ids = new long[64];
+        int count = 0;
+        long previous = 0;
+        int first;
+        while ((first = in.read()) != -1) {
+            previous += readVarint(in, first);
+            if (count == ids.length)
+                ids = Arrays.copyOf(ids, count * 2);
+            ids[count++] = previous;
+        }
+        return Arrays.copyOf(ids, count);
+    }
+
+    private static void writeVarint(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarint(InputStream in, int first) throws IOException {
+        long value = first & 0x7F;
+        int shift = 7;
+        int current = first;
+        while ((current & 0x80) != 0) {
+            current = in.read();
+            if (current == -1)
+                throw new EOFException("Truncated varint in id stream");
+            value |= (long) (current & 0x7F) << shift;
+            shift += 7;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,58 @@
+package com.avas.library.business.exceptions;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Base of the exceptions that describe expected outcomes, such as a missing or duplicate
+ * resource. They are stackless and carry their message already formatted, so throwing one is
+ * about as cheap as returning a value. Instances with a fixed message can be allocated once and
+ * rethrown; those are marked shared, and only their error bodies are reused.
+ */
+public abstract class ApiException extends RuntimeException {
+
+    private final HttpStatus status;
+    private final boolean shared;
+
+    protected ApiException(HttpStatus status, String message) {
+        this(status, message, false);
+    }
+
+    protected ApiException(HttpStatus status, String message, boolean shared) {
+        super(message, null, false, false);
+        this.status = status;
+        this.shared = shared;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    public boolean isShared() {
+        return shared;
+    }
+
+    /**
+     * Replaces {@code {0}}, {@code {1}}, ... in {@code pattern} with the plain values of
+     * {@code arguments}. Unlike {@link java.text.MessageFormat} ids are not grouped and quotes
+     * are kept as they are.
+     */
+    protected static String format(String pattern, Object... arguments) {
+        if (pattern == null || pattern.indexOf('{') < 0)
+            return pattern;
+        StringBuilder message = new StringBuilder(pattern.length() + 16 * arguments.length);
+        int from = 0;
+        int open;
+        while ((open = pattern.indexOf('{', from)) >= 0) {
+            int close = pattern.indexOf('}', open);
+            int index = close == open + 2 ? pattern.charAt(open + 1) - '0' : -1;
+            if (index < 0 || index >= arguments.length) {
+                message.append(pattern, from, open + 1);
+                from = open + 1;
+                continue;
+            }
+            message.append(pattern, from, open).append(arguments[index]);
+            from = close + 1;
+        }
+        return message.append(pattern, from, pattern.length()).toString();
+    }
+}
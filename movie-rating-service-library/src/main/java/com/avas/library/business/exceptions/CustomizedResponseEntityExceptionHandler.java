@@ -1,6 +1,7 @@
 package com.avas.library.business.exceptions;
 
 import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -16,6 +17,12 @@ import java.util.Date;
 @ControllerAdvice
 public class CustomizedResponseEntityExceptionHandler extends ResponseEntityExceptionHandler {
 
+    private final ErrorBodies errorBodies;
+
+    public CustomizedResponseEntityExceptionHandler(@Value("${error-bodies.max-size:10000}") long maxSize,
+                                                    @Value("${error-bodies.ttl-ms:1000}") long ttlMillis) {
+        this.errorBodies = new ErrorBodies(maxSize, ttlMillis);
+    }
 
     @ExceptionHandler(Exception.class)
     public final ResponseEntity<Object> handleAllExceptions(Exception ex, WebRequest rq){
@@ -25,22 +32,18 @@ public class CustomizedResponseEntityExceptionHandler extends ResponseEntityExce
         return new ResponseEntity<>(exceptionResponse,HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
-    @ExceptionHandler(ResourceNotFoundException.class)
-    public final ResponseEntity<Object> handleResourceNotFoundException(ResourceAlreadyExists ex, WebRequest rq){
-        ExceptionResponse exceptionResponse =
-                new ExceptionResponse(new Date(), ex.getLocalizedMessage(), rq.getDescription(false));
-        return new ResponseEntity<>(exceptionResponse, HttpStatus.NOT_FOUND);
-    }
-    @ExceptionHandler(ResourceAlreadyExists.class)
-    public final ResponseEntity<Object> handleResourceAlreadyExistsException(ResourceAlreadyExists ex, WebRequest rq){
-        ExceptionResponse exceptionResponse =
-                new ExceptionResponse(new Date(), ex.getLocalizedMessage(), rq.getDescription(false));
-        return new ResponseEntity<>(exceptionResponse, HttpStatus.CONFLICT);
+    /**
+     * Not found, already exists and conflict outcomes. Bodies of shared exceptions are reused
+     * through {@link ErrorBodies} because the same empty list tends to be asked for over and over.
+     */
+    @ExceptionHandler(ApiException.class)
+    public final ResponseEntity<Object> handleApiException(ApiException ex, WebRequest rq){
+        return new ResponseEntity<>(errorBodies.bodyFor(ex, rq.getDescription(false)), ex.getStatus());
     }
-    @ExceptionHandler(ResourceConflict.class)
-    public final ResponseEntity<Object> handleResourceConflictException(ResourceAlreadyExists ex, WebRequest rq){
+    @ExceptionHandler(DependencyTimeout.class)
+    public final ResponseEntity<Object> handleDependencyTimeoutException(DependencyTimeout ex, WebRequest rq){
         ExceptionResponse exceptionResponse =
                 new ExceptionResponse(new Date(), ex.getLocalizedMessage(), rq.getDescription(false));
-        return new ResponseEntity<>(exceptionResponse, HttpStatus.CONFLICT);
+        return new ResponseEntity<>(exceptionResponse, HttpStatus.GATEWAY_TIMEOUT);
     }
 }
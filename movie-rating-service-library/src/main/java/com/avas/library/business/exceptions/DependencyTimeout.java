@@ -0,0 +1,11 @@
+package com.avas.library.business.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.GATEWAY_TIMEOUT)
+public class DependencyTimeout extends RuntimeException {
+    public DependencyTimeout(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,33 @@
+package com.avas.library.business.exceptions;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reuses {@link ExceptionResponse} bodies of {@link ApiException#isShared() shared} exceptions
+ * for the same request for a short time. Repeated misses, for example a client polling an empty
+ * list, then share one body instead of allocating a new one with a new {@link Date} every time.
+ * The timestamp of a reused body is the time it was first built. Exceptions whose message holds
+ * an id are different on every request, so they always get a fresh body.
+ */
+public class ErrorBodies {
+
+    private final Cache<String, ExceptionResponse> bodies;
+
+    public ErrorBodies(long maxSize, long ttlMillis) {
+        this.bodies = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlMillis, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    public ExceptionResponse bodyFor(ApiException exception, String details) {
+        String message = exception.getMessage();
+        if (!exception.isShared())
+            return new ExceptionResponse(new Date(), message, details);
+        return bodies.get(message + '\n' + details, key -> new ExceptionResponse(new Date(), message, details));
+    }
+}
@@ -0,0 +1,15 @@
+package com.avas.library.business.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidRequest extends ApiException {
+    public InvalidRequest(String message, Object value) {
+        super(HttpStatus.BAD_REQUEST, format(message, value));
+    }
+
+    public InvalidRequest(String message) {
+        super(HttpStatus.BAD_REQUEST, message);
+    }
+}
@@ -3,26 +3,15 @@ package com.avas.library.business.exceptions;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
-import java.text.MessageFormat;
-
 
 @ResponseStatus(HttpStatus.CONFLICT)
-public class ResourceAlreadyExists extends RuntimeException {
-    private Long resourceId;
-    private String message;
+public class ResourceAlreadyExists extends ApiException {
 
     public ResourceAlreadyExists(String message, Long resourceId) {
-        super(message);
-        this.message = message;
-        this.resourceId = resourceId;
+        super(HttpStatus.CONFLICT, format(message, resourceId));
     }
 
     public ResourceAlreadyExists(String message) {
-        super(message);
-    }
-
-    @Override
-    public String getLocalizedMessage() {
-        return (resourceId == null)? message : MessageFormat.format(message, resourceId);
+        super(HttpStatus.CONFLICT, message);
     }
-}
\ No newline at end of file
+}
@@ -3,24 +3,22 @@ package com.avas.library.business.exceptions;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
-import java.text.MessageFormat;
-
 @ResponseStatus(HttpStatus.NOT_FOUND)
-public class ResourceNotFoundException extends RuntimeException {
-    private Long resourceId;
-    private String message;
+public class ResourceNotFoundException extends ApiException {
     public ResourceNotFoundException(String message, Long resourceId) {
-        super(message);
-        this.message = message;
-        this.resourceId = resourceId;
+        super(HttpStatus.NOT_FOUND, format(message, resourceId));
     }
     public ResourceNotFoundException(String message) {
-        super(message);
+        super(HttpStatus.NOT_FOUND, message);
+    }
+    private ResourceNotFoundException(String message, boolean shared) {
+        super(HttpStatus.NOT_FOUND, message, shared);
     }
 
-    @Override
-    public String getLocalizedMessage()
-    {
-        return (resourceId == null)? message : MessageFormat.format(message, resourceId);
+    /**
+     * Not found outcome with a fixed message, to be kept in a constant and rethrown.
+     */
+    public static ResourceNotFoundException shared(String message) {
+        return new ResourceNotFoundException(message, true);
     }
 }
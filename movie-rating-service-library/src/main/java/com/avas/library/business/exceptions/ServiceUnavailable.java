@@ -0,0 +1,11 @@
+package com.avas.library.business.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ServiceUnavailable extends ApiException {
+    public ServiceUnavailable(String message) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, message);
+    }
+}
@@ -0,0 +1,141 @@
+package com.avas.library.business.fanout;
+
+import com.avas.library.business.exceptions.DependencyTimeout;
+import com.avas.library.instrumentation.RequestSqlStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * Runs the independent calls of one request concurrently on a bounded pool.
+ * <p>
+ * A failing call cancels the ones still running and its exception is rethrown as it was thrown,
+ * so a {@code ResourceNotFoundException} from a lookup still ends up as a 404. When several calls
+ * fail, the one listed first wins: a failure waits for the calls before it, within the timeout,
+ * so callers list the lookup whose error should be reported ahead of the others. Calls
+ * that do not finish within {@code fanout.timeout-ms} are cancelled and surface as a
+ * {@link DependencyTimeout}. When the pool and its queue are full the caller runs the call itself.
+ * SQL run by the calls is counted towards the request that fanned out, see {@link RequestSqlStats}.
+ */
+@Component
+public class FanOut {
+
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+
+    public FanOut(@Value("${fanout.threads:16}") int threads,
+                  @Value("${fanout.queue-size:256}") int queueSize,
+                  @Value("${fanout.timeout-ms:3000}") long timeoutMillis) {
+        AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueSize), runnable -> {
+            Thread thread = new Thread(runnable, "fanout-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Runs both calls concurrently and combines their results.
+     */
+    @SuppressWarnings("unchecked")
+    public <A, B, R> R both(Supplier<A> first, Supplier<B> second, BiFunction<A, B, R> combine) {
+        List<Object> results = all(Arrays.asList(first, second));
+        return combine.apply((A) results.get(0), (B) results.get(1));
+    }
+
+    /**
+     * Runs the calls concurrently and returns their results in the order of the calls.
+     */
+    public List<Object> all(Supplier<?>... calls) {
+        return all(Arrays.asList(calls));
+    }
+
+    /**
+     * Runs the calls concurrently and returns their results in the order of the calls.
+     */
+    public List<Object> all(List<? extends Supplier<?>> calls) {
+        CompletionService<Object> completion = new ExecutorCompletionService<>(executor);
+        List<Future<Object>> futures = new ArrayList<>(calls.size());
+        for (Supplier<?> call : calls)
+            futures.add(completion.submit(RequestSqlStats.propagating(call)::get));
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        try {
+            for (int done = 0; done < futures.size(); done++) {
+                Future<Object> finished = completion.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (finished == null)
+                    throw new DependencyTimeout("A downstream call did not answer within " + timeoutMillis + " ms");
+                try {
+                    finished.get();
+                } catch (ExecutionException e) {
+                    throw earliestFailure(futures, futures.indexOf(finished), e, deadline);
+                }
+            }
+            List<Object> results = new ArrayList<>(futures.size());
+            for (Future<Object> future : futures)
+                results.add(future.get());
+            return results;
+        } catch (ExecutionException e) {
+            cancel(futures);
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException e) {
+            cancel(futures);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for downstream calls", e);
+        } catch (RuntimeException e) {
+            cancel(futures);
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Returns the failure of the first call before {@code failed} that fails too, or
+     * {@code failure} if they all succeed or do not finish before the deadline.
+     */
+    private static ExecutionException earliestFailure(List<Future<Object>> futures, int failed,
+                                                      ExecutionException failure, long deadline)
+            throws InterruptedException {
+        for (int i = 0; i < failed; i++) {
+            try {
+                futures.get(i).get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            } catch (ExecutionException e) {
+                return e;
+            } catch (TimeoutException | CancellationException e) {
+                return failure;
+            }
+        }
+        return failure;
+    }
+
+    private static void cancel(List<Future<Object>> futures) {
+        futures.forEach(future -> future.cancel(true));
+    }
+}
@@ -1,57 +1,83 @@
 package com.avas.library.business.mappers;
 
+import com.avas.library.business.reference.ReferenceDataResolver;
 import com.avas.library.business.repository.model.Movie;
 import com.avas.library.business.repository.model.MovieType;
 import com.avas.library.business.repository.model.Review;
+import com.avas.library.model.LongIdList;
 import com.avas.library.model.MovieDTO;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Mappings;
 import org.mapstruct.Named;
+import org.springframework.beans.factory.annotation.Autowired;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Mapper(componentModel = "spring")
-public interface MovieMapping {
+public abstract class MovieMapping {
+
+    @Autowired
+    protected ReferenceDataResolver referenceDataResolver;
 
     @Mappings({
             @Mapping(source = "reviewIds", target = "reviewIds", qualifiedByName = "reviewIdsToReviewIdsLong"),
             @Mapping(source = "movieType", target = "movieType", qualifiedByName = "movieTypeToMovieTypeString")
 
     })
-    MovieDTO mapMovieToMovieDto(Movie movieEntity);
+    public abstract MovieDTO mapMovieToMovieDto(Movie movieEntity);
+
+    /**
+     * Maps the movie without touching its reviews, for callers that cache the result and look the
+     * review ids up separately.
+     */
+    @Mappings({
+            @Mapping(target = "reviewIds", ignore = true),
+            @Mapping(source = "movieType", target = "movieType", qualifiedByName = "movieTypeToMovieTypeString")
+    })
+    public abstract MovieDTO mapMovieToMovieDtoWithoutReviews(Movie movieEntity);
 
     @Mappings({
             @Mapping(source = "reviewIds", target = "reviewIds", qualifiedByName = "reviewIdsLongToReviewIds"),
             @Mapping(source = "movieType", target = "movieType", qualifiedByName = "movieTypeStringToMovieType")
 
     })
-    Movie mapMovieDtoToMovie(MovieDTO movieDto);
+    public abstract Movie mapMovieDtoToMovie(MovieDTO movieDto);
 
-    List<MovieDTO> mapMovieListToMovieListDto(List<Movie> movieEntities);
-    List<Movie> mapMovieDtoListToMovieList(List<MovieDTO> movieEntities);
+    public abstract List<MovieDTO> mapMovieListToMovieListDto(List<Movie> movieEntities);
+    public abstract List<Movie> mapMovieDtoListToMovieList(List<MovieDTO> movieEntities);
 
     @Named("reviewIdsToReviewIdsLong")
-    default List<Long> reviewIdsToReviewIdsLong(List<Review> listOfReviewIds) {
-        return listOfReviewIds.stream()
-                .map(Review::getId).collect(Collectors.toList());
+    public LongIdList reviewIdsToReviewIdsLong(List<Review> listOfReviewIds) {
+        if (listOfReviewIds == null)
+            return null;
+        LongIdList.Builder ids = LongIdList.builder(listOfReviewIds.size());
+        for (Review review : listOfReviewIds)
+            ids.add(review.getId());
+        return ids.build();
     }
 
     @Named("reviewIdsLongToReviewIds")
-    default List<Review> reviewIdsLongToReviewIds(List<Long> listOfReviewIdsLong) {
-        return listOfReviewIdsLong.stream()
-                .map(Review::new).collect(Collectors.toList());
+    public List<Review> reviewIdsLongToReviewIds(LongIdList listOfReviewIdsLong) {
+        if (listOfReviewIdsLong == null)
+            return new ArrayList<>();
+        List<Review> reviews = new ArrayList<>(listOfReviewIdsLong.size());
+        for (int i = 0; i < listOfReviewIdsLong.size(); i++)
+            reviews.add(new Review(listOfReviewIdsLong.get(i)));
+        return reviews;
     }
 
     @Named("movieTypeToMovieTypeString")
-    default String movieTypeStringToMovieType(MovieType movieType) {
+    public String movieTypeStringToMovieType(MovieType movieType) {
         return movieType.getType();
     }
 
     @Named("movieTypeStringToMovieType")
-    default MovieType movieTypeStringToMovieType(String movieType) {
-        return new MovieType(movieType);
+    public MovieType movieTypeStringToMovieType(String movieType) {
+        if (movieType == null)
+            return null;
+        return new MovieType(referenceDataResolver.movieTypeId(movieType), movieType, null);
     }
 
 }
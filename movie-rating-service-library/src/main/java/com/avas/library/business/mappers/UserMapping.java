@@ -1,6 +1,7 @@
 package com.avas.library.business.mappers;
 
 
+import com.avas.library.business.reference.ReferenceDataResolver;
 import com.avas.library.business.repository.model.User;
 import com.avas.library.business.repository.model.UserType;
 import com.avas.library.model.UserDTO;
@@ -8,29 +9,36 @@ import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Mappings;
 import org.mapstruct.Named;
+import org.springframework.beans.factory.annotation.Autowired;
 
 import java.util.List;
 
 @Mapper(componentModel = "spring")
-public interface UserMapping {
+public abstract class UserMapping {
+
+    @Autowired
+    protected ReferenceDataResolver referenceDataResolver;
+
     @Mappings({
             @Mapping(source = "userType", target = "userType", qualifiedByName = "userTypeToString")
     })
-    UserDTO mapUserToUserDto(User UserEntity);
+    public abstract UserDTO mapUserToUserDto(User UserEntity);
     @Mappings({
             @Mapping(source = "userType", target = "userType", qualifiedByName = "userTypeStringToUserTypeDto")
     })
-    User mapUserDtoToUser(UserDTO userDto);
-    List<UserDTO> mapUserListToUserDto(List<User> userEntities);
-    List<User> mapUserListDtoToUserList(List<UserDTO> userEntities);
+    public abstract User mapUserDtoToUser(UserDTO userDto);
+    public abstract List<UserDTO> mapUserListToUserDto(List<User> userEntities);
+    public abstract List<User> mapUserListDtoToUserList(List<UserDTO> userEntities);
 
     @Named("userTypeToString")
-    default String userUserTypeToUserTypeDto(UserType userType){
+    public String userUserTypeToUserTypeDto(UserType userType){
         return userType.getType();
     }
     @Named("userTypeStringToUserTypeDto")
-    default UserType userUserTypeToUserTypeDto(String userType){
-        return new UserType(userType);
+    public UserType userUserTypeToUserTypeDto(String userType){
+        if (userType == null)
+            return null;
+        return new UserType(referenceDataResolver.userTypeId(userType), userType, null);
     }
 
 }
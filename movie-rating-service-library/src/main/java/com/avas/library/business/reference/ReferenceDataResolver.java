@@ -0,0 +1,114 @@
+package com.avas.library.business.reference;
+
+import com.avas.library.business.exceptions.InvalidRequest;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Resolves user type and movie type names to their ids without touching the database.
+ * <p>
+ * Both name to id maps are loaded together into an immutable {@link ReferenceData} that is
+ * swapped atomically on refresh, so readers never see a half loaded map. The maps are refreshed
+ * on a schedule and when a name is not found, at most once per
+ * {@code reference-data.miss-refresh-interval-ms}. The type services also refresh their own maps
+ * after changing a type, but other services only learn of the change on one of those refreshes,
+ * or when a write fails on an id that is gone, see {@link #refreshAfterFailedWrite()}.
+ * A name that does not resolve is rejected as an invalid request.
+ */
+@Log4j2
+@Component
+public class ReferenceDataResolver {
+
+    private static final String SELECT_USER_TYPES = "SELECT id, type FROM user_type";
+    private static final String SELECT_MOVIE_TYPES = "SELECT id, type FROM movie_type";
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Value("${reference-data.miss-refresh-interval-ms:1000}")
+    private long missRefreshIntervalMillis;
+
+    private final AtomicReference<ReferenceData> data = new AtomicReference<>(ReferenceData.EMPTY);
+    private volatile long lastRefresh;
+
+    public Long userTypeId(String name) {
+        return resolve(name, ReferenceData::getUserTypeIds, "User type");
+    }
+
+    public Long movieTypeId(String name) {
+        return resolve(name, ReferenceData::getMovieTypeIds, "Movie type");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${reference-data.refresh-interval-ms:60000}",
+            fixedDelayString = "${reference-data.refresh-interval-ms:60000}")
+    public synchronized void refresh() {
+        lastRefresh = System.currentTimeMillis();
+        try {
+            data.set(new ReferenceData(load(SELECT_USER_TYPES), load(SELECT_MOVIE_TYPES)));
+        } catch (DataAccessException e) {
+            log.warn("Could not refresh reference data, keeping the previous maps", e);
+        }
+    }
+
+    /**
+     * Refreshes the maps after a write that used them failed on a constraint, as it does when a
+     * type was deleted or recreated by a type service since the last refresh.
+     *
+     * @return whether any id changed, that is whether the write is worth retrying with its type
+     * names resolved again
+     */
+    public synchronized boolean refreshAfterFailedWrite() {
+        ReferenceData previous = data.get();
+        refresh();
+        ReferenceData current = data.get();
+        return !current.getUserTypeIds().equals(previous.getUserTypeIds())
+                || !current.getMovieTypeIds().equals(previous.getMovieTypeIds());
+    }
+
+    private Long resolve(String name, Function<ReferenceData, Map<String, Long>> names,
+                         String resource) {
+        if (name == null)
+            return null;
+        Long id = names.apply(data.get()).get(name);
+        if (id == null && System.currentTimeMillis() - lastRefresh >= missRefreshIntervalMillis) {
+            refresh();
+            id = names.apply(data.get()).get(name);
+        }
+        if (id == null)
+            throw new InvalidRequest(resource + " {0} does not exist", name);
+        return id;
+    }
+
+    private Map<String, Long> load(String sql) {
+        Map<String, Long> ids = new HashMap<>();
+        jdbcTemplate.query(sql, row -> {
+            ids.put(row.getString("type"), row.getLong("id"));
+        });
+        return Collections.unmodifiableMap(ids);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    static final class ReferenceData {
+        static final ReferenceData EMPTY = new ReferenceData(Collections.emptyMap(), Collections.emptyMap());
+
+        private final Map<String, Long> userTypeIds;
+        private final Map<String, Long> movieTypeIds;
+    }
+}
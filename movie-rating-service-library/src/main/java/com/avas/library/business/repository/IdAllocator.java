@@ -0,0 +1,33 @@
+package com.avas.library.business.repository;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+/**
+ * Hands out entity ids from the same pooled generator Hibernate uses, for rows that are written
+ * with plain JDBC batches instead of through the entity manager. Ids come from the block already
+ * reserved by this service, so most calls do not touch the database.
+ */
+@Component
+public class IdAllocator {
+
+    @PersistenceContext
+    EntityManager entityManager;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long[] allocate(Class<?> entityType, int count) {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        IdentifierGenerator generator = session.getFactory().getMetamodel()
+                .entityPersister(entityType).getIdentifierGenerator();
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++)
+            ids[i] = ((Number) generator.generate(session, null)).longValue();
+        return ids;
+    }
+}
@@ -0,0 +1,24 @@
+package com.avas.library.business.repository.model;
+
+/**
+ * Shared id generation of the entities.
+ * <p>
+ * Ids come from one row per entity in the {@value #TABLE} table instead of MySQL
+ * {@code AUTO_INCREMENT}, which would make Hibernate give up insert batching. With the
+ * {@code pooled-lo} optimizer, see {@code hibernate.id.optimizer.pooled.preferred}, the row holds
+ * the first id of the next block and each service hands out {@value #ALLOCATION_SIZE} ids per
+ * round trip. Services sharing the database each reserve their own blocks, so ids stay unique but
+ * are not ordered by creation time across services.
+ * <p>
+ * {@code db/migration/id_generator.sql} creates and seeds the table for an existing database.
+ */
+public final class IdGenerators {
+
+    public static final String TABLE = "id_generator";
+    public static final String SEGMENT_COLUMN = "sequence_name";
+    public static final String VALUE_COLUMN = "next_val";
+    public static final int ALLOCATION_SIZE = 50;
+
+    private IdGenerators() {
+    }
+}
@@ -0,0 +1,27 @@
+package com.avas.library.business.repository.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * Denormalized like count of a movie, flushed periodically by user-like-microservice.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name="movie_like_counts")
+public class MovieLikeCount {
+
+    @Id
+    @Column(name = "movie_id")
+    private Long movieId;
+    @Column(name = "like_count")
+    private long likeCount;
+}
@@ -0,0 +1,27 @@
+package com.avas.library.business.repository.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * Denormalized like count of a review, flushed periodically by user-like-microservice.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name="review_like_counts")
+public class ReviewLikeCount {
+
+    @Id
+    @Column(name = "review_id")
+    private Long reviewId;
+    @Column(name = "like_count")
+    private long likeCount;
+}
@@ -0,0 +1,34 @@
+package com.avas.library.business.repository.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * Activity totals of a user. Review columns are kept by review-microservice and like columns by
+ * user-like-microservice, both through {@code UserActivityRecorder}.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name="user_activity")
+public class UserActivity {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+    @Column(name = "review_count")
+    private long reviewCount;
+    @Column(name = "score_total")
+    private long scoreTotal;
+    @Column(name = "movies_liked")
+    private long moviesLiked;
+    @Column(name = "reviews_liked")
+    private long reviewsLiked;
+}
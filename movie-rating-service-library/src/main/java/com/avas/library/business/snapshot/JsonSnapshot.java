@@ -0,0 +1,84 @@
+package com.avas.library.business.snapshot;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Immutable in-memory copy of a small table, with every row and the full list serialized to
+ * JSON up front. Readers get a consistent view without locking; writers build a new snapshot
+ * and swap it in.
+ */
+public final class JsonSnapshot<D> {
+
+    private static final JsonSnapshot<?> EMPTY = new JsonSnapshot<>(Collections.emptyList(), new byte[]{'[', ']'},
+            Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap());
+
+    private final List<D> all;
+    private final byte[] allJson;
+    private final Map<Long, D> byId;
+    private final Map<Long, byte[]> jsonById;
+    private final Map<String, Long> idByName;
+
+    private JsonSnapshot(List<D> all, byte[] allJson, Map<Long, D> byId, Map<Long, byte[]> jsonById,
+                         Map<String, Long> idByName) {
+        this.all = all;
+        this.allJson = allJson;
+        this.byId = byId;
+        this.jsonById = jsonById;
+        this.idByName = idByName;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <D> JsonSnapshot<D> empty() {
+        return (JsonSnapshot<D>) EMPTY;
+    }
+
+    public static <D> JsonSnapshot<D> of(List<D> rows, Function<D, Long> idOf, Function<D, String> nameOf,
+                                         ObjectMapper objectMapper) {
+        try {
+            Map<Long, D> byId = new HashMap<>();
+            Map<Long, byte[]> jsonById = new HashMap<>();
+            Map<String, Long> idByName = new HashMap<>();
+            for (D row : rows) {
+                byId.put(idOf.apply(row), row);
+                jsonById.put(idOf.apply(row), objectMapper.writeValueAsBytes(row));
+                idByName.put(nameOf.apply(row), idOf.apply(row));
+            }
+            return new JsonSnapshot<>(Collections.unmodifiableList(rows), objectMapper.writeValueAsBytes(rows),
+                    Collections.unmodifiableMap(byId), Collections.unmodifiableMap(jsonById),
+                    Collections.unmodifiableMap(idByName));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize snapshot rows", e);
+        }
+    }
+
+    public List<D> getAll() {
+        return all;
+    }
+
+    /**
+     * The full list as JSON. The array is shared, callers must not modify it.
+     */
+    public byte[] getAllJson() {
+        return allJson;
+    }
+
+    public Optional<D> findById(Long id) {
+        return Optional.ofNullable(byId.get(id));
+    }
+
+    public Optional<byte[]> findJsonById(Long id) {
+        return Optional.ofNullable(jsonById.get(id));
+    }
+
+    public Optional<Long> findIdByName(String name) {
+        return Optional.ofNullable(idByName.get(name));
+    }
+}
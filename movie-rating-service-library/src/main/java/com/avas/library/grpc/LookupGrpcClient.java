@@ -0,0 +1,116 @@
+package com.avas.library.grpc;
+
+import com.avas.library.business.exceptions.DependencyTimeout;
+import com.avas.library.model.LongIdList;
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientCalls;
+import io.grpc.stub.ClientResponseObserver;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Client side of the {@link LookupMethods}. Ids are streamed in chunks of {@code chunkSize}, and
+ * a chunk is only written while the transport reports itself ready, so a slow server pushes
+ * back on the client instead of the ids piling up in outbound buffers.
+ */
+public class LookupGrpcClient {
+
+    private final Channel channel;
+    private final int chunkSize;
+    private final long timeoutMillis;
+
+    public LookupGrpcClient(Channel channel, int chunkSize, long timeoutMillis) {
+        this.channel = channel;
+        this.chunkSize = chunkSize;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Returns the rows found for {@code ids}. Ids without a row are left out of the result.
+     */
+    public <D> List<D> resolve(MethodDescriptor<LongIdList, List<D>> method, Collection<Long> ids) {
+        if (ids.isEmpty())
+            return new ArrayList<>();
+        CompletableFuture<List<D>> result = new CompletableFuture<>();
+        ClientCalls.asyncBidiStreamingCall(
+                channel.newCall(method, CallOptions.DEFAULT.withDeadlineAfter(timeoutMillis, TimeUnit.MILLISECONDS)),
+                new ResolveCall<>(ids.iterator(), ids.size(), result));
+        try {
+            return result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while resolving " + method.getServiceName(), e);
+        } catch (TimeoutException e) {
+            throw new DependencyTimeout(method.getServiceName() + " did not answer in time");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof StatusRuntimeException
+                    && ((StatusRuntimeException) e.getCause()).getStatus().getCode() == Status.Code.DEADLINE_EXCEEDED)
+                throw new DependencyTimeout(method.getServiceName() + " did not answer in time");
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private final class ResolveCall<D> implements ClientResponseObserver<LongIdList, List<D>> {
+
+        private final Iterator<Long> remaining;
+        private final List<D> found;
+        private final CompletableFuture<List<D>> result;
+        private ClientCallStreamObserver<LongIdList> requests;
+        private boolean sentAll;
+
+        private ResolveCall(Iterator<Long> remaining, int expected, CompletableFuture<List<D>> result) {
+            this.remaining = remaining;
+            this.found = new ArrayList<>(expected);
+            this.result = result;
+        }
+
+        @Override
+        public void beforeStart(ClientCallStreamObserver<LongIdList> requests) {
+            this.requests = requests;
+            requests.setOnReadyHandler(this::sendWhileReady);
+        }
+
+        private synchronized void sendWhileReady() {
+            while (!sentAll && requests.isReady()) {
+                if (!remaining.hasNext()) {
+                    sentAll = true;
+                    requests.onCompleted();
+                    return;
+                }
+                LongIdList.Builder chunk = LongIdList.builder(chunkSize);
+                for (int i = 0; i < chunkSize && remaining.hasNext(); i++)
+                    chunk.add(remaining.next());
+                requests.onNext(chunk.build());
+            }
+        }
+
+        @Override
+        public void onNext(List<D> rows) {
+            found.addAll(rows);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            result.completeExceptionally(t);
+        }
+
+        @Override
+        public void onCompleted() {
+            result.complete(found);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.avas.library.grpc;
+
+import com.avas.library.model.LongIdList;
+import io.grpc.MethodDescriptor;
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.ServerServiceDefinition;
+import io.grpc.Status;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.ServerCalls;
+import io.grpc.stub.StreamObserver;
+import lombok.extern.log4j.Log4j2;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * gRPC server for one of the {@link LookupMethods}, answering from the service layer.
+ * <p>
+ * Inbound flow control is manual: the next id chunk is only requested once the answer to the
+ * previous one was handed to a ready transport. A client that stops reading therefore stops the
+ * server from reading too, and every stream holds at most one chunk and one answer in memory.
+ * <p>
+ * The server speaks plaintext and only accepts calls carrying the {@link LookupToken}. It is
+ * meant for the internal network, so it should be bound to a private or loopback address.
+ */
+@Log4j2
+public class LookupGrpcServer {
+
+    private final InetSocketAddress address;
+    private final Server server;
+
+    public <D> LookupGrpcServer(InetSocketAddress address, MethodDescriptor<LongIdList, List<D>> method,
+                                Function<List<Long>, List<D>> lookup, int maxChunkSize, LookupToken token) {
+        this.address = address;
+        ServerServiceDefinition service = ServerServiceDefinition.builder(method.getServiceName())
+                .addMethod(method, ServerCalls.asyncBidiStreamingCall(responses ->
+                        new LookupStream<>((ServerCallStreamObserver<List<D>>) responses, lookup, maxChunkSize)))
+                .build();
+        this.server = NettyServerBuilder.forAddress(address)
+                .addService(ServerInterceptors.intercept(service, token.serverInterceptor()))
+                .build();
+    }
+
+    public void start() throws IOException {
+        server.start();
+        log.info("Lookup gRPC server listening on {}:{}", address.getHostString(), server.getPort());
+    }
+
+    public void stop() throws InterruptedException {
+        server.shutdown();
+        if (!server.awaitTermination(5, TimeUnit.SECONDS))
+            server.shutdownNow();
+    }
+
+    public int getPort() {
+        return server.getPort();
+    }
+
+    private static final class LookupStream<D> implements StreamObserver<LongIdList> {
+
+        private final ServerCallStreamObserver<List<D>> responses;
+        private final Function<List<Long>, List<D>> lookup;
+        private final int maxChunkSize;
+        private boolean waitingForReady = true;
+        private boolean closed;
+
+        private LookupStream(ServerCallStreamObserver<List<D>> responses, Function<List<Long>, List<D>> lookup,
+                             int maxChunkSize) {
+            this.responses = responses;
+            this.lookup = lookup;
+            this.maxChunkSize = maxChunkSize;
+            responses.disableAutoRequest();
+            responses.setOnReadyHandler(this::onReady);
+        }
+
+        private void onReady() {
+            if (waitingForReady && !closed && responses.isReady()) {
+                waitingForReady = false;
+                responses.request(1);
+            }
+        }
+
+        @Override
+        public void onNext(LongIdList ids) {
+            if (closed)
+                return;
+            if (ids.size() > maxChunkSize) {
+                fail(Status.INVALID_ARGUMENT.withDescription("Chunks may hold at most " + maxChunkSize + " ids"));
+                return;
+            }
+            List<Long> chunk = new ArrayList<>(ids.size());
+            for (int i = 0; i < ids.size(); i++)
+                chunk.add(ids.get(i));
+            try {
+                responses.onNext(lookup.apply(chunk));
+            } catch (RuntimeException e) {
+                log.warn("Lookup of {} ids failed", chunk.size(), e);
+                fail(Status.INTERNAL.withDescription("Lookup failed"));
+                return;
+            }
+            if (responses.isReady())
+                responses.request(1);
+            else
+                waitingForReady = true;
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            closed = true;
+            log.debug("Lookup stream cancelled by the client", t);
+        }
+
+        @Override
+        public void onCompleted() {
+            if (!closed) {
+                closed = true;
+                responses.onCompleted();
+            }
+        }
+
+        private void fail(Status status) {
+            closed = true;
+            responses.onError(status.asRuntimeException());
+        }
+    }
+}
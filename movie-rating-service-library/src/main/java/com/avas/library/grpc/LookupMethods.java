@@ -0,0 +1,32 @@
+package com.avas.library.grpc;
+
+import com.avas.library.model.LongIdList;
+import com.avas.library.model.MovieDTO;
+import com.avas.library.model.ReviewDTO;
+import com.avas.library.model.UserDTO;
+import io.grpc.MethodDescriptor;
+
+import java.util.List;
+
+/**
+ * Bidirectional streaming lookups. The client streams chunks of ids, the server answers every
+ * chunk with the rows it found for it, in order. Ids without a row are simply left out.
+ */
+public final class LookupMethods {
+
+    public static final MethodDescriptor<LongIdList, List<UserDTO>> USERS = resolve("avas.lookup.Users", UserDTO.class);
+    public static final MethodDescriptor<LongIdList, List<MovieDTO>> MOVIES = resolve("avas.lookup.Movies", MovieDTO.class);
+    public static final MethodDescriptor<LongIdList, List<ReviewDTO>> REVIEWS = resolve("avas.lookup.Reviews", ReviewDTO.class);
+
+    private LookupMethods() {
+    }
+
+    private static <D> MethodDescriptor<LongIdList, List<D>> resolve(String serviceName, Class<D> type) {
+        return MethodDescriptor.<LongIdList, List<D>>newBuilder()
+                .setType(MethodDescriptor.MethodType.BIDI_STREAMING)
+                .setFullMethodName(MethodDescriptor.generateFullMethodName(serviceName, "Resolve"))
+                .setRequestMarshaller(SmileMarshaller.of(LongIdList.class))
+                .setResponseMarshaller(SmileMarshaller.listOf(type))
+                .build();
+    }
+}
@@ -0,0 +1,74 @@
+package com.avas.library.grpc;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ForwardingClientCall;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Shared secret that callers of the {@link LookupMethods} send in the {@code x-lookup-token}
+ * header. The lookup streams run in plaintext, so the token only keeps out callers on the same
+ * network that do not know it; it is no substitute for keeping the port off public interfaces.
+ */
+public final class LookupToken {
+
+    static final Metadata.Key<String> HEADER = Metadata.Key.of("x-lookup-token", Metadata.ASCII_STRING_MARSHALLER);
+
+    private final byte[] token;
+
+    public LookupToken(String token) {
+        if (token == null || token.isEmpty())
+            throw new IllegalArgumentException("The gRPC lookup token must not be empty");
+        this.token = token.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Rejects calls without the token with {@code UNAUTHENTICATED} before they reach the service.
+     */
+    public ServerInterceptor serverInterceptor() {
+        return new ServerInterceptor() {
+            @Override
+            public <Q, R> ServerCall.Listener<Q> interceptCall(ServerCall<Q, R> call, Metadata headers,
+                                                               ServerCallHandler<Q, R> next) {
+                String presented = headers.get(HEADER);
+                if (presented == null
+                        || !MessageDigest.isEqual(token, presented.getBytes(StandardCharsets.US_ASCII))) {
+                    call.close(Status.UNAUTHENTICATED.withDescription("Missing or invalid lookup token"), new Metadata());
+                    return new ServerCall.Listener<Q>() {
+                    };
+                }
+                return next.startCall(call, headers);
+            }
+        };
+    }
+
+    /**
+     * Adds the token to the headers of every call made through the intercepted channel.
+     */
+    public ClientInterceptor clientInterceptor() {
+        String value = new String(token, StandardCharsets.US_ASCII);
+        return new ClientInterceptor() {
+            @Override
+            public <Q, R> ClientCall<Q, R> interceptCall(MethodDescriptor<Q, R> method, CallOptions callOptions,
+                                                         Channel next) {
+                return new ForwardingClientCall.SimpleForwardingClientCall<Q, R>(next.newCall(method, callOptions)) {
+                    @Override
+                    public void start(Listener<R> responseListener, Metadata headers) {
+                        headers.put(HEADER, value);
+                        super.start(responseListener, headers);
+                    }
+                };
+            }
+        };
+    }
+}
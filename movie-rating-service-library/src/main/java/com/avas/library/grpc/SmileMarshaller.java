@@ -0,0 +1,63 @@
+package com.avas.library.grpc;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.grpc.MethodDescriptor;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * gRPC marshaller for the shared DTOs, encoded as Smile. Both ends are our own services using
+ * the same DTO classes, so no protobuf schema is needed.
+ */
+public final class SmileMarshaller<T> implements MethodDescriptor.Marshaller<T> {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper(new SmileFactory())
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private final ObjectReader reader;
+    private final ObjectWriter writer;
+
+    private SmileMarshaller(JavaType type) {
+        this.reader = MAPPER.readerFor(type);
+        this.writer = MAPPER.writerFor(type);
+    }
+
+    public static <T> SmileMarshaller<T> of(Class<T> type) {
+        return new SmileMarshaller<>(MAPPER.constructType(type));
+    }
+
+    public static <T> SmileMarshaller<List<T>> listOf(Class<T> elementType) {
+        return new SmileMarshaller<>(MAPPER.getTypeFactory().constructCollectionType(List.class, elementType));
+    }
+
+    @Override
+    public InputStream stream(T value) {
+        try {
+            return new ByteArrayInputStream(writer.writeValueAsBytes(value));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not encode gRPC message", e);
+        }
+    }
+
+    @Override
+    public T parse(InputStream stream) {
+        try {
+            return reader.readValue(stream);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not decode gRPC message", e);
+        }
+    }
+}
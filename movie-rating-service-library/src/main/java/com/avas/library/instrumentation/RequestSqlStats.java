@@ -0,0 +1,131 @@
+package com.avas.library.instrumentation;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * SQL executed by Hibernate on behalf of the HTTP request bound to the current thread.
+ * <p>
+ * Calls handed to other threads for the request, such as the ones run by {@code FanOut}, are
+ * wrapped with {@link #propagating(Supplier)} so their statements count towards it too. The
+ * numbers can therefore be updated from several threads at once.
+ * <p>
+ * {@link SqlStatementCounter} counts every prepared statement and {@link SqlTimingListener} adds
+ * the time spent executing it. Once the same statement text has been prepared
+ * {@code nPlusOneThreshold} times within the request, the calling application frames are
+ * remembered so the N+1 pattern can be reported with its call site. Work done outside of a
+ * request, such as scheduled jobs, is not tracked.
+ */
+public final class RequestSqlStats {
+
+    private static final ThreadLocal<RequestSqlStats> CURRENT = new ThreadLocal<>();
+    private static final String APPLICATION_PACKAGE = "com.avas.";
+    private static final String OWN_PACKAGE = RequestSqlStats.class.getPackage().getName();
+    private static final int CALL_SITE_FRAMES = 3;
+
+    private final int nPlusOneThreshold;
+    private final Map<String, int[]> countsBySql = new HashMap<>();
+    private Map<String, String> repeatedCallSites = Collections.emptyMap();
+    private int statements;
+    private long nanos;
+
+    private RequestSqlStats(int nPlusOneThreshold) {
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+
+    static RequestSqlStats begin(int nPlusOneThreshold) {
+        RequestSqlStats stats = new RequestSqlStats(nPlusOneThreshold);
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * The statistics of the request handled by the current thread, or {@code null} outside of one.
+     */
+    public static RequestSqlStats current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Wraps {@code call} so that it runs against the statistics of the current request on
+     * whatever thread executes it. Returns {@code call} itself outside of a request.
+     */
+    public static <T> Supplier<T> propagating(Supplier<T> call) {
+        RequestSqlStats stats = CURRENT.get();
+        if (stats == null)
+            return call;
+        return () -> {
+            RequestSqlStats previous = CURRENT.get();
+            CURRENT.set(stats);
+            try {
+                return call.get();
+            } finally {
+                if (previous == null)
+                    CURRENT.remove();
+                else
+                    CURRENT.set(previous);
+            }
+        };
+    }
+
+    synchronized void statementPrepared(String sql) {
+        statements++;
+        int[] count = countsBySql.computeIfAbsent(sql, key -> new int[1]);
+        if (++count[0] == nPlusOneThreshold) {
+            if (repeatedCallSites.isEmpty())
+                repeatedCallSites = new LinkedHashMap<>();
+            repeatedCallSites.put(sql, callSite());
+        }
+    }
+
+    synchronized void statementExecuted(long elapsedNanos) {
+        nanos += elapsedNanos;
+    }
+
+    public synchronized int getStatements() {
+        return statements;
+    }
+
+    public synchronized long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * Statements prepared at least {@code nPlusOneThreshold} times, with the application frames
+     * that were on the stack when the threshold was reached.
+     */
+    public synchronized Map<String, String> getRepeatedCallSites() {
+        return repeatedCallSites.isEmpty() ? repeatedCallSites : new LinkedHashMap<>(repeatedCallSites);
+    }
+
+    public synchronized int getCount(String sql) {
+        int[] count = countsBySql.get(sql);
+        return count == null ? 0 : count[0];
+    }
+
+    private static String callSite() {
+        StringBuilder callSite = new StringBuilder();
+        int frames = 0;
+        for (StackTraceElement frame : new Throwable().getStackTrace()) {
+            String className = frame.getClassName();
+            if (!className.startsWith(APPLICATION_PACKAGE) || className.startsWith(OWN_PACKAGE)
+                    || className.contains("$$"))
+                continue;
+            if (frames > 0)
+                callSite.append(" <- ");
+            callSite.append(className, className.lastIndexOf('.') + 1, className.length())
+                    .append('.').append(frame.getMethodName())
+                    .append(':').append(frame.getLineNumber());
+            if (++frames == CALL_SITE_FRAMES)
+                break;
+        }
+        return frames == 0 ? "unknown" : callSite.toString();
+    }
+}
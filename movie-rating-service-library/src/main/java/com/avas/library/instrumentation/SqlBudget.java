@@ -0,0 +1,20 @@
+package com.avas.library.instrumentation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Upper bound on the SQL statements a controller method may cause. Going over it is logged, or
+ * fails the request with {@link SqlBudgetExceeded} when {@code sql-instrumentation.budget-mode}
+ * is {@code fail}, which is what integration tests should run with.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SqlBudget {
+
+    int maxStatements();
+}
@@ -0,0 +1,63 @@
+package com.avas.library.instrumentation;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks the SQL of the request against the {@link SqlBudget} of the controller method and, with
+ * {@code sql-instrumentation.response-headers}, reports it in the {@value #STATEMENTS_HEADER} and
+ * {@value #TIME_HEADER} response headers. The headers expose how endpoints use the database, so
+ * they are meant for tests and local runs only. Runs just before the body is written, so it sees
+ * everything the controller did.
+ */
+@Log4j2
+@ControllerAdvice
+@ConditionalOnProperty(prefix = "sql-instrumentation", name = "enabled", matchIfMissing = true)
+public class SqlBudgetAdvice implements ResponseBodyAdvice<Object> {
+
+    static final String STATEMENTS_HEADER = "X-SQL-Statements";
+    static final String TIME_HEADER = "X-SQL-Time-Ms";
+
+    @Value("${sql-instrumentation.budget-mode:log}")
+    private BudgetMode budgetMode;
+    @Value("${sql-instrumentation.response-headers:false}")
+    private boolean responseHeaders;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class selectedConverterType, ServerHttpRequest request, ServerHttpResponse response) {
+        RequestSqlStats stats = RequestSqlStats.current();
+        if (stats == null)
+            return body;
+        if (responseHeaders) {
+            response.getHeaders().set(STATEMENTS_HEADER, Integer.toString(stats.getStatements()));
+            response.getHeaders().set(TIME_HEADER, Long.toString(TimeUnit.NANOSECONDS.toMillis(stats.getNanos())));
+        }
+        SqlBudget budget = returnType.getMethodAnnotation(SqlBudget.class);
+        if (budget == null || stats.getStatements() <= budget.maxStatements())
+            return body;
+        String endpoint = returnType.getDeclaringClass().getSimpleName() + "." + returnType.getExecutable().getName();
+        if (budgetMode == BudgetMode.FAIL)
+            throw new SqlBudgetExceeded(endpoint, stats.getStatements(), budget.maxStatements());
+        log.warn("{} ran {} SQL statements, its budget is {}", endpoint, stats.getStatements(), budget.maxStatements());
+        return body;
+    }
+
+    public enum BudgetMode {
+        LOG, FAIL
+    }
+}
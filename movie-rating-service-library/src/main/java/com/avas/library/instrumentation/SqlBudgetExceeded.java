@@ -0,0 +1,11 @@
+package com.avas.library.instrumentation;
+
+import com.avas.library.business.exceptions.ApiException;
+import org.springframework.http.HttpStatus;
+
+public class SqlBudgetExceeded extends ApiException {
+    public SqlBudgetExceeded(String endpoint, int statements, int maxStatements) {
+        super(HttpStatus.INTERNAL_SERVER_ERROR,
+                format("{0} ran {1} SQL statements, its budget is {2}", endpoint, statements, maxStatements));
+    }
+}
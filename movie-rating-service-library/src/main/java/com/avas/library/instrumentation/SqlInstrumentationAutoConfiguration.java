@@ -0,0 +1,52 @@
+package com.avas.library.instrumentation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfigureBefore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Per-request SQL accounting for every service that talks to the database through Hibernate.
+ * <p>
+ * {@link SqlStatementCounter} and {@link SqlTimingListener} are plugged into the session factory,
+ * {@link SqlInstrumentationFilter} turns the numbers of each request into metrics and N+1
+ * warnings, and {@link SqlBudgetAdvice} adds them to the response headers. With
+ * {@code sql-instrumentation.hibernate-statistics} Hibernate also keeps its session factory
+ * statistics, which Boot publishes as {@code hibernate.*} metrics.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass(SessionFactory.class)
+@ConditionalOnProperty(prefix = "sql-instrumentation", name = "enabled", matchIfMissing = true)
+@AutoConfigureBefore(HibernateJpaAutoConfiguration.class)
+public class SqlInstrumentationAutoConfiguration {
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlInstrumentationHibernateCustomizer(
+            @Value("${sql-instrumentation.hibernate-statistics:false}") boolean statistics) {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementCounter());
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, SqlTimingListener.class.getName());
+            if (statistics)
+                properties.put(AvailableSettings.GENERATE_STATISTICS, "true");
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlInstrumentationFilter> sqlInstrumentationFilter(
+            MeterRegistry meterRegistry,
+            @Value("${sql-instrumentation.n-plus-one-threshold:5}") int nPlusOneThreshold) {
+        FilterRegistrationBean<SqlInstrumentationFilter> registration =
+                new FilterRegistrationBean<>(new SqlInstrumentationFilter(meterRegistry, nPlusOneThreshold));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+}
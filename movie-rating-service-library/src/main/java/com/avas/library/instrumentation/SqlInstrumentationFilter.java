@@ -0,0 +1,74 @@
+package com.avas.library.instrumentation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binds a {@link RequestSqlStats} to every request and, once the request completes, records how
+ * many statements it ran and how long they took, tagged like {@code http.server.requests}.
+ * Statements repeated {@code sql-instrumentation.n-plus-one-threshold} times are logged with their
+ * call site and counted as {@value #N_PLUS_ONE}.
+ */
+@Log4j2
+public class SqlInstrumentationFilter extends OncePerRequestFilter {
+
+    static final String STATEMENTS = "http.server.requests.sql.statements";
+    static final String TIME = "http.server.requests.sql.time";
+    static final String N_PLUS_ONE = "sql.n_plus_one";
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+    private final int nPlusOneThreshold;
+
+    public SqlInstrumentationFilter(MeterRegistry meterRegistry, int nPlusOneThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestSqlStats stats = RequestSqlStats.begin(nPlusOneThreshold);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestSqlStats.end();
+            record(request, stats);
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestSqlStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? UNKNOWN_URI : pattern.toString();
+        String method = request.getMethod();
+        DistributionSummary.builder(STATEMENTS)
+                .tags("method", method, "uri", uri)
+                .register(meterRegistry)
+                .record(stats.getStatements());
+        Timer.builder(TIME)
+                .tags("method", method, "uri", uri)
+                .register(meterRegistry)
+                .record(stats.getNanos(), TimeUnit.NANOSECONDS);
+        for (Map.Entry<String, String> repeated : stats.getRepeatedCallSites().entrySet()) {
+            Counter.builder(N_PLUS_ONE)
+                    .tags("method", method, "uri", uri)
+                    .register(meterRegistry)
+                    .increment();
+            log.warn("Possible N+1 in {} {}: statement ran {} times, first repeated at {}: {}",
+                    method, uri, stats.getCount(repeated.getKey()), repeated.getValue(), repeated.getKey());
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.avas.library.instrumentation;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts every statement Hibernate prepares against the current request. The SQL is returned
+ * unchanged.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        RequestSqlStats stats = RequestSqlStats.current();
+        if (stats != null)
+            stats.statementPrepared(sql);
+        return sql;
+    }
+}
@@ -0,0 +1,38 @@
+package com.avas.library.instrumentation;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Adds the JDBC execution time of a session to the current request. Hibernate creates one
+ * instance per session through {@code hibernate.session.events.auto}.
+ */
+public class SqlTimingListener extends BaseSessionEventListener {
+
+    private long started;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        started = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        executed();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        started = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        executed();
+    }
+
+    private void executed() {
+        RequestSqlStats stats = RequestSqlStats.current();
+        if (stats != null)
+            stats.statementExecuted(System.nanoTime() - started);
+    }
+}
@@ -0,0 +1,14 @@
+package com.avas.library.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HelpfulReviewDTO {
+
+    private Long reviewId;
+    private long likes;
+}
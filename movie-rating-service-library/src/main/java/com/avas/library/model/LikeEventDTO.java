@@ -0,0 +1,18 @@
+package com.avas.library.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LikeEventDTO {
+
+    private long offset;
+    private LikeTarget target;
+    private Long targetId;
+    private Long userId;
+    private boolean liked;
+    private long timestamp;
+}
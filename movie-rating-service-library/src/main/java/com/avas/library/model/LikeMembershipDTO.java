@@ -0,0 +1,19 @@
+package com.avas.library.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Whether a user liked each of the requested movies and reviews. The flags are positional,
+ * {@code likedMovies[i]} answers for the i-th requested movie id.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LikeMembershipDTO {
+
+    private Long userId;
+    private boolean[] likedMovies;
+    private boolean[] likedReviews;
+}
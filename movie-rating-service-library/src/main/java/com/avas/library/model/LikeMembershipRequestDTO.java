@@ -0,0 +1,17 @@
+package com.avas.library.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LikeMembershipRequestDTO {
+
+    private List<Long> movieIds = new ArrayList<>();
+    private List<Long> reviewIds = new ArrayList<>();
+}
@@ -0,0 +1,6 @@
+package com.avas.library.model;
+
+public enum LikeTarget {
+    MOVIE,
+    REVIEW
+}
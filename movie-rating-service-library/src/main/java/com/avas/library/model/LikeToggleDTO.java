@@ -0,0 +1,16 @@
+package com.avas.library.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LikeToggleDTO {
+
+    private LikeTarget target;
+    private Long targetId;
+    private Long userId;
+    private Boolean liked;
+}
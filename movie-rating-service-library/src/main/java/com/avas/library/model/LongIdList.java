@@ -0,0 +1,123 @@
+package com.avas.library.model;
+
+import com.avas.library.model.json.LongIdListDeserializer;
+import com.avas.library.model.json.LongIdListSerializer;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.util.Arrays;
+import java.util.stream.LongStream;
+
+/**
+ * Immutable list of ids backed by a {@code long[]}, used in DTOs instead of {@code List<Long>}
+ * so that large id lists are built, held and serialized without boxing. On the wire it is a
+ * plain JSON array of numbers.
+ */
+@JsonSerialize(using = LongIdListSerializer.class)
+@JsonDeserialize(using = LongIdListDeserializer.class)
+public final class LongIdList {
+
+    private static final LongIdList EMPTY = new LongIdList(new long[0], 0);
+
+    private final long[] ids;
+    private final int size;
+
+    private LongIdList(long[] ids, int size) {
+        this.ids = ids;
+        this.size = size;
+    }
+
+    public static LongIdList empty() {
+        return EMPTY;
+    }
+
+    public static LongIdList of(long... ids) {
+        return ids.length == 0 ? EMPTY : new LongIdList(ids.clone(), ids.length);
+    }
+
+    public static Builder builder(int expectedSize) {
+        return new Builder(expectedSize);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long get(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        return ids[index];
+    }
+
+    public long[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    public LongStream stream() {
+        return Arrays.stream(ids, 0, size);
+    }
+
+    /**
+     * The backing array, valid up to {@link #size()}. Callers must not modify it.
+     */
+    public long[] backingArray() {
+        return ids;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other)
+            return true;
+        if (!(other instanceof LongIdList))
+            return false;
+        LongIdList that = (LongIdList) other;
+        if (size != that.size)
+            return false;
+        for (int i = 0; i < size; i++)
+            if (ids[i] != that.ids[i])
+                return false;
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (int i = 0; i < size; i++)
+            hash = 31 * hash + Long.hashCode(ids[i]);
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+    public static final class Builder {
+
+        private long[] ids;
+        private int size;
+
+        private Builder(int expectedSize) {
+            this.ids = new long[Math.max(expectedSize, 4)];
+        }
+
+        public Builder add(long id) {
+            if (size == ids.length)
+                ids = Arrays.copyOf(ids, size * 2);
+            ids[size++] = id;
+            return this;
+        }
+
+        public LongIdList build() {
+            if (size == 0)
+                return EMPTY;
+            LongIdList list = new LongIdList(ids, size);
+            ids = null;
+            return list;
+        }
+    }
+}
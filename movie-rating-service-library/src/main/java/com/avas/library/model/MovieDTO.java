@@ -1,12 +1,9 @@
 package com.avas.library.model;
 
-
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.util.List;
-
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -15,6 +12,6 @@ public class MovieDTO {
     private Long id;
     private String title;
     private String description;
-    private List<Long> reviewIds;
+    private LongIdList reviewIds;
     private String movieType;
 }
@@ -1,12 +1,9 @@
 package com.avas.library.model;
 
-
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.util.List;
-
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -14,6 +11,5 @@ public class MovieTypeDTO {
 
     private Long id;
     private String type;
-    private List<Long> movieIds;
 
 }
\ No newline at end of file
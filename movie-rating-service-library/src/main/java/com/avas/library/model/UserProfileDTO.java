@@ -0,0 +1,17 @@
+package com.avas.library.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserProfileDTO {
+
+    private Long userId;
+    private long reviewCount;
+    private double averageScore;
+    private long moviesLiked;
+    private long reviewsLiked;
+}
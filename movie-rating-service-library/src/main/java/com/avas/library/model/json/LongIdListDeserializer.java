@@ -0,0 +1,38 @@
+package com.avas.library.model.json;
+
+import com.avas.library.model.LongIdList;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+
+/**
+ * Reads a JSON array of numbers into a {@link LongIdList} without boxing the elements.
+ */
+public class LongIdListDeserializer extends StdDeserializer<LongIdList> {
+
+    public LongIdListDeserializer() {
+        super(LongIdList.class);
+    }
+
+    @Override
+    public LongIdList deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        if (!parser.isExpectedStartArrayToken())
+            return (LongIdList) context.handleUnexpectedToken(LongIdList.class, parser);
+        LongIdList.Builder ids = LongIdList.builder(16);
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token != JsonToken.VALUE_NUMBER_INT)
+                return (LongIdList) context.handleUnexpectedToken(long.class, parser);
+            ids.add(parser.getLongValue());
+        }
+        return ids.build();
+    }
+
+    @Override
+    public LongIdList getEmptyValue(DeserializationContext context) {
+        return LongIdList.empty();
+    }
+}
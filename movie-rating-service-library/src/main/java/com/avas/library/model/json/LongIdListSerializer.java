@@ -0,0 +1,28 @@
+package com.avas.library.model.json;
+
+import com.avas.library.model.LongIdList;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Writes a {@link LongIdList} as a JSON array straight from its backing array.
+ */
+public class LongIdListSerializer extends StdSerializer<LongIdList> {
+
+    public LongIdListSerializer() {
+        super(LongIdList.class);
+    }
+
+    @Override
+    public void serialize(LongIdList value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeArray(value.backingArray(), 0, value.size());
+    }
+
+    @Override
+    public boolean isEmpty(SerializerProvider provider, LongIdList value) {
+        return value == null || value.isEmpty();
+    }
+}
@@ -0,0 +1,40 @@
+package com.avas.library.web.json;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link ObjectWriter}s built once per value type. A writer resolved for a type keeps its root
+ * serializer, so repeated writes of the same DTO or DTO list skip the serializer lookup that
+ * {@link ObjectMapper#writeValueAsBytes(Object)} does on every call.
+ */
+public class DtoObjectWriters {
+
+    private final ObjectMapper objectMapper;
+    private final Map<JavaType, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    public DtoObjectWriters(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public ObjectWriter forType(JavaType type) {
+        return writers.computeIfAbsent(type, objectMapper::writerFor);
+    }
+
+    public ObjectWriter forType(Class<?> type) {
+        return forType(objectMapper.constructType(type));
+    }
+
+    public ObjectWriter forListOf(Class<?> elementType) {
+        return forType(objectMapper.getTypeFactory().constructCollectionType(List.class, elementType));
+    }
+
+    public ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+}
@@ -0,0 +1,52 @@
+package com.avas.library.web.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.AutoConfigureBefore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Shared JSON setup for every service that depends on the library.
+ * <p>
+ * The Spring managed {@link ObjectMapper} picks up the Afterburner module bean, which replaces
+ * reflective getter, setter and constructor calls with generated bytecode. Responses and Feign
+ * request bodies are written by {@link PooledJacksonHttpMessageConverter}, which takes the
+ * place of the default Jackson converter.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass(ObjectMapper.class)
+@AutoConfigureAfter(JacksonAutoConfiguration.class)
+@AutoConfigureBefore(HttpMessageConvertersAutoConfiguration.class)
+public class JsonSerializationAutoConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(name = "json.serialization.afterburner.enabled", matchIfMissing = true)
+    public AfterburnerModule afterburnerModule() {
+        return new AfterburnerModule();
+    }
+
+    @Bean
+    public DtoObjectWriters dtoObjectWriters(ObjectMapper objectMapper) {
+        return new DtoObjectWriters(objectMapper);
+    }
+
+    @Bean
+    public PooledBuffers pooledJsonBuffers(@Value("${json.serialization.buffer-size:8192}") int bufferSize,
+                                           @Value("${json.serialization.max-pooled-buffer-size:1048576}") int maxPooledSize) {
+        return new PooledBuffers(bufferSize, maxPooledSize);
+    }
+
+    @Bean
+    public PooledJacksonHttpMessageConverter pooledJacksonHttpMessageConverter(ObjectMapper objectMapper,
+                                                                               DtoObjectWriters dtoObjectWriters,
+                                                                               PooledBuffers pooledJsonBuffers) {
+        return new PooledJacksonHttpMessageConverter(objectMapper, dtoObjectWriters, pooledJsonBuffers);
+    }
+}
@@ -0,0 +1,57 @@
+package com.avas.library.web.json;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Per-thread output buffers for JSON encoding. A request thread serializes into its own buffer,
+ * which is reset and kept for the next response instead of being grown again from scratch.
+ * Buffers that grew past {@code maxPooledSize} are dropped so one large response does not pin
+ * its memory to the thread forever.
+ */
+public class PooledBuffers {
+
+    private final int initialSize;
+    private final int maxPooledSize;
+    private final ThreadLocal<Buffer> buffers;
+
+    public PooledBuffers(int initialSize, int maxPooledSize) {
+        this.initialSize = initialSize;
+        this.maxPooledSize = maxPooledSize;
+        this.buffers = ThreadLocal.withInitial(() -> new Buffer(initialSize));
+    }
+
+    /**
+     * Returns the empty buffer of the current thread, or a fresh one if it is already in use
+     * further up the stack. Every buffer must be handed back through {@link #release(Buffer)}.
+     */
+    public Buffer acquire() {
+        Buffer buffer = buffers.get();
+        if (buffer.inUse)
+            return new Buffer(initialSize);
+        buffer.inUse = true;
+        return buffer;
+    }
+
+    public void release(Buffer buffer) {
+        if (buffer != buffers.get())
+            return;
+        buffer.inUse = false;
+        if (buffer.capacity() > maxPooledSize)
+            buffers.remove();
+        else
+            buffer.reset();
+    }
+
+    public static final class Buffer extends ByteArrayOutputStream {
+
+        private boolean inUse;
+
+        private Buffer(int size) {
+            super(size);
+        }
+
+        int capacity() {
+            return buf.length;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.avas.library.web.json;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.util.TypeUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * JSON converter that writes through the cached {@link DtoObjectWriters} into a pooled buffer.
+ * Server responses get an exact {@code Content-Length} instead of chunked encoding. Views,
+ * filters and non UTF-8 charsets are left to the default implementation.
+ */
+public class PooledJacksonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private final DtoObjectWriters writers;
+    private final PooledBuffers buffers;
+
+    public PooledJacksonHttpMessageConverter(ObjectMapper objectMapper, DtoObjectWriters writers, PooledBuffers buffers) {
+        super(objectMapper);
+        this.writers = writers;
+        this.buffers = buffers;
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        if (object instanceof MappingJacksonValue || !isUtf8(outputMessage.getHeaders().getContentType())) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+        PooledBuffers.Buffer buffer = buffers.acquire();
+        try {
+            writers.forType(javaTypeOf(object, type)).writeValue(buffer, object);
+            if (outputMessage instanceof ServerHttpResponse)
+                outputMessage.getHeaders().setContentLength(buffer.size());
+            buffer.writeTo(outputMessage.getBody());
+            outputMessage.getBody().flush();
+        } finally {
+            buffers.release(buffer);
+        }
+    }
+
+    private JavaType javaTypeOf(Object object, Type type) {
+        if (type != null && TypeUtils.isAssignable(type, object.getClass()))
+            return getJavaType(type, null);
+        return getObjectMapper().constructType(object.getClass());
+    }
+
+    private static boolean isUtf8(MediaType contentType) {
+        return contentType == null || contentType.getCharset() == null
+                || StandardCharsets.UTF_8.equals(contentType.getCharset());
+    }
+}
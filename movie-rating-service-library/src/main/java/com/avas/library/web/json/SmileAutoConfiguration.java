@@ -0,0 +1,77 @@
+package com.avas.library.web.json;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import feign.RequestInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.AutoConfigureBefore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Binary JSON (Smile) between our own services.
+ * <p>
+ * Every service can read and write {@code application/x-jackson-smile} through content
+ * negotiation, using an {@link com.fasterxml.jackson.databind.ObjectMapper} built with the same
+ * modules and settings as the JSON one. The Smile converter is kept behind the JSON converters,
+ * so clients that send no {@code Accept} header or {@code *}{@code /*} still get JSON. Feign
+ * proxies ask for Smile first and fall back to JSON.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnClass(SmileFactory.class)
+@ConditionalOnProperty(name = "json.smile.enabled", matchIfMissing = true)
+@AutoConfigureAfter(JacksonAutoConfiguration.class)
+@AutoConfigureBefore(HttpMessageConvertersAutoConfiguration.class)
+public class SmileAutoConfiguration {
+
+    public static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    @Bean
+    public HttpMessageConverters messageConverters(ObjectProvider<HttpMessageConverter<?>> converters) {
+        return new HttpMessageConverters(converters.orderedStream().collect(Collectors.toList())) {
+            @Override
+            protected List<HttpMessageConverter<?>> postProcessConverters(List<HttpMessageConverter<?>> converters) {
+                List<HttpMessageConverter<?>> ordered = new ArrayList<>(converters);
+                List<HttpMessageConverter<?>> smile = ordered.stream()
+                        .filter(MappingJackson2SmileHttpMessageConverter.class::isInstance)
+                        .collect(Collectors.toList());
+                ordered.removeAll(smile);
+                ordered.addAll(smile);
+                return ordered;
+            }
+        };
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(RequestInterceptor.class)
+    static class FeignSmileConfiguration {
+
+        @Bean
+        public RequestInterceptor smileAcceptInterceptor() {
+            String accept = SMILE + ", " + MediaType.APPLICATION_JSON + ";q=0.9";
+            return template -> {
+                if (!template.headers().containsKey(HttpHeaders.ACCEPT))
+                    template.header(HttpHeaders.ACCEPT, accept);
+            };
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.avas.library.web.ratelimit;
+
+import com.avas.library.business.exceptions.ExceptionResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import javax.annotation.PostConstruct;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rejects requests with 429 once the client address has used up its token bucket for the matching
+ * policy.
+ * <p>
+ * Runs ahead of the dispatcher, so a rejected request never reaches a controller, Feign client or
+ * repository. The services do not authenticate their callers, so there is no identity to key on:
+ * this is a per address limiter, and clients behind one NAT share a bucket. Nothing the client
+ * sends in the path or headers picks the bucket. Behind a proxy the remote address is the proxy's
+ * unless {@code server.forward-headers-strategy} is set to take it from the forwarded headers the
+ * proxy adds. Each policy keeps at most {@code rate-limit.max-buckets} buckets.
+ * A bucket is dropped once it has been idle long enough to be full again, and when there are too
+ * many, the least recently used ones go first.
+ */
+@Log4j2
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER + 1)
+@ConditionalOnProperty(prefix = "rate-limit", name = "enabled", havingValue = "true")
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    @Autowired
+    RateLimitProperties rateLimitProperties;
+    @Autowired
+    ObjectMapper objectMapper;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+    private final List<LimitedEndpoint> endpoints = new ArrayList<>();
+
+    @PostConstruct
+    public void init() {
+        for (RateLimitProperties.Policy policy : rateLimitProperties.getPolicies())
+            endpoints.add(new LimitedEndpoint(policy));
+        log.info("Rate limiting {} endpoints", endpoints.size());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = urlPathHelper.getPathWithinApplication(request);
+        long now = System.nanoTime();
+        for (LimitedEndpoint endpoint : endpoints) {
+            if (!endpoint.policy.getMethod().equalsIgnoreCase(request.getMethod())
+                    || !pathMatcher.match(endpoint.policy.getPattern(), path))
+                continue;
+            long wait = endpoint.bucketFor(request.getRemoteAddr(), now).tryAcquire(now);
+            if (wait > 0) {
+                reject(response, path, wait);
+                return;
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    private void reject(HttpServletResponse response, String path, long waitNanos) throws IOException {
+        long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                new ExceptionResponse(new Date(), "Too many requests, retry after " + seconds + "s", "uri=" + path));
+    }
+
+    private class LimitedEndpoint {
+        private final RateLimitProperties.Policy policy;
+        private final Cache<String, TokenBucket> buckets;
+
+        private LimitedEndpoint(RateLimitProperties.Policy policy) {
+            this.policy = policy;
+            this.buckets = Caffeine.newBuilder()
+                    .expireAfterAccess((long) Math.ceil(Math.max(1, policy.getCapacity()) / policy.getRefillPerSecond()),
+                            TimeUnit.SECONDS)
+                    .maximumSize(rateLimitProperties.getMaxBuckets())
+                    .build();
+        }
+
+        private TokenBucket bucketFor(String address, long now) {
+            return buckets.get(address, key -> newBucket(now));
+        }
+
+        private TokenBucket newBucket(long now) {
+            return new TokenBucket(policy.getCapacity(), policy.getRefillPerSecond(), now);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.avas.library.web.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled;
+    /**
+     * Upper bound of buckets kept per policy; beyond it the least recently used are dropped.
+     */
+    private int maxBuckets = 100_000;
+    private List<Policy> policies = new ArrayList<>();
+
+    @Data
+    public static class Policy {
+        private String method;
+        private String pattern;
+        private int capacity = 10;
+        private double refillPerSecond = 1;
+    }
+}
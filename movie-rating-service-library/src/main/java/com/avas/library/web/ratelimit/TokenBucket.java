@@ -0,0 +1,41 @@
+package com.avas.library.web.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket kept as a single timestamp, so taking a token is one compare-and-set.
+ * <p>
+ * The timestamp is the time at which the bucket would be full again. Each token pushes it one
+ * refill interval further, and a request is let through as long as that time is no more than
+ * {@code capacity - 1} intervals ahead of now. A bucket whose timestamp is in the past is full
+ * and holds no state worth keeping.
+ */
+public class TokenBucket {
+
+    private final long interval;
+    private final long tolerance;
+    private final AtomicLong fullAt;
+
+    public TokenBucket(int capacity, double refillPerSecond, long now) {
+        this.interval = (long) (1_000_000_000L / refillPerSecond);
+        this.tolerance = interval * (Math.max(1, capacity) - 1);
+        this.fullAt = new AtomicLong(now);
+    }
+
+    /**
+     * Takes a token if there is one.
+     *
+     * @return 0 if a token was taken, otherwise the nanoseconds until the next one is available
+     */
+    public long tryAcquire(long now) {
+        while (true) {
+            long current = fullAt.get();
+            long base = current - now > 0 ? current : now;
+            long ahead = base - now;
+            if (ahead > tolerance)
+                return ahead - tolerance;
+            if (fullAt.compareAndSet(current, base + interval))
+                return 0;
+        }
+    }
+}
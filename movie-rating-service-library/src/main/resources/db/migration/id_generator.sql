@@ -0,0 +1,27 @@
+-- Moves an existing database from AUTO_INCREMENT ids to the pooled-lo table generator, see IdGenerators.
+-- Run once with the services stopped. Every segment starts right after the highest id in use,
+-- so ids handed out before the migration are never reused.
+
+CREATE TABLE IF NOT EXISTS defaultdb.id_generator (
+    sequence_name VARCHAR(255) NOT NULL,
+    next_val BIGINT,
+    PRIMARY KEY (sequence_name)
+);
+
+INSERT INTO defaultdb.id_generator (sequence_name, next_val)
+SELECT 'user_type', COALESCE(MAX(id), 0) + 1 FROM defaultdb.user_type
+UNION ALL SELECT 'users', COALESCE(MAX(id), 0) + 1 FROM defaultdb.users
+UNION ALL SELECT 'movie_type', COALESCE(MAX(id), 0) + 1 FROM defaultdb.movie_type
+UNION ALL SELECT 'movie', COALESCE(MAX(id), 0) + 1 FROM defaultdb.movie
+UNION ALL SELECT 'review', COALESCE(MAX(id), 0) + 1 FROM defaultdb.review
+UNION ALL SELECT 'user_likes', COALESCE(MAX(id), 0) + 1 FROM defaultdb.user_likes
+UNION ALL SELECT 'movie_likes', COALESCE(MAX(id), 0) + 1 FROM defaultdb.movie_likes
+ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val));
+
+ALTER TABLE defaultdb.user_type MODIFY id BIGINT NOT NULL;
+ALTER TABLE defaultdb.users MODIFY id BIGINT NOT NULL;
+ALTER TABLE defaultdb.movie_type MODIFY id BIGINT NOT NULL;
+ALTER TABLE defaultdb.movie MODIFY id BIGINT NOT NULL;
+ALTER TABLE defaultdb.review MODIFY id BIGINT NOT NULL;
+ALTER TABLE defaultdb.user_likes MODIFY id BIGINT NOT NULL;
+ALTER TABLE defaultdb.movie_likes MODIFY id BIGINT NOT NULL;
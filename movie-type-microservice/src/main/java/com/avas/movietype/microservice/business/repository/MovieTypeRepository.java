@@ -2,11 +2,27 @@ package com.avas.movietype.microservice.business.repository;
 
 import com.avas.library.business.repository.model.MovieType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
+import java.util.List;
 import java.util.Optional;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 public interface MovieTypeRepository extends JpaRepository<MovieType, Long> {
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     boolean
     existsByType(String type);
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     Optional<MovieType> findMovieTypeByType(String type);
+
+    @Query("SELECT m.id FROM Movie m WHERE m.movieType.id = :typeId AND m.id > :afterId ORDER BY m.id")
+    List<Long> findMovieIdPage(@Param("typeId") Long typeId, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT COUNT(m) FROM Movie m WHERE m.movieType.id = :typeId")
+    long countMovies(@Param("typeId") Long typeId);
 }
@@ -2,6 +2,8 @@ package com.avas.movietype.microservice.business.service;
 
 import com.avas.library.model.MovieTypeDTO;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,4 +19,18 @@ public interface MovieTypeService {
     MovieTypeDTO createMovieType(MovieTypeDTO newMovieType);
 
     MovieTypeDTO updateMovieTypeById(MovieTypeDTO modifyExistingMovieType, Long id);
+
+    long countMoviesOfType(Long id);
+
+    List<Long> getMovieIdsOfType(Long id, Long afterId, int limit);
+
+    void writeMovieIdsOfType(Long id, OutputStream out) throws IOException;
+
+    boolean isServingFromSnapshot();
+
+    byte[] getAllMovieTypesJson();
+
+    byte[] findMovieTypeJsonById(Long id);
+
+    byte[] findMovieTypeJsonByName(String movieTypeName);
 }
@@ -8,23 +8,55 @@ import com.avas.library.business.exceptions.ResourceNotFoundException;
 import com.avas.library.business.mappers.MovieTypeMapping;
 import com.avas.library.business.repository.model.MovieType;
 import com.avas.library.model.MovieTypeDTO;
+import com.avas.library.business.cache.DtoCache;
+import com.avas.library.business.cache.DtoCaches;
+import com.avas.library.business.encoding.DeltaVarintIds;
+import com.avas.library.business.reference.ReferenceDataResolver;
+import com.avas.library.business.snapshot.JsonSnapshot;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Log4j2
 @Service
 public class MovieTypeServiceImpl implements MovieTypeService {
+
+    private static final ResourceNotFoundException NO_MOVIE_TYPES_FOUND = ResourceNotFoundException.shared("No movie types found");
+
     @Autowired
     MovieTypeRepository movieTypeRepository;
 
     @Autowired
     MovieTypeMapping movieTypeMapping;
+    @Autowired
+    DtoCaches dtoCaches;
+    @Autowired
+    ReferenceDataResolver referenceDataResolver;
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Value("${type-snapshot.enabled:false}")
+    private boolean servingFromSnapshot;
+    @Value("${type-members.stream-chunk-size:10000}")
+    private int streamChunkSize;
+
+    private final AtomicReference<JsonSnapshot<MovieTypeDTO>> snapshot = new AtomicReference<>(JsonSnapshot.empty());
 
     @Override
     public Optional<MovieTypeDTO> getMovieTypeByName(String movieTypeName) {
+        if (servingFromSnapshot)
+            return snapshot.get().findIdByName(movieTypeName).flatMap(this::findMovieTypeById);
         Optional<MovieTypeDTO> movieTypeDTO = movieTypeRepository.findMovieTypeByType(movieTypeName)
                 .map(movieType -> movieTypeMapping.mapMovieTypeToMovieTypeDto(movieType));
         movieTypeDTO.orElseThrow(() -> new ResourceNotFoundException("movieType with name:"+movieTypeName+" does not exist"));
@@ -33,17 +65,25 @@ public class MovieTypeServiceImpl implements MovieTypeService {
     }
 
     public List<MovieTypeDTO> getAllMovieTypes() {
+        if (servingFromSnapshot) {
+            if (snapshot.get().getAll().isEmpty())
+                throw NO_MOVIE_TYPES_FOUND;
+            return snapshot.get().getAll();
+        }
         List<MovieType> returnedUserList = movieTypeRepository.findAll();
         if (returnedUserList.isEmpty())
-            throw new ResourceNotFoundException("No users found");
+            throw NO_MOVIE_TYPES_FOUND;
         log.info("user list size is :{}", returnedUserList.size());
         return movieTypeMapping.mapMovieTypeListToMovieTypeListDto(returnedUserList);
 
     }
 
     public Optional<MovieTypeDTO> findMovieTypeById(Long id) {
-        Optional<MovieTypeDTO> movieTypeDTO = movieTypeRepository.findById(id)
-                .map(movieType -> movieTypeMapping.mapMovieTypeToMovieTypeDto(movieType));
+        if (servingFromSnapshot)
+            return Optional.of(snapshot.get().findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("movieType with id:{0} does not exist", id)));
+        Optional<MovieTypeDTO> movieTypeDTO = movieTypeCache().get(id, key -> movieTypeRepository.findById(key)
+                .map(movieType -> movieTypeMapping.mapMovieTypeToMovieTypeDto(movieType)));
         movieTypeDTO.orElseThrow(() -> new ResourceNotFoundException("movieType with id:{0} does not exist", id));
         log.info("Found movie type :{}", movieTypeDTO);
         return movieTypeDTO;
@@ -53,6 +93,9 @@ public class MovieTypeServiceImpl implements MovieTypeService {
         findMovieTypeById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("MovieType for delete with id {0} is not found.", id));
         movieTypeRepository.deleteById(id);
+        referenceDataResolver.refresh();
+        movieTypeCache().invalidate(id);
+        rebuildSnapshot();
         log.info("movie type with id: {} is deleted", id);
     }
 
@@ -62,6 +105,8 @@ public class MovieTypeServiceImpl implements MovieTypeService {
             throw new ResourceAlreadyExists("Can not create movie type, movie type already exists");
         }
         MovieType savedMovieType = movieTypeRepository.save(movieTypeMapping.mapMovieTypeDtoToMovieType(newMovieType));
+        referenceDataResolver.refresh();
+        rebuildSnapshot();
         log.info("movie type  is created : {}", savedMovieType);
         return movieTypeMapping.mapMovieTypeToMovieTypeDto(savedMovieType);
     }
@@ -74,8 +119,75 @@ public class MovieTypeServiceImpl implements MovieTypeService {
         }
         modifyExistingMovieType.setId(id);
         MovieType modifiedMovieType = movieTypeRepository.save(movieTypeMapping.mapMovieTypeDtoToMovieType(modifyExistingMovieType));
+        referenceDataResolver.refresh();
+        movieTypeCache().invalidate(id);
+        rebuildSnapshot();
         log.info("movie type is updated id :{}, movie type is now :{}", modifiedMovieType.getId(), modifiedMovieType);
         return movieTypeMapping.mapMovieTypeToMovieTypeDto(modifiedMovieType);
     }
 
+    public long countMoviesOfType(Long id) {
+        findMovieTypeById(id);
+        return movieTypeRepository.countMovies(id);
+    }
+
+    public List<Long> getMovieIdsOfType(Long id, Long afterId, int limit) {
+        findMovieTypeById(id);
+        return movieTypeRepository.findMovieIdPage(id, afterId, PageRequest.of(0, limit));
+    }
+
+    /**
+     * Writes the ids of all movies of the type as a {@link DeltaVarintIds} stream, reading them
+     * in keyset pages so memory use does not grow with the number of movies.
+     */
+    public void writeMovieIdsOfType(Long id, OutputStream out) throws IOException {
+        long lastId = 0;
+        List<Long> page;
+        do {
+            page = movieTypeRepository.findMovieIdPage(id, lastId, PageRequest.of(0, streamChunkSize));
+            lastId = DeltaVarintIds.write(out, lastId, page);
+        } while (page.size() == streamChunkSize);
+    }
+
+    public boolean isServingFromSnapshot() {
+        return servingFromSnapshot;
+    }
+
+    public byte[] getAllMovieTypesJson() {
+        if (snapshot.get().getAll().isEmpty())
+            throw NO_MOVIE_TYPES_FOUND;
+        return snapshot.get().getAllJson();
+    }
+
+    public byte[] findMovieTypeJsonById(Long id) {
+        return snapshot.get().findJsonById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("movieType with id:{0} does not exist", id));
+    }
+
+    public byte[] findMovieTypeJsonByName(String movieTypeName) {
+        JsonSnapshot<MovieTypeDTO> current = snapshot.get();
+        return current.findIdByName(movieTypeName).flatMap(current::findJsonById)
+                .orElseThrow(() -> new ResourceNotFoundException("movieType with name:" + movieTypeName + " does not exist"));
+    }
+
+    /**
+     * Loads all movie types, without their movies, and swaps in a new snapshot. Members are only
+     * served by the keyset listings, so the snapshot stays the size of the type table. Rebuilds
+     * run one at a time, so a rebuild that loaded the types earlier never replaces the snapshot of
+     * one that loaded them later.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${type-snapshot.refresh-interval-ms:30000}",
+            fixedDelayString = "${type-snapshot.refresh-interval-ms:30000}")
+    public synchronized void rebuildSnapshot() {
+        if (!servingFromSnapshot)
+            return;
+        List<MovieTypeDTO> movieTypes = movieTypeMapping.mapMovieTypeListToMovieTypeListDto(movieTypeRepository.findAll());
+        snapshot.set(JsonSnapshot.of(movieTypes, MovieTypeDTO::getId, MovieTypeDTO::getType, objectMapper));
+        log.info("Movie type snapshot rebuilt with {} movie types", movieTypes.size());
+    }
+
+    private DtoCache<Long, MovieTypeDTO> movieTypeCache() {
+        return dtoCaches.get("movie-types");
+    }
 }
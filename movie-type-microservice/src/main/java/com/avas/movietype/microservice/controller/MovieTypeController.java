@@ -2,9 +2,12 @@ package com.avas.movietype.microservice.controller;
 
 import com.avas.movietype.microservice.business.service.MovieTypeService;
 import lombok.extern.log4j.Log4j2;
+import com.avas.library.business.encoding.DeltaVarintIds;
 import com.avas.library.model.MovieTypeDTO;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.BindingResult;
@@ -15,6 +18,8 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Optional;
@@ -27,27 +32,56 @@ public class MovieTypeController {
     @Autowired
     MovieTypeService movieTypeService;
 
+    @Value("${type-members.default-page-size:100}")
+    private int defaultPageSize;
+    @Value("${type-members.max-page-size:1000}")
+    private int maxPageSize;
+
 
 
     @GetMapping("/name/{typeName}")
-    public ResponseEntity<MovieTypeDTO> getMovieTypeByString(@PathVariable String typeName){
+    public ResponseEntity<?> getMovieTypeByString(@PathVariable String typeName){
+        if (movieTypeService.isServingFromSnapshot())
+            return json(movieTypeService.findMovieTypeJsonByName(typeName));
         Optional<MovieTypeDTO> foundMovieType = movieTypeService.getMovieTypeByName(typeName);
         log.info("Movie type found : {}", foundMovieType.get());
         return new ResponseEntity<>(foundMovieType.get(), HttpStatus.OK);
     }
     @GetMapping
-    public ResponseEntity<List<MovieTypeDTO>> getAllMovieTypes() {
+    public ResponseEntity<?> getAllMovieTypes() {
+        if (movieTypeService.isServingFromSnapshot())
+            return json(movieTypeService.getAllMovieTypesJson());
         List<MovieTypeDTO> movieTypeList = movieTypeService.getAllMovieTypes();
         return ResponseEntity.ok(movieTypeList);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<MovieTypeDTO> getMovieType(@PathVariable Long id) {
+    public ResponseEntity<?> getMovieType(@PathVariable Long id) {
+        if (movieTypeService.isServingFromSnapshot())
+            return json(movieTypeService.findMovieTypeJsonById(id));
         Optional<MovieTypeDTO> foundMovieType = movieTypeService.findMovieTypeById(id);
         log.info("Movie type found : {}", foundMovieType.get());
         return new ResponseEntity<>(foundMovieType.get(), HttpStatus.OK);
     }
 
+    @GetMapping("/{id}/movies/count")
+    public ResponseEntity<Long> countMoviesOfType(@PathVariable Long id) {
+        return new ResponseEntity<>(movieTypeService.countMoviesOfType(id), HttpStatus.OK);
+    }
+
+    @GetMapping("/{id}/movies")
+    public ResponseEntity<List<Long>> getMovieIdsOfType(@PathVariable Long id,
+                                                        @RequestParam(defaultValue = "0") Long afterId,
+                                                        @RequestParam(required = false) Integer limit) {
+        return new ResponseEntity<>(movieTypeService.getMovieIdsOfType(id, afterId, pageSize(limit)), HttpStatus.OK);
+    }
+
+    @GetMapping(value = "/{id}/movies/ids", produces = DeltaVarintIds.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> streamMovieIdsOfType(@PathVariable Long id) {
+        movieTypeService.findMovieTypeById(id);
+        return new ResponseEntity<>(out -> movieTypeService.writeMovieIdsOfType(id, out), HttpStatus.OK);
+    }
+
     @PostMapping
     public ResponseEntity<MovieTypeDTO> createMovieType(@RequestBody MovieTypeDTO movieTypeDTO, BindingResult bindingResult) {
         if (bindingResult.hasErrors()) {
@@ -80,4 +114,14 @@ public class MovieTypeController {
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
 
     }
+
+    private int pageSize(Integer limit) {
+        if (limit == null)
+            return defaultPageSize;
+        return Math.max(1, Math.min(limit, maxPageSize));
+    }
+
+    private static ResponseEntity<byte[]> json(byte[] body) {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
 }
@@ -3,11 +3,14 @@ package com.avas.movietype.microservice.business.service.impl;
 
 import com.avas.movietype.microservice.business.repository.MovieTypeRepository;
 import com.avas.movietype.microservice.test.data.MovieTypeTestData;
+import com.avas.library.business.encoding.DeltaVarintIds;
 import com.avas.library.business.exceptions.ResourceAlreadyExists;
 import com.avas.library.business.exceptions.ResourceNotFoundException;
 import com.avas.library.business.mappers.MovieTypeMapping;
+import com.avas.library.business.reference.ReferenceDataResolver;
 import com.avas.library.business.repository.model.MovieType;
 import com.avas.library.model.MovieTypeDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -18,14 +21,21 @@ import org.mockito.Spy;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -43,6 +53,12 @@ public class MovieTypeImplTest {
     @Mock
     private MovieTypeMapping mockMovieTypeMapping;
 
+    @Mock
+    private ReferenceDataResolver referenceDataResolver;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @Spy
     @InjectMocks
     private MovieTypeServiceImpl movieTypeService;
@@ -173,4 +189,36 @@ public class MovieTypeImplTest {
         doReturn(Optional.empty()).when(movieTypeService).findMovieTypeById(anyLong());
         Assertions.assertThrows(ResourceNotFoundException.class, () -> movieTypeService.deleteMovieTypeById(1L));
     }
+
+    @Test
+    @DisplayName("Snapshot mode serves movie types and their JSON from memory")
+    public void testServingFromSnapshot() {
+        ReflectionTestUtils.setField(movieTypeService, "servingFromSnapshot", true);
+        List<MovieTypeDTO> movieTypes = Arrays.asList(new MovieTypeDTO(1L, "horror"),
+                new MovieTypeDTO(2L, "comedy"));
+        List<MovieType> movieTypeList = movieTypeMapping.mapMovieTypeListDtoToMovieTypeList(movieTypes);
+        when(movieTypeRepository.findAll()).thenReturn(movieTypeList);
+        when(mockMovieTypeMapping.mapMovieTypeListToMovieTypeListDto(movieTypeList)).thenReturn(movieTypes);
+        movieTypeService.rebuildSnapshot();
+
+        Assertions.assertEquals(movieTypes, movieTypeService.getAllMovieTypes());
+        Assertions.assertEquals("comedy", movieTypeService.getMovieTypeByName("comedy").get().getType());
+        Assertions.assertEquals("{\"id\":1,\"type\":\"horror\"}",
+                new String(movieTypeService.findMovieTypeJsonById(1L), StandardCharsets.UTF_8));
+        Assertions.assertThrows(ResourceNotFoundException.class, () -> movieTypeService.findMovieTypeJsonByName("anime"));
+        verify(movieTypeRepository, times(1)).findAll();
+        verify(movieTypeRepository, times(0)).findById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Movie ids of a type are streamed as delta varints in keyset chunks")
+    public void testWriteMovieIdsOfType() throws IOException {
+        ReflectionTestUtils.setField(movieTypeService, "streamChunkSize", 2);
+        when(movieTypeRepository.findMovieIdPage(eq(1L), eq(0L), any())).thenReturn(Arrays.asList(3L, 200L));
+        when(movieTypeRepository.findMovieIdPage(eq(1L), eq(200L), any())).thenReturn(Collections.singletonList(201L));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        movieTypeService.writeMovieIdsOfType(1L, out);
+        Assertions.assertEquals(4, out.size());
+        Assertions.assertArrayEquals(new long[]{3L, 200L, 201L}, DeltaVarintIds.read(out.toByteArray()));
+    }
 }
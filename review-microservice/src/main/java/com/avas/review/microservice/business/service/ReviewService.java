@@ -9,6 +9,7 @@ public interface ReviewService {
 
     List<ReviewDTO> getAllReviews();
     Optional<ReviewDTO> findReviewById(Long id);
+    List<ReviewDTO> findReviewsByIds(List<Long> ids);
     void deleteReviewById(Long id);
     ReviewDTO createReview(ReviewDTO newReview);
     ReviewDTO updateReviewById(ReviewDTO modifyExistingReview, Long id);
@@ -11,16 +11,28 @@ import com.avas.library.business.mappers.UserMapping;
 import com.avas.library.business.repository.model.Review;
 import com.avas.library.business.repository.model.User;
 import com.avas.library.model.ReviewDTO;
+import com.avas.library.business.cache.DtoCache;
+import com.avas.library.business.cache.DtoCaches;
+import com.avas.library.business.activity.UserActivityRecorder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 
 @Log4j2
 @Service
 public class ReviewServiceImpl implements ReviewService {
+
+    private static final ResourceNotFoundException NO_REVIEWS_FOUND = ResourceNotFoundException.shared("No reviews found");
+
     @Autowired
     ReviewRepository reviewRepository;
 // TODO: Think how to better UserDTO's, Should they be the same DTO in both microservices, like UserDTO, or a
@@ -30,11 +42,15 @@ ReviewMapping reviewMapping;
     //TODO: Should this be in a library? Maybe there is a way to do this without the userMapping import?
     @Autowired
     UserMapping userMapping;
+    @Autowired
+    DtoCaches dtoCaches;
+    @Autowired
+    UserActivityRecorder userActivityRecorder;
 
     public List<ReviewDTO> getAllReviews() {
         List<Review> returnedReviewList = reviewRepository.findAll();
         if (returnedReviewList.isEmpty())
-            throw new ResourceNotFoundException("No reviews found");
+            throw NO_REVIEWS_FOUND;
         log.info("movie list size is :{}", returnedReviewList.size());
         return reviewMapping.mapReviewListToReviewListDto(returnedReviewList);
 
@@ -49,17 +65,26 @@ ReviewMapping reviewMapping;
     }
 
     public Optional<ReviewDTO> findReviewById(Long id) {
-        Optional<ReviewDTO> reviewDTO = reviewRepository.findById(id)
-                .map(review -> reviewMapping.mapReviewToReviewDto(review));
+        Optional<ReviewDTO> reviewDTO = reviewCache().get(id, key -> reviewRepository.findById(key)
+                .map(review -> reviewMapping.mapReviewToReviewDto(review)));
         reviewDTO.orElseThrow(() -> new ResourceNotFoundException("review with id:{0} does not exist", id));
         log.info("Found review :{}", reviewDTO);
         return reviewDTO;
     }
 
+    public List<ReviewDTO> findReviewsByIds(List<Long> ids) {
+        Map<Long, ReviewDTO> found = reviewCache().getAll(ids, missing -> reviewRepository.findAllById(missing).stream()
+                .collect(Collectors.toMap(Review::getId, review -> reviewMapping.mapReviewToReviewDto(review))));
+        log.info("Found {} of {} requested reviews", found.size(), ids.size());
+        return ids.stream().distinct().map(found::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
     public void deleteReviewById(Long id) {
-        findReviewById(id)
+        ReviewDTO deletedReview = findReviewById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Review for delete with id {0} is not found.", id));
         reviewRepository.deleteById(id);
+        reviewCache().invalidate(id);
+        userActivityRecorder.reviewRemoved(deletedReview.getUserId(), deletedReview.getScore());
         log.info("review with id: {} is deleted", id);
     }
 
@@ -70,6 +95,7 @@ ReviewMapping reviewMapping;
             throw new ResourceAlreadyExists("Can not create review , review  already exists");
         }
         Review savedReview = reviewRepository.save(reviewMapping.mapReviewDtoToReview(newReview));
+        userActivityRecorder.reviewAdded(newReview.getUserId(), savedReview.getScore());
         log.info("review is created : {}", savedReview);
         return reviewMapping.mapReviewToReviewDto(savedReview);
     }
@@ -82,6 +108,9 @@ ReviewMapping reviewMapping;
                 && (reviewDTO.get().getMovieId().equals(modifyExistingReview.getMovieId()))) {
             modifyExistingReview.setId(id);
             Review reviewToReturn = reviewRepository.save(reviewMapping.mapReviewDtoToReview(modifyExistingReview));
+            reviewCache().invalidate(id);
+            userActivityRecorder.reviewRescored(modifyExistingReview.getUserId(),
+                    reviewDTO.get().getScore(), reviewToReturn.getScore());
             log.info("Review :{} is now :{}", reviewDTO, modifyExistingReview);
             return reviewMapping.mapReviewToReviewDto(reviewToReturn);
         } else
@@ -89,5 +118,14 @@ ReviewMapping reviewMapping;
                     , reviewDTO.get().getUserId(), reviewDTO.get().getMovieId());
     }
 
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${user-activity.reconcile-interval-ms:3600000}",
+            fixedDelayString = "${user-activity.reconcile-interval-ms:3600000}")
+    public void reconcileUserActivity() {
+        userActivityRecorder.reconcileReviews();
+    }
 
+    private DtoCache<Long, ReviewDTO> reviewCache() {
+        return dtoCaches.get("reviews");
+    }
 }
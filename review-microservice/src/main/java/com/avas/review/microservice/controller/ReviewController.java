@@ -1,10 +1,12 @@
 package com.avas.review.microservice.controller;
 
 
+import com.avas.library.business.exceptions.InvalidRequest;
 import com.avas.review.microservice.business.service.ReviewService;
 import lombok.extern.log4j.Log4j2;
 import com.avas.library.model.ReviewDTO;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
@@ -16,6 +18,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import java.util.List;
 import java.util.Optional;
@@ -30,6 +33,8 @@ public class ReviewController {
 
     @Autowired
     ReviewService reviewService;
+    @Value("${lookup.batch.max-size:100}")
+    private int maxLookupIds;
 
     //TODO:Get all reviews for a movie
     //TODO: Query parameters for sorting
@@ -51,6 +56,13 @@ public class ReviewController {
     }
     //TODO: Should this receive Long or a UserDTO?
 
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<ReviewDTO>> getReviewsByIds(@RequestParam List<Long> ids) {
+        if (ids.size() > maxLookupIds)
+            throw new InvalidRequest("At most {0} ids can be looked up at once", maxLookupIds);
+        return new ResponseEntity<>(reviewService.findReviewsByIds(ids), HttpStatus.OK);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ReviewDTO> getReviewById(@PathVariable Long id) {
         Optional<ReviewDTO> foundReview = reviewService.findReviewById(id);
@@ -2,6 +2,8 @@ package com.avas.review.microservice.business.service.impl;
 
 import com.avas.review.microservice.business.repository.ReviewRepository;
 import com.avas.review.microservice.test.data.ReviewTestData;
+import com.avas.library.business.activity.UserActivityRecorder;
+import com.avas.library.business.cache.DtoCaches;
 import com.avas.library.business.exceptions.ResourceAlreadyExists;
 import com.avas.library.business.exceptions.ResourceConflict;
 import com.avas.library.business.exceptions.ResourceNotFoundException;
@@ -41,6 +43,12 @@ public class ReviewServiceImplTest {
     @Mock
     private ReviewMapping mockReviewMapping;
 
+    @Spy
+    private DtoCaches dtoCaches = new DtoCaches();
+
+    @Mock
+    private UserActivityRecorder userActivityRecorder;
+
     @Spy
     @InjectMocks
     private ReviewServiceImpl reviewService;
@@ -0,0 +1,135 @@
+package com.avas.user.like.microservice.business.coalescing;
+
+import com.avas.library.business.repository.IdAllocator;
+import com.avas.library.business.repository.model.MovieLike;
+import com.avas.library.business.repository.model.ReviewLike;
+import com.avas.library.model.LikeTarget;
+import lombok.Value;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Collects like toggles that were already applied in memory and persists only their net effect.
+ * <p>
+ * For every (target, user) pair it remembers the state the database had before the first toggle
+ * in the current window and the latest state. On flush, pairs that ended where they started are
+ * dropped, and the rest are written as one JDBC batch of inserts and deletes per table. Inserted
+ * rows get their ids from {@link IdAllocator}, the same pooled generator the entities use.
+ */
+@Log4j2
+@Component
+public class LikeWriteCoalescer {
+
+    private static final String INSERT_MOVIE_LIKE = "INSERT IGNORE INTO movie_likes (id, movie_id, user_id) VALUES (?, ?, ?)";
+    private static final String DELETE_MOVIE_LIKE = "DELETE FROM movie_likes WHERE movie_id = ? AND user_id = ?";
+    private static final String INSERT_REVIEW_LIKE = "INSERT IGNORE INTO user_likes (id, review_id, user_id) VALUES (?, ?, ?)";
+    private static final String DELETE_REVIEW_LIKE = "DELETE FROM user_likes WHERE review_id = ? AND user_id = ?";
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+    @Autowired
+    IdAllocator idAllocator;
+
+    private final Map<LikeKey, PendingLike> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Records that the like of {@code userId} on the target is now {@code liked}.
+     */
+    public void record(LikeTarget target, Long targetId, Long userId, boolean liked) {
+        pending.compute(new LikeKey(target, targetId, userId), (key, previous) -> previous == null
+                ? new PendingLike(!liked, liked)
+                : new PendingLike(previous.isPersisted(), liked));
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Adds the net effect of the changes still waiting for a flush on the target to the count the
+     * database holds. Runs under the flush monitor, so no change moves from memory to the database
+     * while {@code storedCount} is read and nothing is counted twice or missed.
+     */
+    public synchronized long countWithPending(LikeTarget target, Long targetId, LongSupplier storedCount) {
+        long count = storedCount.getAsLong();
+        for (Map.Entry<LikeKey, PendingLike> entry : pending.entrySet()) {
+            LikeKey key = entry.getKey();
+            PendingLike change = entry.getValue();
+            if (key.getTarget() == target && key.getTargetId().equals(targetId) && change.isPersisted() != change.isLiked())
+                count += change.isLiked() ? 1 : -1;
+        }
+        return count;
+    }
+
+    @Scheduled(fixedDelayString = "${like.coalescing.flush-interval-ms:200}")
+    public synchronized void flush() {
+        if (pending.isEmpty())
+            return;
+        Map<LikeKey, PendingLike> drained = new HashMap<>();
+        for (LikeKey key : pending.keySet()) {
+            PendingLike change = pending.remove(key);
+            if (change != null && change.isPersisted() != change.isLiked())
+                drained.put(key, change);
+        }
+        if (drained.isEmpty())
+            return;
+        Map<String, List<Object[]>> batches = new HashMap<>();
+        drained.forEach((key, change) -> batches
+                .computeIfAbsent(statementFor(key.getTarget(), change.isLiked()), sql -> new ArrayList<>())
+                .add(new Object[]{key.getTargetId(), key.getUserId()}));
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    batches.forEach((sql, arguments) -> jdbcTemplate.batchUpdate(sql, withIds(sql, arguments))));
+            log.debug("Flushed {} coalesced like changes", drained.size());
+        } catch (DataAccessException e) {
+            drained.forEach((key, change) -> pending.merge(key, change,
+                    (newer, failed) -> new PendingLike(failed.isPersisted(), newer.isLiked())));
+            log.warn("Could not flush {} coalesced like changes, will retry on next flush", drained.size(), e);
+        }
+    }
+
+    private List<Object[]> withIds(String sql, List<Object[]> arguments) {
+        Class<?> entityType = sql.equals(INSERT_MOVIE_LIKE) ? MovieLike.class
+                : sql.equals(INSERT_REVIEW_LIKE) ? ReviewLike.class : null;
+        if (entityType == null)
+            return arguments;
+        long[] ids = idAllocator.allocate(entityType, arguments.size());
+        List<Object[]> rows = new ArrayList<>(arguments.size());
+        for (int i = 0; i < ids.length; i++)
+            rows.add(new Object[]{ids[i], arguments.get(i)[0], arguments.get(i)[1]});
+        return rows;
+    }
+
+    private static String statementFor(LikeTarget target, boolean liked) {
+        if (target == LikeTarget.MOVIE)
+            return liked ? INSERT_MOVIE_LIKE : DELETE_MOVIE_LIKE;
+        return liked ? INSERT_REVIEW_LIKE : DELETE_REVIEW_LIKE;
+    }
+
+    @Value
+    static class LikeKey {
+        LikeTarget target;
+        Long targetId;
+        Long userId;
+    }
+
+    @Value
+    static class PendingLike {
+        boolean persisted;
+        boolean liked;
+    }
+}
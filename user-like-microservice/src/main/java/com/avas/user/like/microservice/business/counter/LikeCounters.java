@@ -0,0 +1,212 @@
+package com.avas.user.like.microservice.business.counter;
+
+import com.avas.library.business.activity.UserActivityRecorder;
+import com.avas.user.like.microservice.business.coalescing.LikeWriteCoalescer;
+import com.avas.user.like.microservice.business.lock.LikeLocks;
+import com.avas.user.like.microservice.business.repository.MovieLikeRepository;
+import com.avas.user.like.microservice.business.repository.UserLikeRepository;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory like counters per movie and per review. Every toggle updates a {@link LongAdder},
+ * so the read path never touches the database. Counters are reconciled against the like tables
+ * and flushed to the denormalized count tables on a schedule.
+ * <p>
+ * Reconciling compares the like tables with a snapshot of the counters and adds only the
+ * difference, so changes made while the counts are queried are kept. The snapshot is taken while
+ * no like can change and nothing is waiting in the {@link LikeWriteCoalescer}, together with a
+ * consistent read view of the database, and the likes are unlocked again right after. The counts
+ * are then read through that view in the same repeatable read transaction, so they match the
+ * snapshot without any like write waiting for the table scans. The per-user like totals of the
+ * {@link UserActivityRecorder} are recounted through the same view, its pending like deltas being
+ * dropped when the snapshot is taken.
+ */
+@Log4j2
+@Component
+public class LikeCounters {
+
+    private static final String UPSERT_MOVIE_COUNT = "INSERT INTO movie_like_counts (movie_id, like_count) VALUES (?, ?) "
+            + "ON DUPLICATE KEY UPDATE like_count = VALUES(like_count)";
+    private static final String UPSERT_REVIEW_COUNT = "INSERT INTO review_like_counts (review_id, like_count) VALUES (?, ?) "
+            + "ON DUPLICATE KEY UPDATE like_count = VALUES(like_count)";
+    private static final String START_CONSISTENT_SNAPSHOT = "START TRANSACTION WITH CONSISTENT SNAPSHOT";
+
+    @Autowired
+    MovieLikeRepository movieLikeRepository;
+    @Autowired
+    UserLikeRepository reviewLikeRepository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    LikeWriteCoalescer likeWriteCoalescer;
+    @Autowired
+    UserActivityRecorder userActivityRecorder;
+    @Autowired
+    LikeLocks likeLocks;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    private final Map<Long, LongAdder> movieCounters = new ConcurrentHashMap<>();
+    private final Map<Long, LongAdder> reviewCounters = new ConcurrentHashMap<>();
+    private final Set<Long> dirtyMovies = ConcurrentHashMap.newKeySet();
+    private final Set<Long> dirtyReviews = ConcurrentHashMap.newKeySet();
+
+    public void movieLiked(Long movieId) {
+        add(movieCounters, dirtyMovies, movieId, 1);
+    }
+
+    public void movieUnliked(Long movieId) {
+        add(movieCounters, dirtyMovies, movieId, -1);
+    }
+
+    public void reviewLiked(Long reviewId) {
+        add(reviewCounters, dirtyReviews, reviewId, 1);
+    }
+
+    public void reviewUnliked(Long reviewId) {
+        add(reviewCounters, dirtyReviews, reviewId, -1);
+    }
+
+    public long getMovieLikeCount(Long movieId) {
+        return sum(movieCounters, movieId);
+    }
+
+    public long getReviewLikeCount(Long reviewId) {
+        return sum(reviewCounters, reviewId);
+    }
+
+    public Map<Long, Long> getMovieLikeCounts(Collection<Long> movieIds) {
+        return sumAll(movieCounters, movieIds);
+    }
+
+    public Map<Long, Long> getReviewLikeCounts(Collection<Long> reviewIds) {
+        return sumAll(reviewCounters, reviewIds);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${like.counters.reconcile-interval-ms:300000}",
+            fixedDelayString = "${like.counters.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        userActivityRecorder.holdingFlushes(this::reconcileWhileFlushesHeld);
+    }
+
+    @Scheduled(fixedDelayString = "${like.counters.flush-interval-ms:5000}")
+    public void flush() {
+        int movies = flush(movieCounters, dirtyMovies, UPSERT_MOVIE_COUNT);
+        int reviews = flush(reviewCounters, dirtyReviews, UPSERT_REVIEW_COUNT);
+        if (movies + reviews > 0)
+            log.debug("Flushed like counts for movies:{}, reviews:{}", movies, reviews);
+    }
+
+    private void reconcileWhileFlushesHeld() {
+        AtomicBoolean locked = new AtomicBoolean(true);
+        likeLocks.lockAll();
+        try {
+            likeWriteCoalescer.flush();
+            TransactionTemplate snapshotTransaction = new TransactionTemplate(transactionManager);
+            snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+            snapshotTransaction.executeWithoutResult(status -> {
+                jdbcTemplate.execute(START_CONSISTENT_SNAPSHOT);
+                Map<Long, Long> movieSnapshot = snapshot(movieCounters);
+                Map<Long, Long> reviewSnapshot = snapshot(reviewCounters);
+                userActivityRecorder.discardPendingLikes();
+                likeLocks.unlockAll();
+                locked.set(false);
+                List<Object[]> movieCounts = movieLikeRepository.countLikesGroupedByMovie();
+                List<Object[]> reviewCounts = reviewLikeRepository.countLikesGroupedByReview();
+                userActivityRecorder.recountLikes();
+                int movieDrift = reconcile(movieCounters, dirtyMovies, movieSnapshot, movieCounts);
+                int reviewDrift = reconcile(reviewCounters, dirtyReviews, reviewSnapshot, reviewCounts);
+                log.info("Like counters reconciled, drifted movies:{}, drifted reviews:{}", movieDrift, reviewDrift);
+            });
+        } finally {
+            if (locked.get())
+                likeLocks.unlockAll();
+        }
+    }
+
+    private void add(Map<Long, LongAdder> counters, Set<Long> dirty, Long id, long delta) {
+        counters.computeIfAbsent(id, key -> new LongAdder()).add(delta);
+        dirty.add(id);
+    }
+
+    private long sum(Map<Long, LongAdder> counters, Long id) {
+        LongAdder adder = counters.get(id);
+        return adder == null ? 0L : adder.sum();
+    }
+
+    private Map<Long, Long> sumAll(Map<Long, LongAdder> counters, Collection<Long> ids) {
+        Map<Long, Long> counts = new LinkedHashMap<>();
+        for (Long id : ids)
+            counts.put(id, sum(counters, id));
+        return counts;
+    }
+
+    private static Map<Long, Long> snapshot(Map<Long, LongAdder> counters) {
+        Map<Long, Long> snapshot = new HashMap<>(counters.size() * 2);
+        counters.forEach((id, adder) -> snapshot.put(id, adder.sum()));
+        return snapshot;
+    }
+
+    /**
+     * Adds to every counter the difference between its persisted count and its value in
+     * {@code snapshot}, leaving whatever was added to it since the snapshot in place.
+     */
+    private int reconcile(Map<Long, LongAdder> counters, Set<Long> dirty, Map<Long, Long> snapshot,
+                          List<Object[]> persistedCounts) {
+        Map<Long, Long> expected = new HashMap<>();
+        for (Object[] row : persistedCounts)
+            expected.put((Long) row[0], (Long) row[1]);
+        for (Long id : snapshot.keySet())
+            expected.putIfAbsent(id, 0L);
+        int drifted = 0;
+        for (Map.Entry<Long, Long> entry : expected.entrySet()) {
+            long delta = entry.getValue() - snapshot.getOrDefault(entry.getKey(), 0L);
+            if (delta != 0) {
+                counters.computeIfAbsent(entry.getKey(), key -> new LongAdder()).add(delta);
+                dirty.add(entry.getKey());
+                drifted++;
+            }
+        }
+        return drifted;
+    }
+
+    private int flush(Map<Long, LongAdder> counters, Set<Long> dirty, String upsert) {
+        List<Object[]> batch = new ArrayList<>();
+        for (Long id : dirty) {
+            dirty.remove(id);
+            batch.add(new Object[]{id, sum(counters, id)});
+        }
+        if (batch.isEmpty())
+            return 0;
+        try {
+            jdbcTemplate.batchUpdate(upsert, batch);
+        } catch (DataAccessException e) {
+            batch.forEach(row -> dirty.add((Long) row[0]));
+            log.warn("Could not flush like counts, will retry on next flush", e);
+            return 0;
+        }
+        return batch.size();
+    }
+}
@@ -0,0 +1,232 @@
+package com.avas.user.like.microservice.business.eventlog;
+
+import com.avas.library.business.exceptions.ServiceUnavailable;
+import com.avas.library.model.LikeEventDTO;
+import com.avas.library.model.LikeTarget;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Append-only log of like and unlike events, kept in memory-mapped segment files.
+ * <p>
+ * Every event gets the next offset. Appends are a few absolute writes into the mapping of the
+ * active segment; when it is full a new segment is started and the oldest segments beyond the
+ * retention are deleted. Readers never copy through the heap, they decode straight from a
+ * read-only view of the mapping, and may only look at offsets below {@link #nextOffset}, which is
+ * published after the record is written. Long-polling readers are parked until an event with
+ * their offset is appended. They are completed on a thread of their own, as appends happen while
+ * the lock of the like is held, and at most {@code like.events.max-waiters} may be parked at once.
+ */
+@Log4j2
+@Component
+public class LikeEventLog {
+
+    private static final byte MOVIE = 1;
+    private static final byte REVIEW = 2;
+
+    private final Path directory;
+    private final int segmentRecords;
+    private final int retainedSegments;
+    private final int maxWaiters;
+
+    private final ConcurrentNavigableMap<Long, LikeEventSegment> segments = new ConcurrentSkipListMap<>();
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger waiterCount = new AtomicInteger();
+    private final AtomicBoolean wakeScheduled = new AtomicBoolean();
+    private final ExecutorService wakeExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "like-event-waiters");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private LikeEventSegment active;
+    private volatile long nextOffset;
+
+    public LikeEventLog(@Value("${like.events.directory:like-events}") String directory,
+                        @Value("${like.events.segment-records:1048576}") int segmentRecords,
+                        @Value("${like.events.retained-segments:16}") int retainedSegments,
+                        @Value("${like.events.max-waiters:10000}") int maxWaiters) {
+        this.directory = Paths.get(directory);
+        this.segmentRecords = segmentRecords;
+        this.retainedSegments = Math.max(1, retainedSegments);
+        this.maxWaiters = maxWaiters;
+    }
+
+    @PostConstruct
+    public synchronized void open() throws IOException {
+        Files.createDirectories(directory);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.log")) {
+            for (Path file : files) {
+                LikeEventSegment segment = LikeEventSegment.open(file);
+                segments.put(segment.getBaseOffset(), segment);
+            }
+        }
+        if (segments.isEmpty()) {
+            active = LikeEventSegment.create(directory, 0, segmentRecords);
+            segments.put(0L, active);
+        } else {
+            active = segments.lastEntry().getValue();
+        }
+        nextOffset = active.getBaseOffset() + active.recoverCount();
+        log.info("Like event log opened, segments:{}, next offset:{}", segments.size(), nextOffset);
+    }
+
+    public void append(LikeTarget target, Long targetId, Long userId, boolean liked) {
+        synchronized (this) {
+            int index = (int) (nextOffset - active.getBaseOffset());
+            if (index == active.getCapacity()) {
+                roll();
+                index = 0;
+            }
+            active.write(index, target == LikeTarget.MOVIE ? MOVIE : REVIEW, liked, targetId, userId,
+                    System.currentTimeMillis());
+            nextOffset++;
+        }
+        if (!waiters.isEmpty() && wakeScheduled.compareAndSet(false, true))
+            wakeExecutor.execute(() -> {
+                wakeScheduled.set(false);
+                wakeWaiters();
+            });
+    }
+
+    public long getNextOffset() {
+        return nextOffset;
+    }
+
+    public long getFirstOffset() {
+        return segments.firstKey();
+    }
+
+    /**
+     * Reads up to {@code max} events starting at {@code offset}. Offsets that were already
+     * removed by retention are skipped, so the first returned event may have a higher offset.
+     */
+    public List<LikeEventDTO> read(long offset, int max) {
+        long end = Math.min(nextOffset, offset + max);
+        long position = Math.max(offset, getFirstOffset());
+        List<LikeEventDTO> events = new ArrayList<>((int) Math.max(0, end - position));
+        while (position < end) {
+            Map.Entry<Long, LikeEventSegment> entry = segments.floorEntry(position);
+            if (entry == null)
+                break;
+            LikeEventSegment segment = entry.getValue();
+            int index = (int) (position - segment.getBaseOffset());
+            int count = (int) Math.min(end - position, segment.getCapacity() - index);
+            ByteBuffer records = segment.slice(index, count);
+            for (int i = 0; i < count; i++)
+                events.add(decode(position + i, records, i * LikeEventSegment.RECORD_SIZE));
+            position += count;
+        }
+        return events;
+    }
+
+    /**
+     * Completes {@code result} with the events from {@code offset} as soon as there is at least
+     * one; until then the request stays parked and the caller's thread is released. Fails with
+     * {@link ServiceUnavailable} when too many requests are parked already.
+     */
+    public void poll(long offset, int max, DeferredResult<List<LikeEventDTO>> result) {
+        if (offset < nextOffset) {
+            result.setResult(read(offset, max));
+            return;
+        }
+        if (waiterCount.incrementAndGet() > maxWaiters) {
+            waiterCount.decrementAndGet();
+            throw new ServiceUnavailable("Too many clients are waiting for like events");
+        }
+        Waiter waiter = new Waiter(offset, max, result);
+        result.onCompletion(() -> removeWaiter(waiter));
+        waiters.add(waiter);
+        if (offset < nextOffset)
+            wakeWaiters();
+    }
+
+    @Scheduled(fixedDelayString = "${like.events.force-interval-ms:1000}")
+    public void force() {
+        LikeEventSegment current;
+        synchronized (this) {
+            current = active;
+        }
+        if (current != null)
+            current.force();
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        wakeExecutor.shutdownNow();
+        for (LikeEventSegment segment : segments.values()) {
+            segment.force();
+            segment.close();
+        }
+    }
+
+    private void roll() {
+        try {
+            active.force();
+            active = LikeEventSegment.create(directory, nextOffset, segmentRecords);
+            segments.put(nextOffset, active);
+            while (segments.size() > retainedSegments)
+                segments.pollFirstEntry().getValue().delete();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not roll the like event log", e);
+        }
+    }
+
+    private void wakeWaiters() {
+        long available = nextOffset;
+        for (Waiter waiter : waiters) {
+            if (waiter.offset < available && removeWaiter(waiter))
+                waiter.result.setResult(read(waiter.offset, waiter.max));
+        }
+    }
+
+    private boolean removeWaiter(Waiter waiter) {
+        if (!waiters.remove(waiter))
+            return false;
+        waiterCount.decrementAndGet();
+        return true;
+    }
+
+    private static LikeEventDTO decode(long offset, ByteBuffer records, int position) {
+        return new LikeEventDTO(offset,
+                records.get(position) == MOVIE ? LikeTarget.MOVIE : LikeTarget.REVIEW,
+                records.getLong(position + LikeEventSegment.TARGET_ID),
+                records.getLong(position + LikeEventSegment.USER_ID),
+                records.get(position + 1) == 1,
+                records.getLong(position + LikeEventSegment.TIMESTAMP));
+    }
+
+    private static class Waiter {
+        private final long offset;
+        private final int max;
+        private final DeferredResult<List<LikeEventDTO>> result;
+
+        private Waiter(long offset, int max, DeferredResult<List<LikeEventDTO>> result) {
+            this.offset = offset;
+            this.max = max;
+            this.result = result;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.avas.user.like.microservice.business.eventlog;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * One memory-mapped file of fixed-size like event records. The file is sized up front and a
+ * record slot whose type byte is zero has not been written yet.
+ * <p>
+ * Record layout: type (1 byte, 1 = movie, 2 = review), liked (1 byte), 6 bytes padding,
+ * target id, user id and timestamp (8 bytes each).
+ */
+class LikeEventSegment {
+
+    static final int RECORD_SIZE = 32;
+    static final int TARGET_ID = 8;
+    static final int USER_ID = 16;
+    static final int TIMESTAMP = 24;
+
+    private final long baseOffset;
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+
+    private LikeEventSegment(long baseOffset, Path path, FileChannel channel, int capacity) throws IOException {
+        this.baseOffset = baseOffset;
+        this.path = path;
+        this.channel = channel;
+        this.capacity = capacity;
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) capacity * RECORD_SIZE);
+    }
+
+    static LikeEventSegment create(Path directory, long baseOffset, int capacity) throws IOException {
+        Path path = directory.resolve(fileName(baseOffset));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new LikeEventSegment(baseOffset, path, channel, capacity);
+    }
+
+    static LikeEventSegment open(Path path) throws IOException {
+        String name = path.getFileName().toString();
+        long baseOffset = Long.parseLong(name.substring(0, name.length() - ".log".length()));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new LikeEventSegment(baseOffset, path, channel, (int) (channel.size() / RECORD_SIZE));
+    }
+
+    static String fileName(long baseOffset) {
+        return String.format("%020d.log", baseOffset);
+    }
+
+    /**
+     * Counts the records written before a restart, that is the slots up to the first empty one.
+     */
+    int recoverCount() {
+        int count = 0;
+        while (count < capacity && buffer.get(count * RECORD_SIZE) != 0)
+            count++;
+        return count;
+    }
+
+    void write(int index, byte type, boolean liked, long targetId, long userId, long timestamp) {
+        int position = index * RECORD_SIZE;
+        buffer.putLong(position + TARGET_ID, targetId);
+        buffer.putLong(position + USER_ID, userId);
+        buffer.putLong(position + TIMESTAMP, timestamp);
+        buffer.put(position + 1, liked ? (byte) 1 : (byte) 0);
+        buffer.put(position, type);
+    }
+
+    /**
+     * Read-only view of {@code count} records starting at {@code index}, backed by the mapping
+     * itself rather than a copy.
+     */
+    ByteBuffer slice(int index, int count) {
+        ByteBuffer view = buffer.asReadOnlyBuffer();
+        view.position(index * RECORD_SIZE);
+        view.limit((index + count) * RECORD_SIZE);
+        return view.slice();
+    }
+
+    long getBaseOffset() {
+        return baseOffset;
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    void close() throws IOException {
+        channel.close();
+    }
+
+    void delete() throws IOException {
+        close();
+        Files.deleteIfExists(path);
+    }
+}
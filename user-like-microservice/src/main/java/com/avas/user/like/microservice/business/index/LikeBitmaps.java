@@ -0,0 +1,208 @@
+package com.avas.user.like.microservice.business.index;
+
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * Likes of one kind of target (movies or reviews) as roaring bitmaps: one bitmap of user ids per
+ * target and, for intersections, one bitmap of target ids per user. Ids are stored as ints, so
+ * only ids that {@link #fits} can be liked: lookups report any other id as not liked, and adding,
+ * removing or toggling one is rejected with an {@link IllegalArgumentException}.
+ * Each bitmap is guarded by its own monitor.
+ */
+public class LikeBitmaps {
+
+    private final Map<Integer, RoaringBitmap> usersByTarget = new ConcurrentHashMap<>();
+    private final Map<Integer, RoaringBitmap> targetsByUser = new ConcurrentHashMap<>();
+
+    public boolean add(Long targetId, Long userId) {
+        int target = toInt(targetId);
+        int user = toInt(userId);
+        boolean added = update(usersByTarget, target, user, true);
+        update(targetsByUser, user, target, true);
+        return added;
+    }
+
+    public boolean remove(Long targetId, Long userId) {
+        int target = toInt(targetId);
+        int user = toInt(userId);
+        boolean removed = update(usersByTarget, target, user, false);
+        update(targetsByUser, user, target, false);
+        return removed;
+    }
+
+    /**
+     * Flips the like of the user on the target and returns whether it is liked afterwards.
+     */
+    public boolean toggle(Long targetId, Long userId) {
+        int target = toInt(targetId);
+        int user = toInt(userId);
+        RoaringBitmap users = usersByTarget.computeIfAbsent(target, k -> new RoaringBitmap());
+        boolean liked;
+        synchronized (users) {
+            liked = users.checkedAdd(user);
+            if (!liked)
+                users.remove(user);
+        }
+        update(targetsByUser, user, target, liked);
+        return liked;
+    }
+
+    public static boolean fits(Long id) {
+        return id != null && id >= 0 && id <= Integer.MAX_VALUE;
+    }
+
+    public boolean contains(Long targetId, Long userId) {
+        if (!fits(targetId) || !fits(userId))
+            return false;
+        RoaringBitmap users = usersByTarget.get(toInt(targetId));
+        if (users == null)
+            return false;
+        synchronized (users) {
+            return users.contains(toInt(userId));
+        }
+    }
+
+    public long cardinality(Long targetId) {
+        if (!fits(targetId))
+            return 0L;
+        RoaringBitmap users = usersByTarget.get(toInt(targetId));
+        if (users == null)
+            return 0L;
+        synchronized (users) {
+            return users.getLongCardinality();
+        }
+    }
+
+    public long totalCardinality() {
+        long total = 0L;
+        for (RoaringBitmap users : usersByTarget.values()) {
+            synchronized (users) {
+                total += users.getLongCardinality();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Order independent checksum of every (target, user) pair: the sum of the CRC-32 of
+     * {@code "target:user"}, which is what {@code SUM(CRC32(CONCAT(target_id, ':', user_id)))}
+     * returns for the like table. Unlike the cardinality it changes when a pair is replaced by
+     * another one.
+     */
+    public long checksum() {
+        CRC32 crc = new CRC32();
+        long checksum = 0L;
+        for (Map.Entry<Integer, RoaringBitmap> entry : usersByTarget.entrySet()) {
+            synchronized (entry.getValue()) {
+                IntIterator users = entry.getValue().getIntIterator();
+                while (users.hasNext()) {
+                    crc.reset();
+                    crc.update((entry.getKey() + ":" + users.next()).getBytes(StandardCharsets.US_ASCII));
+                    checksum += crc.getValue();
+                }
+            }
+        }
+        return checksum;
+    }
+
+    /**
+     * Returns the ids out of {@code targetIds} the user has liked, by intersecting them with the
+     * bitmap of targets liked by the user.
+     */
+    public RoaringBitmap likedBy(Long userId, Collection<Long> targetIds) {
+        if (!fits(userId))
+            return new RoaringBitmap();
+        RoaringBitmap candidates = new RoaringBitmap();
+        for (Long targetId : targetIds) {
+            if (fits(targetId))
+                candidates.add(toInt(targetId));
+        }
+        RoaringBitmap liked = targetsByUser.get(toInt(userId));
+        if (liked == null)
+            return new RoaringBitmap();
+        synchronized (liked) {
+            return RoaringBitmap.and(candidates, liked);
+        }
+    }
+
+    /**
+     * Answers for each target id, in order, whether the user liked it.
+     */
+    public boolean[] likedFlags(Long userId, List<Long> targetIds) {
+        RoaringBitmap liked = likedBy(userId, targetIds);
+        boolean[] flags = new boolean[targetIds.size()];
+        for (int i = 0; i < flags.length; i++)
+            flags[i] = fits(targetIds.get(i)) && liked.contains(toInt(targetIds.get(i)));
+        return flags;
+    }
+
+    public void clear() {
+        usersByTarget.clear();
+        targetsByUser.clear();
+    }
+
+    /**
+     * Deep copy of the target bitmaps, used to write snapshots without holding any locks.
+     */
+    public LikeBitmaps copy() {
+        LikeBitmaps copy = new LikeBitmaps();
+        for (Map.Entry<Integer, RoaringBitmap> entry : usersByTarget.entrySet()) {
+            synchronized (entry.getValue()) {
+                copy.usersByTarget.put(entry.getKey(), entry.getValue().clone());
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Serializes the target bitmaps. Only call it on a {@link #copy()} nobody else is modifying.
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(usersByTarget.size());
+        for (Map.Entry<Integer, RoaringBitmap> entry : usersByTarget.entrySet()) {
+            entry.getValue().runOptimize();
+            out.writeInt(entry.getKey());
+            entry.getValue().serialize(out);
+        }
+    }
+
+    public void readFrom(DataInput in) throws IOException {
+        clear();
+        int targets = in.readInt();
+        for (int i = 0; i < targets; i++) {
+            int target = in.readInt();
+            RoaringBitmap users = new RoaringBitmap();
+            users.deserialize(in);
+            usersByTarget.put(target, users);
+            users.forEach((int user) -> update(targetsByUser, user, target, true));
+        }
+    }
+
+    private static boolean update(Map<Integer, RoaringBitmap> bitmaps, int key, int value, boolean add) {
+        RoaringBitmap bitmap = add
+                ? bitmaps.computeIfAbsent(key, k -> new RoaringBitmap())
+                : bitmaps.get(key);
+        if (bitmap == null)
+            return false;
+        synchronized (bitmap) {
+            return add ? bitmap.checkedAdd(value) : bitmap.checkedRemove(value);
+        }
+    }
+
+    private static int toInt(Long id) {
+        if (!fits(id))
+            throw new IllegalArgumentException("Id " + id + " does not fit into the like index");
+        return id.intValue();
+    }
+}
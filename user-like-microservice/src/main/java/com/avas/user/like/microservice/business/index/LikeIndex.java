@@ -0,0 +1,332 @@
+package com.avas.user.like.microservice.business.index;
+
+import com.avas.user.like.microservice.business.coalescing.LikeWriteCoalescer;
+import com.avas.user.like.microservice.business.repository.MovieLikeRepository;
+import com.avas.user.like.microservice.business.repository.UserLikeRepository;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory index of who liked which movie and review, backed by roaring bitmaps.
+ * <p>
+ * The index is persisted as a periodic snapshot plus a replay log of every change made since
+ * that snapshot, so a restart only has to load the snapshot and replay the log. If the restored
+ * index does not match the like tables, by number of likes and by {@link LikeBitmaps#checksum()},
+ * it is rebuilt from the database, and it is rebuilt on a schedule as well so that it can not
+ * drift from the database for long.
+ * <p>
+ * Changes take the shared side of {@link #lock}; snapshots and rebuilds take the exclusive side
+ * only for as long as they need to copy or swap the bitmaps.
+ * <p>
+ * The index is loaded as a {@link SmartLifecycle} in an earlier phase than the web server, so no
+ * request can change it before the snapshot has been restored.
+ */
+@Log4j2
+@Component
+public class LikeIndex implements SmartLifecycle {
+
+    private static final int SNAPSHOT_MAGIC = 0x4C494B45;
+    private static final byte MOVIE = 0;
+    private static final byte REVIEW = 1;
+    private static final byte REMOVE = 0;
+    private static final byte ADD = 1;
+
+    @Autowired
+    MovieLikeRepository movieLikeRepository;
+    @Autowired
+    UserLikeRepository reviewLikeRepository;
+    @Autowired
+    LikeWriteCoalescer likeWriteCoalescer;
+
+    @Value("${like.index.directory:like-index}")
+    private String directory;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile LikeBitmaps movieLikes = new LikeBitmaps();
+    private volatile LikeBitmaps reviewLikes = new LikeBitmaps();
+    private final Object rebuilding = new Object();
+    private volatile Queue<long[]> rebuildBuffer;
+    private DataOutputStream replayLog;
+    private volatile boolean running;
+
+    public boolean movieLiked(Long movieId, Long userId) {
+        return apply(MOVIE, ADD, movieId, userId);
+    }
+
+    public boolean movieUnliked(Long movieId, Long userId) {
+        return apply(MOVIE, REMOVE, movieId, userId);
+    }
+
+    public boolean reviewLiked(Long reviewId, Long userId) {
+        return apply(REVIEW, ADD, reviewId, userId);
+    }
+
+    public boolean reviewUnliked(Long reviewId, Long userId) {
+        return apply(REVIEW, REMOVE, reviewId, userId);
+    }
+
+    /**
+     * Flips the like of the user on the movie in the index and returns whether it is liked afterwards.
+     */
+    public boolean toggleMovieLike(Long movieId, Long userId) {
+        return toggle(MOVIE, movieId, userId);
+    }
+
+    /**
+     * Flips the like of the user on the review in the index and returns whether it is liked afterwards.
+     */
+    public boolean toggleReviewLike(Long reviewId, Long userId) {
+        return toggle(REVIEW, reviewId, userId);
+    }
+
+    public LikeBitmaps getMovieLikes() {
+        return movieLikes;
+    }
+
+    public LikeBitmaps getReviewLikes() {
+        return reviewLikes;
+    }
+
+    @Override
+    public void start() {
+        try {
+            load();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load the like index", e);
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    public void load() throws IOException {
+        Files.createDirectories(Paths.get(directory));
+        boolean restored = restore();
+        openReplayLog();
+        if (!restored || !matchesDatabase()) {
+            log.info("Like index is missing or out of date, rebuilding it from the database");
+            rebuild();
+        }
+        snapshot();
+    }
+
+    @Scheduled(initialDelayString = "${like.index.snapshot-interval-ms:600000}",
+            fixedDelayString = "${like.index.snapshot-interval-ms:600000}")
+    public void snapshot() throws IOException {
+        LikeBitmaps movies;
+        LikeBitmaps reviews;
+        lock.writeLock().lock();
+        try {
+            movies = movieLikes.copy();
+            reviews = reviewLikes.copy();
+            closeReplayLog();
+            if (Files.exists(logPath()))
+                Files.move(logPath(), oldLogPath(), StandardCopyOption.REPLACE_EXISTING);
+            openReplayLog();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Path temporary = Paths.get(directory, "likes.snapshot.tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            movies.writeTo(out);
+            reviews.writeTo(out);
+        }
+        Files.move(temporary, snapshotPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.deleteIfExists(oldLogPath());
+        log.info("Like index snapshot written");
+    }
+
+    @Scheduled(initialDelayString = "${like.index.rebuild-interval-ms:21600000}",
+            fixedDelayString = "${like.index.rebuild-interval-ms:21600000}")
+    public void rebuild() {
+        synchronized (rebuilding) {
+            rebuildBuffer = new ConcurrentLinkedQueue<>();
+            likeWriteCoalescer.flush();
+            LikeBitmaps movies = new LikeBitmaps();
+            LikeBitmaps reviews = new LikeBitmaps();
+            for (Object[] row : movieLikeRepository.findAllMovieIdAndUserIdPairs())
+                movies.add((Long) row[0], (Long) row[1]);
+            for (Object[] row : reviewLikeRepository.findAllReviewIdAndUserIdPairs())
+                reviews.add((Long) row[0], (Long) row[1]);
+            lock.writeLock().lock();
+            try {
+                long[] change;
+                while ((change = rebuildBuffer.poll()) != null)
+                    applyTo(change[0] == MOVIE ? movies : reviews, (byte) change[1], change[2], change[3]);
+                movieLikes = movies;
+                reviewLikes = reviews;
+                rebuildBuffer = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Like index rebuilt, movie likes:{}, review likes:{}",
+                    movies.totalCardinality(), reviews.totalCardinality());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${like.index.log-flush-interval-ms:1000}")
+    public void flushReplayLog() throws IOException {
+        synchronized (this) {
+            if (replayLog != null)
+                replayLog.flush();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        synchronized (this) {
+            closeReplayLog();
+        }
+    }
+
+    private boolean apply(byte kind, byte operation, Long targetId, Long userId) {
+        lock.readLock().lock();
+        try {
+            boolean changed = applyTo(kind == MOVIE ? movieLikes : reviewLikes, operation, targetId, userId);
+            record(kind, operation, targetId, userId);
+            return changed;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean toggle(byte kind, Long targetId, Long userId) {
+        lock.readLock().lock();
+        try {
+            boolean liked = (kind == MOVIE ? movieLikes : reviewLikes).toggle(targetId, userId);
+            record(kind, liked ? ADD : REMOVE, targetId, userId);
+            return liked;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void record(byte kind, byte operation, Long targetId, Long userId) {
+        Queue<long[]> buffer = rebuildBuffer;
+        if (buffer != null)
+            buffer.add(new long[]{kind, operation, targetId, userId});
+        append(kind, operation, targetId, userId);
+    }
+
+    private static boolean applyTo(LikeBitmaps likes, byte operation, long targetId, long userId) {
+        if (operation == ADD)
+            return likes.add(targetId, userId);
+        return likes.remove(targetId, userId);
+    }
+
+    private synchronized void append(byte kind, byte operation, long targetId, long userId) {
+        if (replayLog == null)
+            return;
+        try {
+            replayLog.writeByte(kind);
+            replayLog.writeByte(operation);
+            replayLog.writeLong(targetId);
+            replayLog.writeLong(userId);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append to the like index replay log", e);
+        }
+    }
+
+    private boolean restore() throws IOException {
+        if (!Files.exists(snapshotPath()))
+            return false;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotPath())))) {
+            if (in.readInt() != SNAPSHOT_MAGIC)
+                return false;
+            movieLikes.readFrom(in);
+            reviewLikes.readFrom(in);
+        }
+        int replayed = replay(oldLogPath()) + replay(logPath());
+        log.info("Like index restored from snapshot, replayed {} changes", replayed);
+        return true;
+    }
+
+    private int replay(Path path) throws IOException {
+        if (!Files.exists(path))
+            return 0;
+        int replayed = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            while (true) {
+                byte kind = in.readByte();
+                byte operation = in.readByte();
+                long targetId = in.readLong();
+                long userId = in.readLong();
+                applyTo(kind == MOVIE ? movieLikes : reviewLikes, operation, targetId, userId);
+                replayed++;
+            }
+        } catch (EOFException e) {
+            // end of the log, a torn last record is dropped
+        }
+        return replayed;
+    }
+
+    private boolean matchesDatabase() {
+        return matches(movieLikes, movieLikeRepository.countAndChecksum().get(0))
+                && matches(reviewLikes, reviewLikeRepository.countAndChecksum().get(0));
+    }
+
+    private static boolean matches(LikeBitmaps likes, Object[] countAndChecksum) {
+        return likes.totalCardinality() == ((Number) countAndChecksum[0]).longValue()
+                && likes.checksum() == ((Number) countAndChecksum[1]).longValue();
+    }
+
+    private synchronized void openReplayLog() throws IOException {
+        replayLog = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(logPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)));
+    }
+
+    private synchronized void closeReplayLog() throws IOException {
+        if (replayLog != null) {
+            replayLog.close();
+            replayLog = null;
+        }
+    }
+
+    private Path snapshotPath() {
+        return Paths.get(directory, "likes.snapshot");
+    }
+
+    private Path logPath() {
+        return Paths.get(directory, "likes.log");
+    }
+
+    private Path oldLogPath() {
+        return Paths.get(directory, "likes.log.old");
+    }
+}
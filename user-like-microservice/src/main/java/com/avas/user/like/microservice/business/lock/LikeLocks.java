@@ -0,0 +1,52 @@
+package com.avas.user.like.microservice.business.lock;
+
+import com.avas.library.model.LikeTarget;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed set of locks striped by (target, user), so that changes to the same like are serialized
+ * while changes to different likes almost never wait on each other.
+ */
+@Component
+public class LikeLocks {
+
+    private final Lock[] stripes;
+    private final int mask;
+
+    public LikeLocks(@Value("${like.locks.stripes:1024}") int stripes) {
+        int size = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.stripes = new Lock[size];
+        for (int i = 0; i < size; i++)
+            this.stripes[i] = new ReentrantLock();
+        this.mask = size - 1;
+    }
+
+    public Lock lockFor(LikeTarget target, Long targetId, Long userId) {
+        long hash = targetId * 0x9E3779B97F4A7C15L ^ userId * 0xC2B2AE3D27D4EB4FL ^ target.ordinal();
+        hash ^= hash >>> 32;
+        hash ^= hash >>> 16;
+        return stripes[(int) hash & mask];
+    }
+
+    /**
+     * Takes every stripe, so that no like can change until {@link #unlockAll()}. Stripes are
+     * taken in order and callers of {@link #lockFor} hold only one, so this can not deadlock.
+     */
+    public void lockAll() {
+        for (Lock stripe : stripes)
+            stripe.lock();
+    }
+
+    public void unlockAll() {
+        for (int i = stripes.length - 1; i >= 0; i--)
+            stripes[i].unlock();
+    }
+
+    public int getStripeCount() {
+        return stripes.length;
+    }
+}
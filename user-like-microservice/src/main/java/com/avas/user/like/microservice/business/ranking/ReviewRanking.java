@@ -0,0 +1,190 @@
+package com.avas.user.like.microservice.business.ranking;
+
+import com.avas.library.model.HelpfulReviewDTO;
+import com.avas.user.like.microservice.business.coalescing.LikeWriteCoalescer;
+import com.avas.user.like.microservice.business.lock.LikeLocks;
+import com.avas.user.like.microservice.business.repository.ReviewRepository;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Precomputed "most helpful" order of the reviews of every movie.
+ * <p>
+ * Reviews are ordered by their like count, ties by id. Likes are the only signal there is, with
+ * no views or down votes to rate them against, so the count is the ranking. The order is
+ * maintained on every review like change, which callers make while holding the {@link LikeLocks}
+ * stripe of the like, and rebuilt from the database on start and on a schedule.
+ */
+@Log4j2
+@Component
+public class ReviewRanking {
+
+    private static final String START_CONSISTENT_SNAPSHOT = "START TRANSACTION WITH CONSISTENT SNAPSHOT";
+
+    @Autowired
+    ReviewRepository reviewRepository;
+    @Autowired
+    LikeLocks likeLocks;
+    @Autowired
+    LikeWriteCoalescer likeWriteCoalescer;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object rebuilding = new Object();
+    private volatile Queue<long[]> rebuildBuffer;
+    private volatile Map<Long, Long> movieByReview = new ConcurrentHashMap<>();
+    private volatile Map<Long, MovieRanking> rankings = new ConcurrentHashMap<>();
+
+    public void reviewLiked(Long reviewId) {
+        update(reviewId, 1);
+    }
+
+    public void reviewUnliked(Long reviewId) {
+        update(reviewId, -1);
+    }
+
+    public List<HelpfulReviewDTO> getHelpfulReviews(Long movieId, int page, int size) {
+        MovieRanking ranking = rankings.get(movieId);
+        if (ranking == null)
+            return Collections.emptyList();
+        return ranking.page(page, size);
+    }
+
+    /**
+     * Rebuilds the rankings from a consistent read view taken while no like can change and nothing
+     * is waiting in the {@link LikeWriteCoalescer}. Changes made while the counts are queried are
+     * buffered and replayed on the new rankings before they replace the current ones.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${like.ranking.rebuild-interval-ms:3600000}",
+            fixedDelayString = "${like.ranking.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        synchronized (rebuilding) {
+            AtomicBoolean locked = new AtomicBoolean(true);
+            likeLocks.lockAll();
+            try {
+                likeWriteCoalescer.flush();
+                TransactionTemplate snapshotTransaction = new TransactionTemplate(transactionManager);
+                snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+                List<Object[]> rows = snapshotTransaction.execute(status -> {
+                    jdbcTemplate.execute(START_CONSISTENT_SNAPSHOT);
+                    rebuildBuffer = new ConcurrentLinkedQueue<>();
+                    likeLocks.unlockAll();
+                    locked.set(false);
+                    return reviewRepository.countLikesPerReviewWithMovie();
+                });
+                Map<Long, Long> reviews = new ConcurrentHashMap<>();
+                Map<Long, MovieRanking> movies = new ConcurrentHashMap<>();
+                for (Object[] row : rows) {
+                    Long reviewId = (Long) row[0];
+                    Long movieId = (Long) row[1];
+                    reviews.put(reviewId, movieId);
+                    movies.computeIfAbsent(movieId, id -> new MovieRanking()).add(reviewId, (Long) row[2]);
+                }
+                replace(reviews, movies);
+                log.info("Review ranking rebuilt, movies:{}, reviews:{}", movies.size(), reviews.size());
+            } finally {
+                rebuildBuffer = null;
+                if (locked.get())
+                    likeLocks.unlockAll();
+            }
+        }
+    }
+
+    private void replace(Map<Long, Long> reviews, Map<Long, MovieRanking> movies) {
+        lock.writeLock().lock();
+        try {
+            long[] change;
+            while ((change = rebuildBuffer.poll()) != null)
+                apply(reviews, movies, change[0], change[1]);
+            movieByReview = reviews;
+            rankings = movies;
+            rebuildBuffer = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void update(Long reviewId, long delta) {
+        lock.readLock().lock();
+        try {
+            Queue<long[]> buffer = rebuildBuffer;
+            if (buffer != null)
+                buffer.add(new long[]{reviewId, delta});
+            apply(movieByReview, rankings, reviewId, delta);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(Map<Long, Long> reviews, Map<Long, MovieRanking> movies, Long reviewId, long delta) {
+        Long movieId = reviews.get(reviewId);
+        if (movieId == null) {
+            Optional<Long> found = reviewRepository.findMovieIdByReviewId(reviewId);
+            if (!found.isPresent())
+                return;
+            movieId = found.get();
+            reviews.put(reviewId, movieId);
+        }
+        movies.computeIfAbsent(movieId, id -> new MovieRanking()).add(reviewId, delta);
+    }
+
+    private static class MovieRanking {
+
+        private static final Comparator<long[]> ORDER = Comparator
+                .comparingLong((long[] entry) -> -entry[0])
+                .thenComparingLong(entry -> entry[1]);
+
+        private final NavigableSet<long[]> ordered = new TreeSet<>(ORDER);
+        private final Map<Long, Long> likesByReview = new HashMap<>();
+
+        synchronized void add(Long reviewId, long delta) {
+            Long previous = likesByReview.get(reviewId);
+            long current = Math.max(0, (previous == null ? 0 : previous) + delta);
+            if (previous != null)
+                ordered.remove(new long[]{previous, reviewId});
+            ordered.add(new long[]{current, reviewId});
+            likesByReview.put(reviewId, current);
+        }
+
+        synchronized List<HelpfulReviewDTO> page(int page, int size) {
+            List<HelpfulReviewDTO> reviews = new ArrayList<>(size);
+            Iterator<long[]> iterator = ordered.iterator();
+            for (long skip = (long) page * size; skip > 0 && iterator.hasNext(); skip--)
+                iterator.next();
+            while (reviews.size() < size && iterator.hasNext()) {
+                long[] entry = iterator.next();
+                reviews.add(new HelpfulReviewDTO(entry[1], entry[0]));
+            }
+            return reviews;
+        }
+    }
+}
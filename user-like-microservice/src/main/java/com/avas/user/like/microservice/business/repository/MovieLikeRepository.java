@@ -3,7 +3,12 @@ package com.avas.user.like.microservice.business.repository;
 import com.avas.library.business.repository.model.Movie;
 import com.avas.library.business.repository.model.MovieLike;
 import com.avas.library.business.repository.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -14,4 +19,24 @@ public interface MovieLikeRepository extends JpaRepository<MovieLike, Long> {
     List<MovieLike> findMovieLikeByMovieId(Movie movie);
     Optional<MovieLike> findByMovieIdAndUserId(Movie movie, User user);
     boolean existsByMovieIdAndUserId(Movie movie, User user);
-}
\ No newline at end of file
+
+    @Query("select l from MovieLike l where l.movieId.id = :movieId and l.id > :afterId order by l.id")
+    List<MovieLike> findPageByMovieId(@Param("movieId") Long movieId, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("select count(l) from MovieLike l where l.movieId.id = :movieId")
+    long countByMovieId(@Param("movieId") Long movieId);
+
+    @Query("select l.movieId.id, count(l) from MovieLike l group by l.movieId.id")
+    List<Object[]> countLikesGroupedByMovie();
+
+    @Query("select l.movieId.id, l.userId.id from MovieLike l")
+    List<Object[]> findAllMovieIdAndUserIdPairs();
+
+    @Query(value = "select count(*), coalesce(sum(crc32(concat(movie_id, ':', user_id))), 0) from movie_likes", nativeQuery = true)
+    List<Object[]> countAndChecksum();
+
+    @Transactional
+    @Modifying
+    @Query("delete from MovieLike l where l.movieId.id = :movieId and l.userId.id = :userId")
+    int deleteByMovieIdAndUserId(@Param("movieId") Long movieId, @Param("userId") Long userId);
+}
@@ -4,11 +4,20 @@ import com.avas.library.business.repository.model.Movie;
 import com.avas.library.business.repository.model.Review;
 import com.avas.library.business.repository.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface ReviewRepository extends JpaRepository<Review, Long> {
     List<Review> findReviewByUserId(User user);
     boolean existsByMovieIdAndUserId(Movie movieId, User userId);
 
+    @Query("select r.id, r.movieId.id, count(l) from Review r left join r.reviewLikes l group by r.id, r.movieId.id")
+    List<Object[]> countLikesPerReviewWithMovie();
+
+    @Query("select r.movieId.id from Review r where r.id = :reviewId")
+    Optional<Long> findMovieIdByReviewId(@Param("reviewId") Long reviewId);
+
 }
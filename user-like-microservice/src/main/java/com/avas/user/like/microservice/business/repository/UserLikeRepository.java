@@ -3,7 +3,12 @@ package com.avas.user.like.microservice.business.repository;
 import com.avas.library.business.repository.model.Review;
 import com.avas.library.business.repository.model.ReviewLike;
 import com.avas.library.business.repository.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -13,4 +18,24 @@ public interface UserLikeRepository extends JpaRepository<ReviewLike, Long> {
     Optional<ReviewLike> findByUserIdAndReviewId(User user, Review review);
     List<ReviewLike> findAllByReviewId(Review review);
     List<ReviewLike> findAllByUserId(User user);
+
+    @Query("select l from ReviewLike l where l.reviewId.id = :reviewId and l.id > :afterId order by l.id")
+    List<ReviewLike> findPageByReviewId(@Param("reviewId") Long reviewId, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("select count(l) from ReviewLike l where l.reviewId.id = :reviewId")
+    long countByReviewId(@Param("reviewId") Long reviewId);
+
+    @Query("select l.reviewId.id, count(l) from ReviewLike l group by l.reviewId.id")
+    List<Object[]> countLikesGroupedByReview();
+
+    @Query("select l.reviewId.id, l.userId.id from ReviewLike l")
+    List<Object[]> findAllReviewIdAndUserIdPairs();
+
+    @Query(value = "select count(*), coalesce(sum(crc32(concat(review_id, ':', user_id))), 0) from user_likes", nativeQuery = true)
+    List<Object[]> countAndChecksum();
+
+    @Transactional
+    @Modifying
+    @Query("delete from ReviewLike l where l.reviewId.id = :reviewId and l.userId.id = :userId")
+    int deleteByReviewIdAndUserId(@Param("reviewId") Long reviewId, @Param("userId") Long userId);
 }
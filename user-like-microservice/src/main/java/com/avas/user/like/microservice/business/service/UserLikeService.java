@@ -1,5 +1,9 @@
 package com.avas.user.like.microservice.business.service;
 
+import com.avas.library.model.HelpfulReviewDTO;
+import com.avas.library.model.LikeMembershipDTO;
+import com.avas.library.model.LikeMembershipRequestDTO;
+import com.avas.library.model.LikeToggleDTO;
 import com.avas.library.model.MovieDTO;
 import com.avas.library.model.MovieLikeDTO;
 import com.avas.library.model.ReviewDTO;
@@ -7,6 +11,7 @@ import com.avas.library.model.ReviewLikeDTO;
 import com.avas.library.model.UserDTO;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface UserLikeService {
@@ -14,8 +19,34 @@ public interface UserLikeService {
     Optional<MovieLikeDTO> toggleMovieLike(MovieDTO movieDTO, UserDTO userDTO);
     Optional<ReviewLikeDTO> toggleReviewLike(ReviewDTO reviewDTO, UserDTO userDTO);
 
-    List<MovieLikeDTO> getAllLikesForMovie(MovieDTO movieId);
+    List<LikeToggleDTO> toggleLikes(List<LikeToggleDTO> toggles);
 
-    List<ReviewLikeDTO> getAllLikesForAReview(ReviewDTO review);
+    boolean setMovieLike(Long movieId, Long userId, boolean liked);
+
+    boolean setReviewLike(Long reviewId, Long userId, boolean liked);
+
+    List<MovieLikeDTO> getAllLikesForMovie(MovieDTO movieId, Long afterId, int limit);
+
+    List<ReviewLikeDTO> getAllLikesForAReview(ReviewDTO review, Long afterId, int limit);
+
+    boolean hasUserLikedMovie(Long movieId, Long userId);
+
+    boolean hasUserLikedReview(Long reviewId, Long userId);
+
+    List<HelpfulReviewDTO> getHelpfulReviews(Long movieId, int page, int size);
+
+    LikeMembershipDTO getLikeMembership(Long userId, LikeMembershipRequestDTO request);
+
+    long countLikesForMovie(Long movieId);
+
+    long countLikesForMovieExactly(Long movieId);
+
+    Map<Long, Long> countLikesForMovies(List<Long> movieIds);
+
+    long countLikesForReview(Long reviewId);
+
+    long countLikesForReviewExactly(Long reviewId);
+
+    Map<Long, Long> countLikesForReviews(List<Long> reviewIds);
 
 }
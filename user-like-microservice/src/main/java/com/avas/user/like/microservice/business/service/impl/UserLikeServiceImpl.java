@@ -1,6 +1,7 @@
 package com.avas.user.like.microservice.business.service.impl;
 
-import com.avas.library.business.exceptions.ResourceNotFoundException;
+import com.avas.library.business.activity.UserActivityRecorder;
+import com.avas.library.business.exceptions.InvalidRequest;
 import com.avas.library.business.mappers.MovieLikeMapper;
 import com.avas.library.business.mappers.MovieMapping;
 import com.avas.library.business.mappers.ReviewMapping;
@@ -11,20 +12,39 @@ import com.avas.library.business.repository.model.MovieLike;
 import com.avas.library.business.repository.model.Review;
 import com.avas.library.business.repository.model.ReviewLike;
 import com.avas.library.business.repository.model.User;
+import com.avas.library.model.HelpfulReviewDTO;
+import com.avas.library.model.LikeMembershipDTO;
+import com.avas.library.model.LikeMembershipRequestDTO;
+import com.avas.library.model.LikeTarget;
+import com.avas.library.model.LikeToggleDTO;
 import com.avas.library.model.MovieDTO;
 import com.avas.library.model.MovieLikeDTO;
 import com.avas.library.model.ReviewDTO;
 import com.avas.library.model.ReviewLikeDTO;
 import com.avas.library.model.UserDTO;
+import com.avas.user.like.microservice.business.coalescing.LikeWriteCoalescer;
+import com.avas.user.like.microservice.business.counter.LikeCounters;
+import com.avas.user.like.microservice.business.eventlog.LikeEventLog;
+import com.avas.user.like.microservice.business.index.LikeBitmaps;
+import com.avas.user.like.microservice.business.index.LikeIndex;
+import com.avas.user.like.microservice.business.lock.LikeLocks;
+import com.avas.user.like.microservice.business.ranking.ReviewRanking;
 import com.avas.user.like.microservice.business.repository.MovieLikeRepository;
 import com.avas.user.like.microservice.business.repository.UserLikeRepository;
 import com.avas.user.like.microservice.business.service.UserLikeService;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.locks.Lock;
 
 @Log4j2
 @Service
@@ -44,50 +64,334 @@ public class UserLikeServiceImpl implements UserLikeService {
     MovieMapping movieMapping;
     @Autowired
     UserMapping userMapping;
+    @Autowired
+    LikeCounters likeCounters;
+    @Autowired
+    LikeIndex likeIndex;
+    @Autowired
+    LikeWriteCoalescer likeWriteCoalescer;
+    @Autowired
+    LikeLocks likeLocks;
+    @Autowired
+    LikeEventLog likeEventLog;
+    @Autowired
+    ReviewRanking reviewRanking;
+    @Autowired
+    UserActivityRecorder userActivityRecorder;
+
+    @Value("${like.coalescing.enabled:false}")
+    private boolean coalescingEnabled;
 
     @Override
-    public List<MovieLikeDTO> getAllLikesForMovie(MovieDTO movie) {
+    public List<MovieLikeDTO> getAllLikesForMovie(MovieDTO movie, Long afterId, int limit) {
         List<MovieLike> movieLikeList = movieLikeRepository
-                .findMovieLikeByMovieId(movieMapping.mapMovieDtoToMovie(movie));
-        if(movieLikeList.isEmpty())
-            throw new ResourceNotFoundException("This movie has no likes");
+                .findPageByMovieId(movie.getId(), afterId, PageRequest.of(0, limit));
         return movieLikeMapper.mapMovieLikeListToMovieLikeDtoList(movieLikeList);
     }
-    public List<ReviewLikeDTO> getAllLikesForAReview(ReviewDTO review) {
+
+    @Override
+    public List<ReviewLikeDTO> getAllLikesForAReview(ReviewDTO review, Long afterId, int limit) {
         List<ReviewLike> reviewLikeList = reviewLikeRepository
-                .findAllByReviewId(reviewMapping.mapReviewDtoToReview(review));
-        if(reviewLikeList.isEmpty())
-            throw new ResourceNotFoundException("This review has no likes");
+                .findPageByReviewId(review.getId(), afterId, PageRequest.of(0, limit));
         return reviewLikeMapper.mapUserLikeListToUserLikeDtoList(reviewLikeList);
     }
 
     @Override
     public Optional<MovieLikeDTO> toggleMovieLike(MovieDTO movieDTO, UserDTO userDTO) {
-        Movie movie = movieMapping.mapMovieDtoToMovie(movieDTO);
-        User user = userMapping.mapUserDtoToUser(userDTO);
-        Optional<MovieLike> movieLike = movieLikeRepository.findByMovieIdAndUserId(movie,user);
-        if(movieLike.isPresent()){
-            movieLikeRepository.delete(movieLike.get());
-            log.warn("user:{} disliked movie:{}", user.getId(), movie.getId());
-            return Optional.empty();
-        }else{
-            return Optional.of(movieLikeMapper.mapMovieLikeToMovieLikeDto(movieLikeRepository.save(new MovieLike(user, movie))));
+        checkIndexable(movieDTO.getId(), userDTO.getId());
+        Lock lock = likeLocks.lockFor(LikeTarget.MOVIE, movieDTO.getId(), userDTO.getId());
+        lock.lock();
+        try {
+            if (coalescingEnabled)
+                return coalesceToggle(LikeTarget.MOVIE, movieDTO.getId(), userDTO.getId())
+                        ? Optional.of(new MovieLikeDTO(null, userDTO.getId(), movieDTO.getId()))
+                        : Optional.empty();
+            Movie movie = movieMapping.mapMovieDtoToMovie(movieDTO);
+            User user = userMapping.mapUserDtoToUser(userDTO);
+            Optional<MovieLike> movieLike = movieLikeRepository.findByMovieIdAndUserId(movie,user);
+            if(movieLike.isPresent()){
+                movieLikeRepository.delete(movieLike.get());
+                likeApplied(LikeTarget.MOVIE, movie.getId(), user.getId(), false);
+                log.warn("user:{} disliked movie:{}", user.getId(), movie.getId());
+                return Optional.empty();
+            }else{
+                MovieLike savedMovieLike = movieLikeRepository.save(new MovieLike(user, movie));
+                likeApplied(LikeTarget.MOVIE, movie.getId(), user.getId(), true);
+                return Optional.of(movieLikeMapper.mapMovieLikeToMovieLikeDto(savedMovieLike));
+            }
+        } catch (DataIntegrityViolationException e) {
+            log.warn("user:{} already likes movie:{}", userDTO.getId(), movieDTO.getId());
+            return movieLikeRepository.findByMovieIdAndUserId(new Movie(movieDTO.getId()), new User(userDTO.getId()))
+                    .map(movieLikeMapper::mapMovieLikeToMovieLikeDto);
+        } finally {
+            lock.unlock();
         }
     }
 
+    @Override
+    public Optional<ReviewLikeDTO> toggleReviewLike(ReviewDTO reviewDTO, UserDTO userDTO) {
+        checkIndexable(reviewDTO.getId(), userDTO.getId());
+        Lock lock = likeLocks.lockFor(LikeTarget.REVIEW, reviewDTO.getId(), userDTO.getId());
+        lock.lock();
+        try {
+            if (coalescingEnabled)
+                return coalesceToggle(LikeTarget.REVIEW, reviewDTO.getId(), userDTO.getId())
+                        ? Optional.of(new ReviewLikeDTO(null, userDTO.getId(), reviewDTO.getId()))
+                        : Optional.empty();
+            Review review = reviewMapping.mapReviewDtoToReview(reviewDTO);
+            User user = userMapping.mapUserDtoToUser(userDTO);
+            Optional<ReviewLike> reviewLike = reviewLikeRepository.findByUserIdAndReviewId(user, review);
+            if(reviewLike.isPresent()){
+                reviewLikeRepository.delete(reviewLike.get());
+                likeApplied(LikeTarget.REVIEW, review.getId(), user.getId(), false);
+                log.warn("user:{} disliked review:{}", user.getId(), review.getId());
+                return Optional.empty();
+            }else{
+                ReviewLike savedReviewLike = reviewLikeRepository.save(new ReviewLike(user, review));
+                likeApplied(LikeTarget.REVIEW, review.getId(), user.getId(), true);
+                return Optional.of(reviewLikeMapper.mapUserLikeToUserLikeDto(savedReviewLike));
+            }
+        } catch (DataIntegrityViolationException e) {
+            log.warn("user:{} already likes review:{}", userDTO.getId(), reviewDTO.getId());
+            return reviewLikeRepository.findByUserIdAndReviewId(new User(userDTO.getId()), new Review(reviewDTO.getId()))
+                    .map(reviewLikeMapper::mapUserLikeToUserLikeDto);
+        } finally {
+            lock.unlock();
+        }
+    }
 
+    @Override
+    public List<LikeToggleDTO> toggleLikes(List<LikeToggleDTO> toggles) {
+        for (LikeToggleDTO toggle : toggles)
+            checkIndexable(toggle.getTargetId(), toggle.getUserId());
+        List<LikeToggleDTO> results = new ArrayList<>(toggles.size());
+        for (LikeToggleDTO toggle : toggles) {
+            Lock lock = likeLocks.lockFor(toggle.getTarget(), toggle.getTargetId(), toggle.getUserId());
+            lock.lock();
+            try {
+                boolean liked = coalescingEnabled
+                        ? coalesceToggle(toggle.getTarget(), toggle.getTargetId(), toggle.getUserId())
+                        : toggleInDatabase(toggle.getTarget(), toggle.getTargetId(), toggle.getUserId());
+                results.add(new LikeToggleDTO(toggle.getTarget(), toggle.getTargetId(), toggle.getUserId(), liked));
+            } finally {
+                lock.unlock();
+            }
+        }
+        return results;
+    }
 
-    public Optional<ReviewLikeDTO> toggleReviewLike(ReviewDTO reviewDTO, UserDTO userDTO) {
-        Review review = reviewMapping.mapReviewDtoToReview(reviewDTO);
-        User user = userMapping.mapUserDtoToUser(userDTO);
-        Optional<ReviewLike> reviewLike = reviewLikeRepository.findByUserIdAndReviewId(user, review);
-        if(reviewLike.isPresent()){
-            reviewLikeRepository.delete(reviewLike.get());
-            log.warn("user:{} disliked review:{}", user.getId(), review.getId());
-            return Optional.empty();
-        }else{
-            return Optional.of(reviewLikeMapper.mapUserLikeToUserLikeDto(reviewLikeRepository.save(new ReviewLike(user, review))));
+    @Override
+    public boolean setMovieLike(Long movieId, Long userId, boolean liked) {
+        return setLike(LikeTarget.MOVIE, movieId, userId, liked);
+    }
+
+    @Override
+    public boolean setReviewLike(Long reviewId, Long userId, boolean liked) {
+        return setLike(LikeTarget.REVIEW, reviewId, userId, liked);
+    }
+
+    /**
+     * Brings the like to the requested state and returns whether that changed anything, so that
+     * repeating the same request is harmless.
+     */
+    private boolean setLike(LikeTarget target, Long targetId, Long userId, boolean liked) {
+        checkIndexable(targetId, userId);
+        Lock lock = likeLocks.lockFor(target, targetId, userId);
+        lock.lock();
+        try {
+            if (coalescingEnabled) {
+                boolean changed = target == LikeTarget.MOVIE
+                        ? (liked ? likeIndex.movieLiked(targetId, userId) : likeIndex.movieUnliked(targetId, userId))
+                        : (liked ? likeIndex.reviewLiked(targetId, userId) : likeIndex.reviewUnliked(targetId, userId));
+                if (changed) {
+                    likeChanged(target, targetId, userId, liked);
+                    likeWriteCoalescer.record(target, targetId, userId, liked);
+                }
+                return changed;
+            }
+            boolean changed = target == LikeTarget.MOVIE
+                    ? setMovieLikeInDatabase(targetId, userId, liked)
+                    : setReviewLikeInDatabase(targetId, userId, liked);
+            if (changed)
+                likeApplied(target, targetId, userId, liked);
+            return changed;
+        } catch (DataIntegrityViolationException e) {
+            log.warn("user:{} already likes {}:{}", userId, target, targetId);
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Rejects likes the {@link LikeIndex} could not hold before anything is written.
+     */
+    private static void checkIndexable(Long targetId, Long userId) {
+        if (!LikeBitmaps.fits(targetId))
+            throw new InvalidRequest("Id {0} is out of the supported range", targetId);
+        if (!LikeBitmaps.fits(userId))
+            throw new InvalidRequest("Id {0} is out of the supported range", userId);
+    }
+
+    private boolean setMovieLikeInDatabase(Long movieId, Long userId, boolean liked) {
+        Movie movie = new Movie(movieId);
+        User user = new User(userId);
+        if (liked == movieLikeRepository.existsByMovieIdAndUserId(movie, user))
+            return false;
+        if (liked)
+            movieLikeRepository.save(new MovieLike(user, movie));
+        else
+            movieLikeRepository.deleteByMovieIdAndUserId(movieId, userId);
+        return true;
+    }
+
+    private boolean setReviewLikeInDatabase(Long reviewId, Long userId, boolean liked) {
+        Review review = new Review(reviewId);
+        User user = new User(userId);
+        if (liked == reviewLikeRepository.existsByUserIdAndReviewId(user, review))
+            return false;
+        if (liked)
+            reviewLikeRepository.save(new ReviewLike(user, review));
+        else
+            reviewLikeRepository.deleteByReviewIdAndUserId(reviewId, userId);
+        return true;
+    }
+
+    /**
+     * Flips the like in its table when writes are not coalesced.
+     * Callers hold the lock of the like.
+     */
+    private boolean toggleInDatabase(LikeTarget target, Long targetId, Long userId) {
+        User user = new User(userId);
+        boolean liked;
+        if (target == LikeTarget.MOVIE) {
+            Movie movie = new Movie(targetId);
+            liked = !movieLikeRepository.existsByMovieIdAndUserId(movie, user);
+            if (liked)
+                movieLikeRepository.save(new MovieLike(user, movie));
+            else
+                movieLikeRepository.deleteByMovieIdAndUserId(targetId, userId);
+        } else {
+            Review review = new Review(targetId);
+            liked = !reviewLikeRepository.existsByUserIdAndReviewId(user, review);
+            if (liked)
+                reviewLikeRepository.save(new ReviewLike(user, review));
+            else
+                reviewLikeRepository.deleteByReviewIdAndUserId(targetId, userId);
         }
+        likeApplied(target, targetId, userId, liked);
+        return liked;
+    }
+
+    /**
+     * Flips the like in memory and leaves persisting it to the {@link LikeWriteCoalescer}.
+     * The returned like has no id yet, as its row is only written on the next flush.
+     * Callers hold the lock of the like.
+     */
+    private boolean coalesceToggle(LikeTarget target, Long targetId, Long userId) {
+        boolean liked = target == LikeTarget.MOVIE
+                ? likeIndex.toggleMovieLike(targetId, userId)
+                : likeIndex.toggleReviewLike(targetId, userId);
+        likeChanged(target, targetId, userId, liked);
+        likeWriteCoalescer.record(target, targetId, userId, liked);
+        return liked;
+    }
+
+    private void likeApplied(LikeTarget target, Long targetId, Long userId, boolean liked) {
+        likeChanged(target, targetId, userId, liked);
+        if (target == LikeTarget.MOVIE) {
+            if (liked)
+                likeIndex.movieLiked(targetId, userId);
+            else
+                likeIndex.movieUnliked(targetId, userId);
+        } else {
+            if (liked)
+                likeIndex.reviewLiked(targetId, userId);
+            else
+                likeIndex.reviewUnliked(targetId, userId);
+        }
+    }
+
+    /**
+     * Counts the change for the target and the user, publishes it on the like event log and
+     * re-ranks the review it was on.
+     */
+    private void likeChanged(LikeTarget target, Long targetId, Long userId, boolean liked) {
+        likeEventLog.append(target, targetId, userId, liked);
+        if (target == LikeTarget.MOVIE) {
+            userActivityRecorder.movieLiked(userId, liked);
+            if (liked)
+                likeCounters.movieLiked(targetId);
+            else
+                likeCounters.movieUnliked(targetId);
+        } else {
+            userActivityRecorder.reviewLiked(userId, liked);
+            if (liked) {
+                likeCounters.reviewLiked(targetId);
+                reviewRanking.reviewLiked(targetId);
+            } else {
+                likeCounters.reviewUnliked(targetId);
+                reviewRanking.reviewUnliked(targetId);
+            }
+        }
+    }
+
+    @Override
+    public List<HelpfulReviewDTO> getHelpfulReviews(Long movieId, int page, int size) {
+        return reviewRanking.getHelpfulReviews(movieId, page, size);
+    }
+
+    @Override
+    public boolean hasUserLikedMovie(Long movieId, Long userId) {
+        return likeIndex.getMovieLikes().contains(movieId, userId);
+    }
+
+    @Override
+    public boolean hasUserLikedReview(Long reviewId, Long userId) {
+        return likeIndex.getReviewLikes().contains(reviewId, userId);
+    }
+
+    @Override
+    public LikeMembershipDTO getLikeMembership(Long userId, LikeMembershipRequestDTO request) {
+        return new LikeMembershipDTO(userId,
+                likeIndex.getMovieLikes().likedFlags(userId, orEmpty(request.getMovieIds())),
+                likeIndex.getReviewLikes().likedFlags(userId, orEmpty(request.getReviewIds())));
+    }
+
+    private static List<Long> orEmpty(List<Long> ids) {
+        return ids == null ? Collections.emptyList() : ids;
+    }
+
+    @Override
+    public long countLikesForMovie(Long movieId) {
+        return likeCounters.getMovieLikeCount(movieId);
+    }
+
+    @Override
+    public long countLikesForMovieExactly(Long movieId) {
+        return likeWriteCoalescer.countWithPending(LikeTarget.MOVIE, movieId,
+                () -> movieLikeRepository.countByMovieId(movieId));
+    }
+
+    @Override
+    public Map<Long, Long> countLikesForMovies(List<Long> movieIds) {
+        return likeCounters.getMovieLikeCounts(movieIds);
+    }
+
+    @Override
+    public long countLikesForReview(Long reviewId) {
+        return likeCounters.getReviewLikeCount(reviewId);
+    }
+
+    @Override
+    public long countLikesForReviewExactly(Long reviewId) {
+        return likeWriteCoalescer.countWithPending(LikeTarget.REVIEW, reviewId,
+                () -> reviewLikeRepository.countByReviewId(reviewId));
+    }
+
+    @Override
+    public Map<Long, Long> countLikesForReviews(List<Long> reviewIds) {
+        return likeCounters.getReviewLikeCounts(reviewIds);
     }
 
 
@@ -1,28 +1,51 @@
 package com.avas.user.like.microservice.controller;
 
 
+import com.avas.library.business.exceptions.InvalidRequest;
 import com.avas.library.business.exceptions.ResourceNotFoundException;
+import com.avas.library.business.fanout.FanOut;
+import com.avas.library.model.HelpfulReviewDTO;
+import com.avas.library.model.LikeEventDTO;
+import com.avas.library.model.LikeMembershipDTO;
+import com.avas.library.model.LikeMembershipRequestDTO;
+import com.avas.library.model.LikeTarget;
+import com.avas.library.model.LikeToggleDTO;
 import com.avas.library.model.MovieDTO;
 import com.avas.library.model.MovieLikeDTO;
 import com.avas.library.model.ReviewDTO;
 import com.avas.library.model.ReviewLikeDTO;
 import com.avas.library.model.UserDTO;
+import com.avas.user.like.microservice.business.eventlog.LikeEventLog;
 import com.avas.user.like.microservice.business.service.UserLikeService;
+import com.avas.user.like.microservice.controller.feign.BatchedLookups;
 import com.avas.user.like.microservice.controller.feign.MovieMicroserviceProxy;
 import com.avas.user.like.microservice.controller.feign.ReviewMicroserviceProxy;
 import com.avas.user.like.microservice.controller.feign.UserMicroserviceProxy;
+import com.avas.user.like.microservice.controller.grpc.GrpcLookups;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.async.DeferredResult;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 
 @Log4j2
 @Controller
@@ -38,26 +61,110 @@ public class UserLikeController {
     private MovieMicroserviceProxy movieMicroserviceProxy;
     @Autowired
     private ReviewMicroserviceProxy reviewMicroserviceProxy;
+    @Autowired
+    private BatchedLookups batchedLookups;
+    @Autowired
+    private FanOut fanOut;
+    @Autowired(required = false)
+    private GrpcLookups grpcLookups;
+
+    @Autowired
+    private LikeEventLog likeEventLog;
+
+    @Value("${like.listing.default-page-size:100}")
+    private int defaultPageSize;
+    @Value("${like.listing.max-page-size:1000}")
+    private int maxPageSize;
+    @Value("${like.events.max-timeout-ms:60000}")
+    private long maxPollTimeoutMs;
+    @Value("${lookup.batch.max-size:100}")
+    private int maxLookupIds;
+    @Value("${like.bulk.max-toggles:100}")
+    private int maxBulkToggles;
+    @Value("${like.membership.max-ids:1000}")
+    private int maxMembershipIds;
 
     @GetMapping("/movie/{movieId}")
-    public ResponseEntity<List<MovieLikeDTO>> getLikesForMovie(@PathVariable Long movieId){
-        Optional<MovieDTO> movieDTO = movieMicroserviceProxy.getMovie(movieId);
+    public ResponseEntity<List<MovieLikeDTO>> getLikesForMovie(@PathVariable Long movieId,
+                                                               @RequestParam(defaultValue = "0") Long afterId,
+                                                               @RequestParam(required = false) Integer limit){
+        Optional<MovieDTO> movieDTO = batchedLookups.getMovie(movieId);
         movieDTO.orElseThrow(() -> new ResourceNotFoundException("Movie with id {0} is not found", movieId));
-        return new ResponseEntity<>(userLikeService.getAllLikesForMovie(movieDTO.get()), HttpStatus.OK);
+        return new ResponseEntity<>(userLikeService.getAllLikesForMovie(movieDTO.get(), afterId, pageSize(limit)),
+                HttpStatus.OK);
+    }
+    @GetMapping("/movie/{movieId}/count")
+    public ResponseEntity<Long> countLikesForMovie(@PathVariable Long movieId,
+                                                   @RequestParam(defaultValue = "false") boolean exact) {
+        long count = exact ? userLikeService.countLikesForMovieExactly(movieId) : userLikeService.countLikesForMovie(movieId);
+        return new ResponseEntity<>(count, HttpStatus.OK);
+    }
+
+    @GetMapping("/movie/count")
+    public ResponseEntity<Map<Long, Long>> countLikesForMovies(@RequestParam List<Long> ids) {
+        return new ResponseEntity<>(userLikeService.countLikesForMovies(ids), HttpStatus.OK);
+    }
+
+    @GetMapping("/movie/{movieId}/reviews/helpful")
+    public ResponseEntity<List<HelpfulReviewDTO>> getHelpfulReviews(@PathVariable Long movieId,
+                                                                    @RequestParam(defaultValue = "0") int page,
+                                                                    @RequestParam(required = false) Integer size) {
+        return new ResponseEntity<>(userLikeService.getHelpfulReviews(movieId, Math.max(0, page), pageSize(size)),
+                HttpStatus.OK);
+    }
+
+    @GetMapping("/review/{reviewId}/count")
+    public ResponseEntity<Long> countLikesForReview(@PathVariable Long reviewId,
+                                                    @RequestParam(defaultValue = "false") boolean exact) {
+        long count = exact ? userLikeService.countLikesForReviewExactly(reviewId) : userLikeService.countLikesForReview(reviewId);
+        return new ResponseEntity<>(count, HttpStatus.OK);
+    }
+
+    @GetMapping("/review/count")
+    public ResponseEntity<Map<Long, Long>> countLikesForReviews(@RequestParam List<Long> ids) {
+        return new ResponseEntity<>(userLikeService.countLikesForReviews(ids), HttpStatus.OK);
     }
+
     @GetMapping("/review/{reviewId}")
-    public ResponseEntity<List<ReviewLikeDTO>> getAllLikesForReview(@PathVariable Long reviewId) {
-        Optional<ReviewDTO> reviewDTO = reviewMicroserviceProxy.getReview(reviewId);
+    public ResponseEntity<List<ReviewLikeDTO>> getAllLikesForReview(@PathVariable Long reviewId,
+                                                                    @RequestParam(defaultValue = "0") Long afterId,
+                                                                    @RequestParam(required = false) Integer limit) {
+        Optional<ReviewDTO> reviewDTO = batchedLookups.getReview(reviewId);
         reviewDTO.orElseThrow(() -> new ResourceNotFoundException("Review with id {0} is not found", reviewId));
-        return new ResponseEntity<>(userLikeService.getAllLikesForAReview(reviewDTO.get()), HttpStatus.OK);
+        return new ResponseEntity<>(userLikeService.getAllLikesForAReview(reviewDTO.get(), afterId, pageSize(limit)),
+                HttpStatus.OK);
+    }
+    @GetMapping("/movie/{movieId}/user/{userId}")
+    public ResponseEntity<Boolean> hasUserLikedMovie(@PathVariable Long movieId, @PathVariable Long userId) {
+        return new ResponseEntity<>(userLikeService.hasUserLikedMovie(movieId, userId), HttpStatus.OK);
+    }
+
+    @GetMapping("/review/{reviewId}/reviewer/{userId}")
+    public ResponseEntity<Boolean> hasUserLikedReview(@PathVariable Long reviewId, @PathVariable Long userId) {
+        return new ResponseEntity<>(userLikeService.hasUserLikedReview(reviewId, userId), HttpStatus.OK);
+    }
+
+    @GetMapping("/events")
+    public DeferredResult<List<LikeEventDTO>> pollEvents(@RequestParam(defaultValue = "0") long offset,
+                                                         @RequestParam(required = false) Integer max,
+                                                         @RequestParam(defaultValue = "30000") long timeoutMs) {
+        DeferredResult<List<LikeEventDTO>> result = new DeferredResult<>(
+                Math.max(0, Math.min(timeoutMs, maxPollTimeoutMs)), Collections.emptyList());
+        likeEventLog.poll(offset, pageSize(max), result);
+        return result;
+    }
+
+    @PostMapping("/user/{userId}/contains")
+    public ResponseEntity<LikeMembershipDTO> getLikeMembership(@PathVariable Long userId,
+                                                               @RequestBody LikeMembershipRequestDTO request) {
+        if (size(request.getMovieIds()) > maxMembershipIds || size(request.getReviewIds()) > maxMembershipIds)
+            throw new InvalidRequest("At most {0} ids per target can be checked at once", maxMembershipIds);
+        return new ResponseEntity<>(userLikeService.getLikeMembership(userId, request), HttpStatus.OK);
     }
+
     @PutMapping("/movie/{movieId}/user/{userId}")
     public ResponseEntity<MovieLikeDTO> toggleMovieLike(@PathVariable Long movieId, @PathVariable Long userId) {
-        Optional<MovieDTO> movieDTO = movieMicroserviceProxy.getMovie(movieId);
-        movieDTO.orElseThrow(() -> new ResourceNotFoundException("Movie with id {0} is not found", movieId));
-        Optional<UserDTO> userDTO = userMicroserviceProxy.getUser(userId);
-        userDTO.orElseThrow(() -> new ResourceNotFoundException("User with id {0} is not found", userId));
-        return userLikeService.toggleMovieLike(movieDTO.get(),userDTO.get())
+        return fanOut.both(() -> requireMovie(movieId), () -> requireUser(userId), userLikeService::toggleMovieLike)
                 .map(movieLikeDTO -> new ResponseEntity<>(movieLikeDTO, HttpStatus.OK))
                 .orElseGet(() -> new ResponseEntity<>(HttpStatus.OK));
     }
@@ -65,15 +172,102 @@ public class UserLikeController {
 
     @PutMapping("/review/{reviewId}/reviewer/{userId}")
     public ResponseEntity<ReviewLikeDTO> toggleReviewLike(@PathVariable Long reviewId, @PathVariable Long userId) {
-        Optional<ReviewDTO> reviewDTO = reviewMicroserviceProxy.getReview(reviewId);
-        reviewDTO.orElseThrow(() -> new ResourceNotFoundException("Review with id {0} is not found", reviewId));
-        Optional<UserDTO> userDTO = userMicroserviceProxy.getUser(userId);
-        userDTO.orElseThrow(() -> new ResourceNotFoundException("User with id {0} is not found", userId));
-        return userLikeService.toggleReviewLike(reviewDTO.get(),userDTO.get())
+        return fanOut.both(() -> requireReview(reviewId), () -> requireUser(userId), userLikeService::toggleReviewLike)
                 .map(reviewLikeDTO -> new ResponseEntity<>(reviewLikeDTO, HttpStatus.OK))
                 .orElseGet(() -> new ResponseEntity<>(HttpStatus.OK));
     }
 
+    @PutMapping("/movie/{movieId}/user/{userId}/like")
+    public ResponseEntity<Void> likeMovie(@PathVariable Long movieId, @PathVariable Long userId) {
+        fanOut.all(() -> requireMovie(movieId), () -> requireUser(userId));
+        return new ResponseEntity<>(userLikeService.setMovieLike(movieId, userId, true)
+                ? HttpStatus.CREATED : HttpStatus.OK);
+    }
+
+    @DeleteMapping("/movie/{movieId}/user/{userId}/like")
+    public ResponseEntity<Void> unlikeMovie(@PathVariable Long movieId, @PathVariable Long userId) {
+        userLikeService.setMovieLike(movieId, userId, false);
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+
+    @PutMapping("/review/{reviewId}/reviewer/{userId}/like")
+    public ResponseEntity<Void> likeReview(@PathVariable Long reviewId, @PathVariable Long userId) {
+        fanOut.all(() -> requireReview(reviewId), () -> requireUser(userId));
+        return new ResponseEntity<>(userLikeService.setReviewLike(reviewId, userId, true)
+                ? HttpStatus.CREATED : HttpStatus.OK);
+    }
+
+    @DeleteMapping("/review/{reviewId}/reviewer/{userId}/like")
+    public ResponseEntity<Void> unlikeReview(@PathVariable Long reviewId, @PathVariable Long userId) {
+        userLikeService.setReviewLike(reviewId, userId, false);
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+
+    @PutMapping("/bulk")
+    public ResponseEntity<List<LikeToggleDTO>> toggleLikes(@RequestBody List<LikeToggleDTO> toggles) {
+        if (toggles.size() > maxBulkToggles)
+            throw new InvalidRequest("At most {0} likes can be toggled at once", maxBulkToggles);
+        Set<Long> movieIds = new HashSet<>();
+        Set<Long> reviewIds = new HashSet<>();
+        Set<Long> userIds = new HashSet<>();
+        for (LikeToggleDTO toggle : toggles) {
+            if (toggle == null || toggle.getTarget() == null || toggle.getTargetId() == null || toggle.getUserId() == null)
+                throw new InvalidRequest("Every toggle needs a target, a target id and a user id");
+            (toggle.getTarget() == LikeTarget.MOVIE ? movieIds : reviewIds).add(toggle.getTargetId());
+            userIds.add(toggle.getUserId());
+        }
+        if (grpcLookups != null)
+            fanOut.all(() -> requireAll(movieIds, grpcLookups::getMovies, MovieDTO::getId, "Movie"),
+                    () -> requireAll(reviewIds, grpcLookups::getReviews, ReviewDTO::getId, "Review"),
+                    () -> requireAll(userIds, grpcLookups::getUsers, UserDTO::getId, "User"));
+        else
+            fanOut.all(() -> requireAll(movieIds, movieMicroserviceProxy::getMovies, MovieDTO::getId, "Movie"),
+                    () -> requireAll(reviewIds, reviewMicroserviceProxy::getReviews, ReviewDTO::getId, "Review"),
+                    () -> requireAll(userIds, userMicroserviceProxy::getUsers, UserDTO::getId, "User"));
+        return new ResponseEntity<>(userLikeService.toggleLikes(toggles), HttpStatus.OK);
+    }
+
+    private MovieDTO requireMovie(Long movieId) {
+        return batchedLookups.getMovie(movieId)
+                .orElseThrow(() -> new ResourceNotFoundException("Movie with id {0} is not found", movieId));
+    }
 
+    private ReviewDTO requireReview(Long reviewId) {
+        return batchedLookups.getReview(reviewId)
+                .orElseThrow(() -> new ResourceNotFoundException("Review with id {0} is not found", reviewId));
+    }
+
+    private UserDTO requireUser(Long userId) {
+        return batchedLookups.getUser(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User with id {0} is not found", userId));
+    }
 
-}
+    /**
+     * Fetches the ids in chunks of at most {@code lookup.batch.max-size}, the most the other
+     * services accept in one lookup.
+     */
+    private <T> List<T> requireAll(Set<Long> ids, Function<List<Long>, List<T>> fetch,
+                                   Function<T, Long> idOf, String resource) {
+        if (ids.isEmpty())
+            return Collections.emptyList();
+        List<Long> all = new ArrayList<>(ids);
+        List<T> found = new ArrayList<>(all.size());
+        for (int from = 0; from < all.size(); from += maxLookupIds)
+            found.addAll(fetch.apply(all.subList(from, Math.min(all.size(), from + maxLookupIds))));
+        Set<Long> missing = new HashSet<>(ids);
+        found.forEach(dto -> missing.remove(idOf.apply(dto)));
+        if (!missing.isEmpty())
+            throw new ResourceNotFoundException(resource + " with id {0} is not found", missing.iterator().next());
+        return found;
+    }
+
+    private static int size(List<Long> ids) {
+        return ids == null ? 0 : ids.size();
+    }
+
+    private int pageSize(Integer limit) {
+        if (limit == null)
+            return defaultPageSize;
+        return Math.max(1, Math.min(limit, maxPageSize));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,92 @@
+package com.avas.user.like.microservice.controller.feign;
+
+import com.avas.library.business.batch.BatchLoader;
+import com.avas.library.model.MovieDTO;
+import com.avas.library.model.ReviewDTO;
+import com.avas.library.model.UserDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Single movie, review and user lookups that are sent to the other services as multi-gets.
+ * Lookups issued within one tick, by any number of requests, share one {@code ?ids=} call.
+ * Ticks fire on a thread of their own; the Feign calls run on a pool of {@code lookup.batch.threads}.
+ */
+@Component
+public class BatchedLookups {
+
+    @Autowired
+    MovieMicroserviceProxy movieMicroserviceProxy;
+    @Autowired
+    ReviewMicroserviceProxy reviewMicroserviceProxy;
+    @Autowired
+    UserMicroserviceProxy userMicroserviceProxy;
+
+    @Value("${lookup.batch.tick-ms:2}")
+    private long tickMillis;
+    @Value("${lookup.batch.max-size:100}")
+    private int maxBatchSize;
+    @Value("${lookup.batch.threads:4}")
+    private int threads;
+
+    private ScheduledExecutorService scheduler;
+    private ExecutorService executor;
+    private BatchLoader<Long, MovieDTO> movies;
+    private BatchLoader<Long, ReviewDTO> reviews;
+    private BatchLoader<Long, UserDTO> users;
+
+    @PostConstruct
+    public void init() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(daemon("batched-lookups-tick"));
+        executor = Executors.newFixedThreadPool(threads, daemon("batched-lookups"));
+        movies = new BatchLoader<>(ids -> byId(movieMicroserviceProxy.getMovies(ids), MovieDTO::getId),
+                scheduler, executor, tickMillis, maxBatchSize);
+        reviews = new BatchLoader<>(ids -> byId(reviewMicroserviceProxy.getReviews(ids), ReviewDTO::getId),
+                scheduler, executor, tickMillis, maxBatchSize);
+        users = new BatchLoader<>(ids -> byId(userMicroserviceProxy.getUsers(ids), UserDTO::getId),
+                scheduler, executor, tickMillis, maxBatchSize);
+    }
+
+    @PreDestroy
+    public void close() {
+        scheduler.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    public Optional<MovieDTO> getMovie(Long movieId) {
+        return movies.get(movieId);
+    }
+
+    public Optional<ReviewDTO> getReview(Long reviewId) {
+        return reviews.get(reviewId);
+    }
+
+    public Optional<UserDTO> getUser(Long userId) {
+        return users.get(userId);
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static <T> Map<Long, T> byId(List<T> found, Function<T, Long> id) {
+        return found.stream().collect(Collectors.toMap(id, Function.identity(), (first, second) -> first));
+    }
+}
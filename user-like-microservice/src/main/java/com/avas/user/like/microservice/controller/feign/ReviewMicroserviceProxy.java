@@ -4,7 +4,9 @@ import com.avas.library.model.ReviewDTO;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 
+import java.util.List;
 import java.util.Optional;
 
 //TODO: Add environmental variables like url = "${CURRENCY_EXCHANGE_SERVICE_HOST:http://localhost}:8000")
@@ -14,4 +16,7 @@ public interface ReviewMicroserviceProxy {
 
     @GetMapping("/api/v1/review/{reviewId}")
     public Optional<ReviewDTO> getReview(@PathVariable Long reviewId);
+
+    @GetMapping("/api/v1/review")
+    public List<ReviewDTO> getReviews(@RequestParam("ids") List<Long> ids);
 }
@@ -4,7 +4,9 @@ import com.avas.library.model.UserDTO;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 
+import java.util.List;
 import java.util.Optional;
 
 //TODO: Add environmental variables like url = "${CURRENCY_EXCHANGE_SERVICE_HOST:http://localhost}:8000")
@@ -14,4 +16,7 @@ public interface UserMicroserviceProxy {
 
 @GetMapping("/api/v1/user/{userId}")
 public Optional<UserDTO> getUser(@PathVariable Long userId);
+
+    @GetMapping("/api/v1/user")
+    public List<UserDTO> getUsers(@RequestParam("ids") List<Long> ids);
 }
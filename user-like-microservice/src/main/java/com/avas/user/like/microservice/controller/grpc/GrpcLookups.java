@@ -0,0 +1,74 @@
+package com.avas.user.like.microservice.controller.grpc;
+
+import com.avas.library.grpc.LookupGrpcClient;
+import com.avas.library.grpc.LookupMethods;
+import com.avas.library.grpc.LookupToken;
+import com.avas.library.model.MovieDTO;
+import com.avas.library.model.ReviewDTO;
+import com.avas.library.model.UserDTO;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.List;
+
+/**
+ * Bulk movie, review and user lookups over the gRPC lookup streams of the other services. When
+ * enabled, bulk validation uses these instead of the Feign multi-gets. Every call carries the
+ * shared {@link LookupToken} the servers check.
+ */
+@Component
+@ConditionalOnProperty(name = "grpc.lookup.client.enabled", havingValue = "true")
+public class GrpcLookups {
+
+    @Value("${grpc.lookup.movie.target:localhost:9200}")
+    private String movieTarget;
+    @Value("${grpc.lookup.review.target:localhost:9100}")
+    private String reviewTarget;
+    @Value("${grpc.lookup.user.target:localhost:9300}")
+    private String userTarget;
+    @Value("${grpc.lookup.chunk-size:500}")
+    private int chunkSize;
+    @Value("${grpc.lookup.timeout-ms:3000}")
+    private long timeoutMillis;
+    @Value("${grpc.lookup.token}")
+    private String token;
+
+    private ManagedChannel movieChannel;
+    private ManagedChannel reviewChannel;
+    private ManagedChannel userChannel;
+
+    @PostConstruct
+    public void init() {
+        LookupToken lookupToken = new LookupToken(token);
+        movieChannel = ManagedChannelBuilder.forTarget(movieTarget).usePlaintext()
+                .intercept(lookupToken.clientInterceptor()).build();
+        reviewChannel = ManagedChannelBuilder.forTarget(reviewTarget).usePlaintext()
+                .intercept(lookupToken.clientInterceptor()).build();
+        userChannel = ManagedChannelBuilder.forTarget(userTarget).usePlaintext()
+                .intercept(lookupToken.clientInterceptor()).build();
+    }
+
+    @PreDestroy
+    public void close() {
+        movieChannel.shutdownNow();
+        reviewChannel.shutdownNow();
+        userChannel.shutdownNow();
+    }
+
+    public List<MovieDTO> getMovies(List<Long> ids) {
+        return new LookupGrpcClient(movieChannel, chunkSize, timeoutMillis).resolve(LookupMethods.MOVIES, ids);
+    }
+
+    public List<ReviewDTO> getReviews(List<Long> ids) {
+        return new LookupGrpcClient(reviewChannel, chunkSize, timeoutMillis).resolve(LookupMethods.REVIEWS, ids);
+    }
+
+    public List<UserDTO> getUsers(List<Long> ids) {
+        return new LookupGrpcClient(userChannel, chunkSize, timeoutMillis).resolve(LookupMethods.USERS, ids);
+    }
+}
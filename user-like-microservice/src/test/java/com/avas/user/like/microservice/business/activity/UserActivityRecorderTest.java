@@ -0,0 +1,137 @@
+package com.avas.user.like.microservice.business.activity;
+
+import com.avas.library.business.activity.UserActivityRecorder;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class UserActivityRecorderTest {
+
+    private static final String UPSERT_DELTA = "INSERT INTO user_activity "
+            + "(user_id, review_count, score_total, movies_liked, reviews_liked) VALUES (?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE review_count = review_count + VALUES(review_count), "
+            + "score_total = score_total + VALUES(score_total), movies_liked = movies_liked + VALUES(movies_liked), "
+            + "reviews_liked = reviews_liked + VALUES(reviews_liked)";
+    private static final String UPSERT_LIKES = "INSERT INTO user_activity "
+            + "(user_id, review_count, score_total, movies_liked, reviews_liked) VALUES (?, 0, 0, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE movies_liked = VALUES(movies_liked), reviews_liked = VALUES(reviews_liked)";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private UserActivityRecorder userActivityRecorder;
+
+    @SuppressWarnings("unchecked")
+    private void runTransactionsInline() {
+        doAnswer(invocation -> {
+            invocation.getArgument(0, Consumer.class).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> flushedRows(String sql, int flushes) {
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(flushes)).batchUpdate(eq(sql), rows.capture());
+        List<Object[]> last = rows.getValue();
+        last.sort(Comparator.comparingLong(row -> (Long) row[0]));
+        return last;
+    }
+
+    @Test
+    @DisplayName("Deltas of one user are summed and flushed as one row")
+    public void testFlushSumsDeltas() {
+        userActivityRecorder.reviewAdded(1L, 8);
+        userActivityRecorder.movieLiked(1L, true);
+        userActivityRecorder.movieLiked(1L, true);
+        userActivityRecorder.movieLiked(1L, false);
+        userActivityRecorder.reviewLiked(2L, true);
+        userActivityRecorder.flush();
+        List<Object[]> rows = flushedRows(UPSERT_DELTA, 1);
+        Assertions.assertEquals(2, rows.size());
+        Assertions.assertArrayEquals(new Object[]{1L, 1L, 8L, 1L, 0L}, rows.get(0));
+        Assertions.assertArrayEquals(new Object[]{2L, 0L, 0L, 0L, 1L}, rows.get(1));
+
+        userActivityRecorder.flush();
+        verify(jdbcTemplate, times(1)).batchUpdate(eq(UPSERT_DELTA), anyList());
+    }
+
+    @Test
+    @DisplayName("Failed flush keeps the deltas for the next flush")
+    public void testFailedFlushRetained() {
+        when(jdbcTemplate.batchUpdate(eq(UPSERT_DELTA), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("down"))
+                .thenReturn(new int[]{1});
+        userActivityRecorder.reviewLiked(3L, true);
+        userActivityRecorder.flush();
+        userActivityRecorder.reviewLiked(3L, true);
+        userActivityRecorder.flush();
+        List<Object[]> rows = flushedRows(UPSERT_DELTA, 2);
+        Assertions.assertEquals(1, rows.size());
+        Assertions.assertArrayEquals(new Object[]{3L, 0L, 0L, 0L, 2L}, rows.get(0));
+    }
+
+    @Test
+    @DisplayName("A like recount replaces the like deltas and keeps the review deltas")
+    public void testRecountLikes() throws SQLException {
+        runTransactionsInline();
+        countRows("SELECT user_id, COUNT(*) FROM movie_likes GROUP BY user_id", 1L, 3L);
+        countRows("SELECT user_id, COUNT(*) FROM user_likes GROUP BY user_id", 2L, 5L);
+        userActivityRecorder.reviewAdded(1L, 6);
+        userActivityRecorder.movieLiked(1L, true);
+        userActivityRecorder.reviewLiked(2L, true);
+
+        userActivityRecorder.holdingFlushes(() -> {
+            userActivityRecorder.discardPendingLikes();
+            userActivityRecorder.recountLikes();
+        });
+        verify(jdbcTemplate).update("UPDATE user_activity SET movies_liked = 0, reviews_liked = 0");
+        List<Object[]> counts = flushedRows(UPSERT_LIKES, 1);
+        Assertions.assertEquals(2, counts.size());
+        Assertions.assertArrayEquals(new Object[]{1L, 3L, 0L}, counts.get(0));
+        Assertions.assertArrayEquals(new Object[]{2L, 0L, 5L}, counts.get(1));
+
+        userActivityRecorder.flush();
+        List<Object[]> rows = flushedRows(UPSERT_DELTA, 1);
+        Assertions.assertEquals(1, rows.size());
+        Assertions.assertArrayEquals(new Object[]{1L, 1L, 6L, 0L, 0L}, rows.get(0));
+    }
+
+    private void countRows(String sql, long userId, long count) throws SQLException {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getLong(1)).thenReturn(userId);
+        when(resultSet.getLong(2)).thenReturn(count);
+        doAnswer(invocation -> {
+            invocation.getArgument(1, RowCallbackHandler.class).processRow(resultSet);
+            return null;
+        }).when(jdbcTemplate).query(eq(sql), any(RowCallbackHandler.class));
+    }
+}
@@ -0,0 +1,104 @@
+package com.avas.user.like.microservice.business.coalescing;
+
+import com.avas.library.business.repository.IdAllocator;
+import com.avas.library.business.repository.model.MovieLike;
+import com.avas.library.model.LikeTarget;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class LikeWriteCoalescerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private IdAllocator idAllocator;
+
+    @InjectMocks
+    private LikeWriteCoalescer likeWriteCoalescer;
+
+    @SuppressWarnings("unchecked")
+    private void runTransactionsInline() {
+        doAnswer(invocation -> {
+            invocation.getArgument(0, Consumer.class).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    @DisplayName("Like and unlike within one window cause no database writes")
+    public void testFlappingCollapses() {
+        likeWriteCoalescer.record(LikeTarget.REVIEW, 1L, 2L, true);
+        likeWriteCoalescer.record(LikeTarget.REVIEW, 1L, 2L, false);
+        likeWriteCoalescer.record(LikeTarget.REVIEW, 1L, 2L, true);
+        likeWriteCoalescer.record(LikeTarget.REVIEW, 1L, 2L, false);
+        likeWriteCoalescer.flush();
+        Assertions.assertEquals(0, likeWriteCoalescer.getPendingCount());
+        verify(transactionTemplate, never()).executeWithoutResult(any());
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    @DisplayName("Net changes are written as one batch per statement")
+    public void testNetChangesBatched() {
+        runTransactionsInline();
+        when(idAllocator.allocate(MovieLike.class, 2)).thenReturn(new long[]{10L, 11L});
+        likeWriteCoalescer.record(LikeTarget.MOVIE, 1L, 2L, true);
+        likeWriteCoalescer.record(LikeTarget.MOVIE, 1L, 3L, true);
+        likeWriteCoalescer.record(LikeTarget.REVIEW, 4L, 2L, false);
+        likeWriteCoalescer.flush();
+        verify(jdbcTemplate, times(1)).batchUpdate(
+                eq("INSERT IGNORE INTO movie_likes (id, movie_id, user_id) VALUES (?, ?, ?)"), anyList());
+        verify(jdbcTemplate, times(1)).batchUpdate(
+                eq("DELETE FROM user_likes WHERE review_id = ? AND user_id = ?"), anyList());
+    }
+
+    @Test
+    @DisplayName("Failed flush keeps the changes for the next flush")
+    public void testFailedFlushRetained() {
+        doThrow(new DataAccessResourceFailureException("down"))
+                .when(transactionTemplate).executeWithoutResult(any());
+        likeWriteCoalescer.record(LikeTarget.MOVIE, 1L, 2L, true);
+        likeWriteCoalescer.flush();
+        Assertions.assertEquals(1, likeWriteCoalescer.getPendingCount());
+    }
+
+    @Test
+    @DisplayName("Exact counts add the pending net changes without flushing them")
+    public void testCountWithPending() {
+        likeWriteCoalescer.record(LikeTarget.MOVIE, 1L, 2L, true);
+        likeWriteCoalescer.record(LikeTarget.MOVIE, 1L, 3L, true);
+        likeWriteCoalescer.record(LikeTarget.MOVIE, 1L, 4L, false);
+        likeWriteCoalescer.record(LikeTarget.MOVIE, 1L, 5L, true);
+        likeWriteCoalescer.record(LikeTarget.MOVIE, 1L, 5L, false);
+        likeWriteCoalescer.record(LikeTarget.MOVIE, 7L, 2L, true);
+        likeWriteCoalescer.record(LikeTarget.REVIEW, 1L, 2L, true);
+        Assertions.assertEquals(11L, likeWriteCoalescer.countWithPending(LikeTarget.MOVIE, 1L, () -> 10L));
+        Assertions.assertEquals(1L, likeWriteCoalescer.countWithPending(LikeTarget.REVIEW, 1L, () -> 0L));
+        Assertions.assertEquals(7, likeWriteCoalescer.getPendingCount());
+        verify(transactionTemplate, never()).executeWithoutResult(any());
+    }
+}
@@ -0,0 +1,151 @@
+package com.avas.user.like.microservice.business.counter;
+
+import com.avas.library.business.activity.UserActivityRecorder;
+import com.avas.library.model.LikeTarget;
+import com.avas.user.like.microservice.business.coalescing.LikeWriteCoalescer;
+import com.avas.user.like.microservice.business.lock.LikeLocks;
+import com.avas.user.like.microservice.business.repository.MovieLikeRepository;
+import com.avas.user.like.microservice.business.repository.UserLikeRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.Lock;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class LikeCountersTest {
+
+    @Mock
+    private MovieLikeRepository movieLikeRepository;
+    @Mock
+    private UserLikeRepository reviewLikeRepository;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private LikeWriteCoalescer likeWriteCoalescer;
+    @Mock
+    private UserActivityRecorder userActivityRecorder;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Spy
+    private LikeLocks likeLocks = new LikeLocks(4);
+
+    @InjectMocks
+    private LikeCounters likeCounters;
+
+    @Test
+    @DisplayName("Toggles are reflected in the movie and review counters")
+    public void testCountersFollowToggles() {
+        likeCounters.movieLiked(1L);
+        likeCounters.movieLiked(1L);
+        likeCounters.movieUnliked(1L);
+        likeCounters.reviewLiked(2L);
+        Assertions.assertEquals(1L, likeCounters.getMovieLikeCount(1L));
+        Assertions.assertEquals(1L, likeCounters.getReviewLikeCount(2L));
+        Assertions.assertEquals(0L, likeCounters.getMovieLikeCount(3L));
+        Map<Long, Long> counts = likeCounters.getMovieLikeCounts(Arrays.asList(1L, 3L));
+        Assertions.assertEquals(Long.valueOf(1L), counts.get(1L));
+        Assertions.assertEquals(Long.valueOf(0L), counts.get(3L));
+    }
+
+    private void runHeldFlushesInline() {
+        doAnswer(invocation -> {
+            invocation.getArgument(0, Runnable.class).run();
+            return null;
+        }).when(userActivityRecorder).holdingFlushes(any());
+    }
+
+    @Test
+    @DisplayName("Reconcile replaces drifted counters with persisted counts")
+    public void testReconcile() {
+        runHeldFlushesInline();
+        List<Object[]> movieCounts = Collections.singletonList(new Object[]{1L, 5L});
+        when(movieLikeRepository.countLikesGroupedByMovie()).thenReturn(movieCounts);
+        when(reviewLikeRepository.countLikesGroupedByReview()).thenReturn(Collections.emptyList());
+        likeCounters.movieLiked(1L);
+        likeCounters.reviewLiked(2L);
+        likeCounters.reconcile();
+        Assertions.assertEquals(5L, likeCounters.getMovieLikeCount(1L));
+        Assertions.assertEquals(0L, likeCounters.getReviewLikeCount(2L));
+        InOrder order = inOrder(likeWriteCoalescer, jdbcTemplate, userActivityRecorder, movieLikeRepository);
+        order.verify(likeWriteCoalescer).flush();
+        order.verify(jdbcTemplate).execute("START TRANSACTION WITH CONSISTENT SNAPSHOT");
+        order.verify(userActivityRecorder).discardPendingLikes();
+        order.verify(movieLikeRepository).countLikesGroupedByMovie();
+        order.verify(userActivityRecorder).recountLikes();
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    @DisplayName("Reconcile reads the persisted counts without holding the like locks")
+    public void testReconcileReadsCountsUnlocked() {
+        runHeldFlushesInline();
+        Lock stripe = likeLocks.lockFor(LikeTarget.MOVIE, 1L, 1L);
+        when(movieLikeRepository.countLikesGroupedByMovie()).thenAnswer(invocation -> {
+            boolean free = CompletableFuture.supplyAsync(() -> {
+                boolean acquired = stripe.tryLock();
+                if (acquired)
+                    stripe.unlock();
+                return acquired;
+            }).join();
+            Assertions.assertTrue(free);
+            return Collections.emptyList();
+        });
+        when(reviewLikeRepository.countLikesGroupedByReview()).thenReturn(Collections.emptyList());
+        likeCounters.reconcile();
+        verify(movieLikeRepository).countLikesGroupedByMovie();
+    }
+
+    @Test
+    @DisplayName("Reconcile keeps changes made while the persisted counts are read")
+    public void testReconcileKeepsConcurrentChanges() {
+        runHeldFlushesInline();
+        likeCounters.movieLiked(1L);
+        when(movieLikeRepository.countLikesGroupedByMovie()).thenAnswer(invocation -> {
+            likeCounters.movieLiked(1L);
+            return Collections.singletonList(new Object[]{1L, 3L});
+        });
+        when(reviewLikeRepository.countLikesGroupedByReview()).thenReturn(Collections.emptyList());
+        likeCounters.reconcile();
+        Assertions.assertEquals(4L, likeCounters.getMovieLikeCount(1L));
+    }
+
+    @Test
+    @DisplayName("Flush writes only counters changed since the previous flush")
+    public void testFlushOnlyDirtyCounters() {
+        likeCounters.movieLiked(1L);
+        likeCounters.flush();
+        likeCounters.flush();
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    @DisplayName("Flush does nothing without changes")
+    public void testFlushWithoutChanges() {
+        likeCounters.flush();
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+}
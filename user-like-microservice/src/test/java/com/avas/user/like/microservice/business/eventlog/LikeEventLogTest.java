@@ -0,0 +1,100 @@
+package com.avas.user.like.microservice.business.eventlog;
+
+import com.avas.library.business.exceptions.ServiceUnavailable;
+import com.avas.library.model.LikeEventDTO;
+import com.avas.library.model.LikeTarget;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class LikeEventLogTest {
+
+    @TempDir
+    Path directory;
+
+    private LikeEventLog openLog(int segmentRecords, int retainedSegments) throws IOException {
+        LikeEventLog likeEventLog = new LikeEventLog(directory.toString(), segmentRecords, retainedSegments, 2);
+        likeEventLog.open();
+        return likeEventLog;
+    }
+
+    @Test
+    @DisplayName("Appended events are read back in order with their offsets")
+    public void testAppendAndRead() throws IOException {
+        LikeEventLog likeEventLog = openLog(4, 10);
+        likeEventLog.append(LikeTarget.MOVIE, 1L, 2L, true);
+        likeEventLog.append(LikeTarget.REVIEW, 3L, 4L, false);
+        List<LikeEventDTO> events = likeEventLog.read(0, 10);
+        Assertions.assertEquals(2, events.size());
+        Assertions.assertEquals(LikeTarget.MOVIE, events.get(0).getTarget());
+        Assertions.assertTrue(events.get(0).isLiked());
+        Assertions.assertEquals(1L, events.get(1).getOffset());
+        Assertions.assertEquals(Long.valueOf(3L), events.get(1).getTargetId());
+        Assertions.assertFalse(events.get(1).isLiked());
+        likeEventLog.close();
+    }
+
+    @Test
+    @DisplayName("Reads span rolled segments and skip segments removed by retention")
+    public void testRollingAndRetention() throws IOException {
+        LikeEventLog likeEventLog = openLog(4, 2);
+        for (long i = 0; i < 10; i++)
+            likeEventLog.append(LikeTarget.MOVIE, i, i, true);
+        Assertions.assertEquals(4L, likeEventLog.getFirstOffset());
+        List<LikeEventDTO> events = likeEventLog.read(0, 100);
+        Assertions.assertEquals(6, events.size());
+        Assertions.assertEquals(4L, events.get(0).getOffset());
+        likeEventLog.close();
+
+        likeEventLog = openLog(4, 3);
+        for (long i = 10; i < 13; i++)
+            likeEventLog.append(LikeTarget.MOVIE, i, i, true);
+        events = likeEventLog.read(8, 100);
+        Assertions.assertEquals(5, events.size());
+        Assertions.assertEquals(Long.valueOf(12L), events.get(4).getTargetId());
+        likeEventLog.close();
+    }
+
+    @Test
+    @DisplayName("The next offset survives a restart")
+    public void testRecovery() throws IOException {
+        LikeEventLog likeEventLog = openLog(16, 2);
+        likeEventLog.append(LikeTarget.REVIEW, 1L, 1L, true);
+        likeEventLog.append(LikeTarget.REVIEW, 1L, 1L, false);
+        likeEventLog.close();
+        Assertions.assertEquals(2L, openLog(16, 2).getNextOffset());
+    }
+
+    @Test
+    @DisplayName("A parked poll is completed by the next append")
+    public void testPollWaitsForAppend() throws IOException, InterruptedException {
+        LikeEventLog likeEventLog = openLog(16, 2);
+        DeferredResult<List<LikeEventDTO>> result = new DeferredResult<>();
+        CountDownLatch completed = new CountDownLatch(1);
+        result.setResultHandler(events -> completed.countDown());
+        likeEventLog.poll(0, 10, result);
+        Assertions.assertFalse(result.hasResult());
+        likeEventLog.append(LikeTarget.MOVIE, 5L, 6L, true);
+        Assertions.assertTrue(completed.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(1, ((List<?>) result.getResult()).size());
+        likeEventLog.close();
+    }
+
+    @Test
+    @DisplayName("Polls beyond the waiter limit are turned away")
+    public void testWaiterLimit() throws IOException {
+        LikeEventLog likeEventLog = openLog(16, 2);
+        likeEventLog.poll(0, 10, new DeferredResult<>());
+        likeEventLog.poll(0, 10, new DeferredResult<>());
+        Assertions.assertThrows(ServiceUnavailable.class, () -> likeEventLog.poll(0, 10, new DeferredResult<>()));
+        likeEventLog.close();
+    }
+}
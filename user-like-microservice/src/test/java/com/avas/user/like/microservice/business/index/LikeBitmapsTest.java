@@ -0,0 +1,99 @@
+package com.avas.user.like.microservice.business.index;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+public class LikeBitmapsTest {
+
+    private LikeBitmaps likeBitmaps;
+
+    @BeforeEach
+    public void createTestData() {
+        this.likeBitmaps = new LikeBitmaps();
+        likeBitmaps.add(1L, 10L);
+        likeBitmaps.add(1L, 11L);
+        likeBitmaps.add(2L, 10L);
+        likeBitmaps.add(3L, 12L);
+    }
+
+    @Test
+    @DisplayName("Membership and cardinality follow adds and removes")
+    public void testMembershipAndCardinality() {
+        Assertions.assertTrue(likeBitmaps.contains(1L, 10L));
+        Assertions.assertFalse(likeBitmaps.contains(3L, 10L));
+        Assertions.assertEquals(2L, likeBitmaps.cardinality(1L));
+        Assertions.assertFalse(likeBitmaps.add(1L, 10L));
+        Assertions.assertTrue(likeBitmaps.remove(1L, 10L));
+        Assertions.assertFalse(likeBitmaps.contains(1L, 10L));
+        Assertions.assertEquals(1L, likeBitmaps.cardinality(1L));
+        Assertions.assertEquals(3L, likeBitmaps.totalCardinality());
+    }
+
+    @Test
+    @DisplayName("Intersection returns only the targets the user liked")
+    public void testLikedBy() {
+        RoaringBitmap liked = likeBitmaps.likedBy(10L, Arrays.asList(1L, 2L, 3L, 4L));
+        Assertions.assertArrayEquals(new int[]{1, 2}, liked.toArray());
+        Assertions.assertTrue(likeBitmaps.likedBy(99L, Arrays.asList(1L, 2L)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Liked flags answer positionally for every requested target")
+    public void testLikedFlags() {
+        boolean[] flags = likeBitmaps.likedFlags(10L, Arrays.asList(3L, 2L, 1L, 2L));
+        Assertions.assertArrayEquals(new boolean[]{false, true, true, true}, flags);
+    }
+
+    @Test
+    @DisplayName("A written copy reads back with the reverse bitmaps rebuilt")
+    public void testWriteAndRead() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        likeBitmaps.copy().writeTo(new DataOutputStream(bytes));
+        LikeBitmaps restored = new LikeBitmaps();
+        restored.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        Assertions.assertEquals(4L, restored.totalCardinality());
+        Assertions.assertTrue(restored.contains(3L, 12L));
+        Assertions.assertArrayEquals(new int[]{1, 2}, restored.likedBy(10L, Arrays.asList(1L, 2L, 3L)).toArray());
+    }
+
+    @Test
+    @DisplayName("Ids beyond the int range read as not liked and cannot be added")
+    public void testOutOfRangeIds() {
+        long large = Integer.MAX_VALUE + 1L;
+        Assertions.assertFalse(LikeBitmaps.fits(large));
+        Assertions.assertFalse(likeBitmaps.contains(large, 10L));
+        Assertions.assertFalse(likeBitmaps.contains(1L, large));
+        Assertions.assertEquals(0L, likeBitmaps.cardinality(large));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> likeBitmaps.add(large, 10L));
+    }
+
+    @Test
+    @DisplayName("The checksum matches the SQL definition and tells apart sets of the same size")
+    public void testChecksum() {
+        CRC32 crc = new CRC32();
+        long expected = 0L;
+        for (String pair : new String[]{"1:10", "1:11", "2:10", "3:12"}) {
+            crc.reset();
+            crc.update(pair.getBytes(StandardCharsets.US_ASCII));
+            expected += crc.getValue();
+        }
+        Assertions.assertEquals(expected, likeBitmaps.checksum());
+        LikeBitmaps other = likeBitmaps.copy();
+        other.remove(3L, 12L);
+        other.add(3L, 13L);
+        Assertions.assertEquals(likeBitmaps.totalCardinality(), other.totalCardinality());
+        Assertions.assertNotEquals(likeBitmaps.checksum(), other.checksum());
+    }
+}
@@ -0,0 +1,32 @@
+package com.avas.user.like.microservice.business.lock;
+
+import com.avas.library.model.LikeTarget;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+
+public class LikeLocksTest {
+
+    @Test
+    @DisplayName("Stripe count is rounded up to a power of two")
+    public void testStripeCount() {
+        Assertions.assertEquals(1024, new LikeLocks(1024).getStripeCount());
+        Assertions.assertEquals(16, new LikeLocks(10).getStripeCount());
+        Assertions.assertEquals(1, new LikeLocks(1).getStripeCount());
+    }
+
+    @Test
+    @DisplayName("The same like always maps to the same lock and likes spread over stripes")
+    public void testLockForIsStableAndSpread() {
+        LikeLocks likeLocks = new LikeLocks(64);
+        Assertions.assertSame(likeLocks.lockFor(LikeTarget.MOVIE, 1L, 2L), likeLocks.lockFor(LikeTarget.MOVIE, 1L, 2L));
+        Set<Lock> used = new HashSet<>();
+        for (long user = 1; user <= 1000; user++)
+            used.add(likeLocks.lockFor(LikeTarget.REVIEW, 7L, user));
+        Assertions.assertTrue(used.size() > 48);
+    }
+}
@@ -0,0 +1,93 @@
+package com.avas.user.like.microservice.business.ranking;
+
+import com.avas.library.model.HelpfulReviewDTO;
+import com.avas.user.like.microservice.business.coalescing.LikeWriteCoalescer;
+import com.avas.user.like.microservice.business.lock.LikeLocks;
+import com.avas.user.like.microservice.business.repository.ReviewRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ReviewRankingTest {
+
+    @Mock
+    private ReviewRepository reviewRepository;
+    @Mock
+    private LikeWriteCoalescer likeWriteCoalescer;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Spy
+    private LikeLocks likeLocks = new LikeLocks(4);
+
+    @InjectMocks
+    private ReviewRanking reviewRanking;
+
+    @Test
+    @DisplayName("Reviews are ordered by likes and re-ranked on every change")
+    public void testRanking() {
+        when(reviewRepository.countLikesPerReviewWithMovie()).thenReturn(Arrays.asList(
+                new Object[]{1L, 10L, 3L},
+                new Object[]{2L, 10L, 1L},
+                new Object[]{3L, 10L, 0L},
+                new Object[]{4L, 20L, 5L}));
+        reviewRanking.rebuild();
+        reviewRanking.reviewLiked(3L);
+        reviewRanking.reviewLiked(3L);
+        reviewRanking.reviewLiked(3L);
+        reviewRanking.reviewLiked(3L);
+        List<HelpfulReviewDTO> first = reviewRanking.getHelpfulReviews(10L, 0, 2);
+        Assertions.assertEquals(Long.valueOf(3L), first.get(0).getReviewId());
+        Assertions.assertEquals(4L, first.get(0).getLikes());
+        Assertions.assertEquals(Long.valueOf(1L), first.get(1).getReviewId());
+        Assertions.assertEquals(3L, first.get(1).getLikes());
+        List<HelpfulReviewDTO> second = reviewRanking.getHelpfulReviews(10L, 1, 2);
+        Assertions.assertEquals(1, second.size());
+        Assertions.assertEquals(Long.valueOf(2L), second.get(0).getReviewId());
+    }
+
+    @Test
+    @DisplayName("Likes on reviews created after the rebuild look up their movie once")
+    public void testUnknownReview() {
+        when(reviewRepository.findMovieIdByReviewId(7L)).thenReturn(Optional.of(30L));
+        reviewRanking.reviewLiked(7L);
+        Assertions.assertEquals(1L, reviewRanking.getHelpfulReviews(30L, 0, 10).get(0).getLikes());
+        Assertions.assertTrue(reviewRanking.getHelpfulReviews(40L, 0, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Likes that land while the counts are queried survive the rebuild")
+    public void testRebuildKeepsConcurrentLikes() {
+        when(reviewRepository.findMovieIdByReviewId(1L)).thenReturn(Optional.of(10L));
+        when(reviewRepository.countLikesPerReviewWithMovie()).thenAnswer(invocation -> {
+            reviewRanking.reviewLiked(1L);
+            return Collections.singletonList(new Object[]{1L, 10L, 2L});
+        });
+        reviewRanking.rebuild();
+        Assertions.assertEquals(3L, reviewRanking.getHelpfulReviews(10L, 0, 10).get(0).getLikes());
+        InOrder order = inOrder(likeLocks, likeWriteCoalescer, jdbcTemplate, reviewRepository);
+        order.verify(likeLocks).lockAll();
+        order.verify(likeWriteCoalescer).flush();
+        order.verify(jdbcTemplate).execute("START TRANSACTION WITH CONSISTENT SNAPSHOT");
+        order.verify(likeLocks).unlockAll();
+        order.verify(reviewRepository).countLikesPerReviewWithMovie();
+    }
+}
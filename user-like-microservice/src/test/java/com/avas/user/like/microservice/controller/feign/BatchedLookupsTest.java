@@ -0,0 +1,107 @@
+package com.avas.user.like.microservice.controller.feign;
+
+import com.avas.library.model.MovieDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BatchedLookupsTest {
+
+    @Mock
+    private MovieMicroserviceProxy movieMicroserviceProxy;
+    @Mock
+    private ReviewMicroserviceProxy reviewMicroserviceProxy;
+    @Mock
+    private UserMicroserviceProxy userMicroserviceProxy;
+
+    @InjectMocks
+    private BatchedLookups batchedLookups;
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(batchedLookups, "tickMillis", 50L);
+        ReflectionTestUtils.setField(batchedLookups, "maxBatchSize", 100);
+        ReflectionTestUtils.setField(batchedLookups, "threads", 1);
+        batchedLookups.init();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        batchedLookups.close();
+    }
+
+    @Test
+    @DisplayName("Concurrent movie lookups are sent as one multi-get")
+    public void testConcurrentLookupsShareOneCall() {
+        when(movieMicroserviceProxy.getMovies(anyList())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            return ids.stream().filter(id -> id != 3L).map(id -> {
+                MovieDTO movie = new MovieDTO();
+                movie.setId(id);
+                return movie;
+            }).collect(Collectors.toList());
+        });
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        List<CompletableFuture<Optional<MovieDTO>>> lookups = new ArrayList<>();
+        for (long id : new long[]{1L, 2L, 1L, 3L})
+            lookups.add(CompletableFuture.supplyAsync(() -> batchedLookups.getMovie(id), callers));
+        Assertions.assertEquals(Long.valueOf(1L), lookups.get(0).join().get().getId());
+        Assertions.assertEquals(Long.valueOf(2L), lookups.get(1).join().get().getId());
+        Assertions.assertEquals(Long.valueOf(1L), lookups.get(2).join().get().getId());
+        Assertions.assertFalse(lookups.get(3).join().isPresent());
+        verify(movieMicroserviceProxy, times(1)).getMovies(anyList());
+        callers.shutdown();
+    }
+
+    @Test
+    @DisplayName("Lookups beyond the max batch size are split into batches of at most that size")
+    public void testBatchesCappedAtMaxSize() {
+        ReflectionTestUtils.setField(batchedLookups, "maxBatchSize", 3);
+        batchedLookups.close();
+        batchedLookups.init();
+        List<List<Long>> batches = Collections.synchronizedList(new ArrayList<>());
+        when(movieMicroserviceProxy.getMovies(anyList())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            batches.add(ids);
+            return ids.stream().map(id -> {
+                MovieDTO movie = new MovieDTO();
+                movie.setId(id);
+                return movie;
+            }).collect(Collectors.toList());
+        });
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        List<CompletableFuture<Optional<MovieDTO>>> lookups = new ArrayList<>();
+        for (long id = 1; id <= 8; id++) {
+            long movieId = id;
+            lookups.add(CompletableFuture.supplyAsync(() -> batchedLookups.getMovie(movieId), callers));
+        }
+        for (int i = 0; i < lookups.size(); i++)
+            Assertions.assertEquals(Long.valueOf(i + 1), lookups.get(i).join().get().getId());
+        Assertions.assertTrue(batches.size() >= 3);
+        Assertions.assertTrue(batches.stream().allMatch(batch -> batch.size() <= 3));
+        Assertions.assertEquals(8, batches.stream().mapToInt(List::size).sum());
+        callers.shutdown();
+    }
+}
@@ -0,0 +1,117 @@
+package com.avas.user.like.microservice.controller.grpc;
+
+import com.avas.library.grpc.LookupGrpcServer;
+import com.avas.library.grpc.LookupMethods;
+import com.avas.library.grpc.LookupToken;
+import com.avas.library.model.MovieDTO;
+import com.avas.library.model.UserDTO;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+public class GrpcLookupsTest {
+
+    private static final String TOKEN = "lookup-secret";
+
+    private final AtomicInteger largestChunk = new AtomicInteger();
+    private LookupGrpcServer movieServer;
+    private LookupGrpcServer userServer;
+    private GrpcLookups grpcLookups;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        movieServer = new LookupGrpcServer(loopback(), LookupMethods.MOVIES, this::evenMovies, 100,
+                new LookupToken(TOKEN));
+        userServer = new LookupGrpcServer(loopback(), LookupMethods.USERS, ids -> new ArrayList<>(), 10,
+                new LookupToken(TOKEN));
+        movieServer.start();
+        userServer.start();
+        grpcLookups = new GrpcLookups();
+        ReflectionTestUtils.setField(grpcLookups, "movieTarget", "127.0.0.1:" + movieServer.getPort());
+        ReflectionTestUtils.setField(grpcLookups, "reviewTarget", "127.0.0.1:" + movieServer.getPort());
+        ReflectionTestUtils.setField(grpcLookups, "userTarget", "127.0.0.1:" + userServer.getPort());
+        ReflectionTestUtils.setField(grpcLookups, "chunkSize", 100);
+        ReflectionTestUtils.setField(grpcLookups, "timeoutMillis", 5000L);
+        ReflectionTestUtils.setField(grpcLookups, "token", TOKEN);
+        grpcLookups.init();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        grpcLookups.close();
+        movieServer.stop();
+        userServer.stop();
+    }
+
+    @Test
+    @DisplayName("Large id sets are streamed in chunks and only existing rows come back")
+    public void testResolveInChunks() {
+        List<Long> ids = LongStream.rangeClosed(1, 2500).boxed().collect(Collectors.toList());
+        List<MovieDTO> movies = grpcLookups.getMovies(ids);
+        Assertions.assertEquals(1250, movies.size());
+        Assertions.assertTrue(movies.stream().allMatch(movie -> movie.getId() % 2 == 0));
+        Assertions.assertEquals(100, largestChunk.get());
+    }
+
+    @Test
+    @DisplayName("Chunks above the server limit are rejected")
+    public void testChunkTooLarge() {
+        List<Long> ids = LongStream.rangeClosed(1, 50).boxed().collect(Collectors.toList());
+        StatusRuntimeException exception = Assertions.assertThrows(StatusRuntimeException.class,
+                () -> grpcLookups.getUsers(ids));
+        Assertions.assertEquals(Status.Code.INVALID_ARGUMENT, exception.getStatus().getCode());
+    }
+
+    @Test
+    @DisplayName("An empty id set does not open a stream")
+    public void testEmptyIds() {
+        List<UserDTO> users = grpcLookups.getUsers(new ArrayList<>());
+        Assertions.assertTrue(users.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Calls with the wrong token are rejected")
+    public void testWrongToken() {
+        GrpcLookups intruder = new GrpcLookups();
+        ReflectionTestUtils.setField(intruder, "movieTarget", "127.0.0.1:" + movieServer.getPort());
+        ReflectionTestUtils.setField(intruder, "reviewTarget", "127.0.0.1:" + movieServer.getPort());
+        ReflectionTestUtils.setField(intruder, "userTarget", "127.0.0.1:" + userServer.getPort());
+        ReflectionTestUtils.setField(intruder, "chunkSize", 100);
+        ReflectionTestUtils.setField(intruder, "timeoutMillis", 5000L);
+        ReflectionTestUtils.setField(intruder, "token", "guessed");
+        intruder.init();
+        try {
+            StatusRuntimeException exception = Assertions.assertThrows(StatusRuntimeException.class,
+                    () -> intruder.getMovies(LongStream.rangeClosed(1, 10).boxed().collect(Collectors.toList())));
+            Assertions.assertEquals(Status.Code.UNAUTHENTICATED, exception.getStatus().getCode());
+            Assertions.assertEquals(0, largestChunk.get());
+        } finally {
+            intruder.close();
+        }
+    }
+
+    private List<MovieDTO> evenMovies(List<Long> ids) {
+        largestChunk.accumulateAndGet(ids.size(), Math::max);
+        return ids.stream()
+                .filter(id -> id % 2 == 0)
+                .map(id -> new MovieDTO(id, "Movie " + id, null, null, "Comedy"))
+                .collect(Collectors.toList());
+    }
+
+    private static InetSocketAddress loopback() {
+        return new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+    }
+}
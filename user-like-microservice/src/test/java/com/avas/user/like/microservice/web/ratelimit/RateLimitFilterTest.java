@@ -0,0 +1,78 @@
+package com.avas.user.like.microservice.web.ratelimit;
+
+import com.avas.library.web.ratelimit.RateLimitFilter;
+import com.avas.library.web.ratelimit.RateLimitProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+
+public class RateLimitFilterTest {
+
+    private static final String BULK = "/api/v1/like/bulk";
+
+    private RateLimitFilter rateLimitFilter;
+
+    @BeforeEach
+    public void beforeEach() {
+        RateLimitProperties.Policy policy = new RateLimitProperties.Policy();
+        policy.setMethod("PUT");
+        policy.setPattern(BULK);
+        policy.setCapacity(2);
+        policy.setRefillPerSecond(0.5);
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setPolicies(Collections.singletonList(policy));
+        rateLimitFilter = new RateLimitFilter();
+        ReflectionTestUtils.setField(rateLimitFilter, "rateLimitProperties", properties);
+        ReflectionTestUtils.setField(rateLimitFilter, "objectMapper", new ObjectMapper());
+        rateLimitFilter.init();
+    }
+
+    @Test
+    @DisplayName("Requests beyond the burst are rejected with 429 and a Retry-After header")
+    public void testRejectedWithRetryAfter() throws Exception {
+        Assertions.assertEquals(HttpStatus.OK.value(), send("PUT", BULK, "10.0.0.1").getStatus());
+        Assertions.assertEquals(HttpStatus.OK.value(), send("PUT", BULK, "10.0.0.1").getStatus());
+        MockHttpServletResponse rejected = send("PUT", BULK, "10.0.0.1");
+        Assertions.assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), rejected.getStatus());
+        Assertions.assertEquals("2", rejected.getHeader(HttpHeaders.RETRY_AFTER));
+        Assertions.assertTrue(rejected.getContentAsString().contains("Too many requests"));
+    }
+
+    @Test
+    @DisplayName("Every client address has a bucket of its own")
+    public void testAddressesIsolated() throws Exception {
+        send("PUT", BULK, "10.0.0.1");
+        send("PUT", BULK, "10.0.0.1");
+        Assertions.assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), send("PUT", BULK, "10.0.0.1").getStatus());
+        Assertions.assertEquals(HttpStatus.OK.value(), send("PUT", BULK, "10.0.0.2").getStatus());
+    }
+
+    @Test
+    @DisplayName("Requests no policy matches are never limited")
+    public void testUnmatchedRequestsPass() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            Assertions.assertEquals(HttpStatus.OK.value(), send("GET", BULK, "10.0.0.1").getStatus());
+            Assertions.assertEquals(HttpStatus.OK.value(), send("PUT", "/api/v1/like/movie/1/user/1", "10.0.0.1").getStatus());
+        }
+    }
+
+    private MockHttpServletResponse send(String method, String path, String address) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setRemoteAddr(address);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        rateLimitFilter.doFilter(request, response, chain);
+        Assertions.assertEquals(response.getStatus() == HttpStatus.OK.value(), chain.getRequest() != null);
+        return response;
+    }
+}
@@ -0,0 +1,40 @@
+package com.avas.user.like.microservice.web.ratelimit;
+
+import com.avas.library.web.ratelimit.TokenBucket;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("A full bucket lets a burst of its capacity through and then reports the wait")
+    public void testBurst() {
+        TokenBucket bucket = new TokenBucket(3, 1, 0);
+        Assertions.assertEquals(0, bucket.tryAcquire(0));
+        Assertions.assertEquals(0, bucket.tryAcquire(0));
+        Assertions.assertEquals(0, bucket.tryAcquire(0));
+        Assertions.assertEquals(SECOND, bucket.tryAcquire(0));
+        Assertions.assertEquals(SECOND / 2, bucket.tryAcquire(SECOND / 2));
+    }
+
+    @Test
+    @DisplayName("Tokens come back at the refill rate and never beyond the capacity")
+    public void testRefill() {
+        TokenBucket bucket = new TokenBucket(2, 2, 0);
+        Assertions.assertEquals(0, bucket.tryAcquire(0));
+        Assertions.assertEquals(0, bucket.tryAcquire(0));
+        Assertions.assertTrue(bucket.tryAcquire(0) > 0);
+        Assertions.assertEquals(0, bucket.tryAcquire(SECOND / 2));
+        Assertions.assertTrue(bucket.tryAcquire(SECOND / 2) > 0);
+
+        long later = 10 * SECOND;
+        Assertions.assertEquals(0, bucket.tryAcquire(later));
+        Assertions.assertEquals(0, bucket.tryAcquire(later));
+        Assertions.assertTrue(bucket.tryAcquire(later) > 0);
+    }
+}
@@ -0,0 +1,9 @@
+package com.avas.user.microservice.business.repository;
+
+import com.avas.library.business.repository.model.UserActivity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface UserActivityRepository extends JpaRepository<UserActivity, Long> {
+}
@@ -1,10 +1,29 @@
 package com.avas.user.microservice.business.repository;
 
 import com.avas.library.business.repository.model.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
+
+    /**
+     * Loads the user type with the user, so the user can be mapped without an open session.
+     */
+    @Override
+    @EntityGraph(attributePaths = "userType")
+    Optional<User> findById(Long id);
+
+    /**
+     * Loads the user types with the users, as the gRPC lookups map them on threads with no open
+     * session.
+     */
+    @Override
+    @EntityGraph(attributePaths = "userType")
+    List<User> findAllById(Iterable<Long> ids);
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.avas.user.microservice.business.service;
 
 import com.avas.library.model.UserDTO;
+import com.avas.library.model.UserProfileDTO;
 
 import java.util.List;
 import java.util.Optional;
@@ -9,6 +10,9 @@ public interface UserService {
 
     List<UserDTO> getAllUsers();
     Optional<UserDTO> findUserById(Long id);
+    List<UserDTO> findUsersByIds(List<Long> ids);
+    Optional<UserProfileDTO> getUserProfile(Long id);
+    List<UserProfileDTO> getUserProfiles(List<Long> ids);
     void deleteUserById(Long id);
     UserDTO createUser(UserDTO newUser);
     UserDTO updateUser(UserDTO modifyExistingUser, Long id);
@@ -1,5 +1,6 @@
 package com.avas.user.microservice.business.service.impl;
 
+import com.avas.user.microservice.business.repository.UserActivityRepository;
 import com.avas.user.microservice.business.repository.UserRepository;
 import com.avas.user.microservice.business.service.UserService;
 import lombok.extern.log4j.Log4j2;
@@ -7,29 +8,46 @@ import com.avas.library.business.exceptions.ResourceAlreadyExists;
 import com.avas.library.business.exceptions.ResourceConflict;
 import com.avas.library.business.exceptions.ResourceNotFoundException;
 import com.avas.library.business.mappers.UserMapping;
+import com.avas.library.business.reference.ReferenceDataResolver;
 import com.avas.library.business.repository.model.User;
+import com.avas.library.business.repository.model.UserActivity;
 import com.avas.library.model.UserDTO;
+import com.avas.library.model.UserProfileDTO;
+import com.avas.library.business.cache.DtoCache;
+import com.avas.library.business.cache.DtoCaches;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Log4j2
 @Service
 public class UserServiceImpl implements UserService {
 
+    private static final ResourceNotFoundException NO_USERS_FOUND = ResourceNotFoundException.shared("No users found");
+
     @Autowired
     UserRepository userRepository;
 
     @Autowired
     UserMapping userMapper;
+    @Autowired
+    DtoCaches dtoCaches;
+    @Autowired
+    UserActivityRepository userActivityRepository;
+    @Autowired
+    ReferenceDataResolver referenceDataResolver;
 
 
     public List<UserDTO> getAllUsers() {
         List<User> returnedUserList = userRepository.findAll();
         if (returnedUserList.isEmpty())
-            throw new ResourceNotFoundException("No users found");
+            throw NO_USERS_FOUND;
         log.info("user list size is :{}", returnedUserList.size());
         return userMapper.mapUserListToUserDto(returnedUserList);
 
@@ -37,17 +55,25 @@ public class UserServiceImpl implements UserService {
     }
 
     public Optional<UserDTO> findUserById(Long id) {
-        Optional<UserDTO> foundUserDto = userRepository.findById(id)
-                .map(foundUser -> userMapper.mapUserToUserDto(foundUser));
+        Optional<UserDTO> foundUserDto = userCache().get(id, key -> userRepository.findById(key)
+                .map(foundUser -> userMapper.mapUserToUserDto(foundUser)));
         foundUserDto.orElseThrow(() -> new ResourceNotFoundException("user with id:{0} does not exist", id));
         log.info("Found user :{}", foundUserDto);
         return foundUserDto;
     }
 
+    public List<UserDTO> findUsersByIds(List<Long> ids) {
+        Map<Long, UserDTO> found = userCache().getAll(ids, missing -> userRepository.findAllById(missing).stream()
+                .collect(Collectors.toMap(User::getId, user -> userMapper.mapUserToUserDto(user))));
+        log.info("Found {} of {} requested users", found.size(), ids.size());
+        return ids.stream().distinct().map(found::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
     public void deleteUserById(Long id) {
         findUserById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User for delete with id {0} is not found.", id));
         userRepository.deleteById(id);
+        userCache().invalidate(id);
         log.info("User with id: {} is deleted", id);
     }
 
@@ -56,7 +82,7 @@ public class UserServiceImpl implements UserService {
         if(userAlreadyExists){
             throw new ResourceAlreadyExists("Can not create user, user with this email already exists");
         }
-        User savedUser = userRepository.save(userMapper.mapUserDtoToUser(userDTO));
+        User savedUser = saveUser(userDTO);
         log.info("User is created : {}", userDTO);
         return userMapper.mapUserToUserDto(savedUser);
     }
@@ -69,13 +95,54 @@ public class UserServiceImpl implements UserService {
                     " is already taken");
         }
         modifyExistingUser.setId(id);
-        User modifiedFoundUser = userRepository.save(userMapper.mapUserDtoToUser(modifyExistingUser));
+        User modifiedFoundUser = saveUser(modifyExistingUser);
+        userCache().invalidate(id);
         log.info("User is updated user id :{}, user is now :{}", modifiedFoundUser.getId(), modifiedFoundUser);
         return userMapper.mapUserToUserDto(modifiedFoundUser);
     }
 
+    public Optional<UserProfileDTO> getUserProfile(Long id) {
+        findUserById(id);
+        return profileCache().get(id, key -> Optional.of(mapActivityToProfile(key, userActivityRepository.findById(key))));
+    }
+
+    public List<UserProfileDTO> getUserProfiles(List<Long> ids) {
+        List<Long> existingIds = findUsersByIds(ids).stream().map(UserDTO::getId).collect(Collectors.toList());
+        Map<Long, UserProfileDTO> profiles = profileCache().getAll(existingIds, missing -> {
+            Map<Long, UserActivity> activities = userActivityRepository.findAllById(missing).stream()
+                    .collect(Collectors.toMap(UserActivity::getUserId, activity -> activity));
+            return missing.stream().collect(Collectors.toMap(userId -> userId,
+                    userId -> mapActivityToProfile(userId, Optional.ofNullable(activities.get(userId)))));
+        });
+        return existingIds.stream().map(profiles::get).collect(Collectors.toList());
+    }
 
+    private static UserProfileDTO mapActivityToProfile(Long userId, Optional<UserActivity> activity) {
+        return activity.map(found -> new UserProfileDTO(userId, found.getReviewCount(),
+                        found.getReviewCount() == 0 ? 0 : (double) found.getScoreTotal() / found.getReviewCount(),
+                        found.getMoviesLiked(), found.getReviewsLiked()))
+                .orElseGet(() -> new UserProfileDTO(userId, 0, 0, 0, 0));
+    }
 
+    /**
+     * Saves the user, resolving its type name again if the write fails on a type id the user type
+     * service changed since the last refresh of the reference data.
+     */
+    private User saveUser(UserDTO userDTO) {
+        try {
+            return userRepository.save(userMapper.mapUserDtoToUser(userDTO));
+        } catch (DataIntegrityViolationException e) {
+            if (!referenceDataResolver.refreshAfterFailedWrite())
+                throw e;
+            return userRepository.save(userMapper.mapUserDtoToUser(userDTO));
+        }
+    }
 
+    private DtoCache<Long, UserProfileDTO> profileCache() {
+        return dtoCaches.get("user-profiles");
+    }
 
+    private DtoCache<Long, UserDTO> userCache() {
+        return dtoCaches.get("users");
+    }
 }
@@ -3,10 +3,13 @@ package com.avas.user.microservice.web.controller;
 import com.avas.user.microservice.business.service.UserService;
 import com.avas.user.microservice.web.controller.feign.ReviewMicroserviceProxy;
 import lombok.extern.log4j.Log4j2;
+import com.avas.library.business.exceptions.InvalidRequest;
 import com.avas.library.business.exceptions.ResourceNotFoundException;
 import com.avas.library.model.ReviewDTO;
 import com.avas.library.model.UserDTO;
+import com.avas.library.model.UserProfileDTO;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
@@ -18,6 +21,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 
 import java.util.List;
@@ -34,6 +38,9 @@ public class UserController {
     @Autowired
     private ReviewMicroserviceProxy reviewMicroserviceProxy;
 
+    @Value("${lookup.batch.max-size:100}")
+    private int maxLookupIds;
+
     @GetMapping
     @ResponseBody
     public ResponseEntity<List<UserDTO>> getAllUsers() {
@@ -42,6 +49,27 @@ public class UserController {
         return ResponseEntity.ok(userReviews);
     }
 
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<UserDTO>> getUsersByIds(@RequestParam List<Long> ids) {
+        if (ids.size() > maxLookupIds)
+            throw new InvalidRequest("At most {0} ids can be looked up at once", maxLookupIds);
+        return new ResponseEntity<>(userService.findUsersByIds(ids), HttpStatus.OK);
+    }
+
+    @GetMapping("/profiles")
+    public ResponseEntity<List<UserProfileDTO>> getUserProfiles(@RequestParam List<Long> ids) {
+        if (ids.size() > maxLookupIds)
+            throw new InvalidRequest("At most {0} ids can be looked up at once", maxLookupIds);
+        return new ResponseEntity<>(userService.getUserProfiles(ids), HttpStatus.OK);
+    }
+
+    @GetMapping("/{id}/profile")
+    public ResponseEntity<UserProfileDTO> getUserProfile(@PathVariable Long id) {
+        return userService.getUserProfile(id)
+                .map(profile -> new ResponseEntity<>(profile, HttpStatus.OK))
+                .orElseThrow(() -> new ResourceNotFoundException("User with id:{0} is not found", id));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<UserDTO> getUserById(@PathVariable Long id) {
         Optional<UserDTO> foundUserDto = userService.findUserById(id);
@@ -84,8 +112,8 @@ public class UserController {
 
     @GetMapping("/{id}/reviews")
     public ResponseEntity<List<ReviewDTO>> getAllReviewsMadeByUser(@PathVariable Long id) {
-        Optional<UserDTO> userDTO = userService.findUserById(id);
-        userDTO.orElseThrow(() -> new ResourceNotFoundException("User with id:{0} is not found", id));
+        userService.findUserById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User with id:{0} is not found", id));
         List<ReviewDTO> reviewDTOList = reviewMicroserviceProxy.getReviewsForUser(id);
         return new ResponseEntity<>(reviewDTOList, HttpStatus.OK);
     }
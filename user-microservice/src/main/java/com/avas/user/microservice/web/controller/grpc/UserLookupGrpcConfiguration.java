@@ -0,0 +1,30 @@
+package com.avas.user.microservice.web.controller.grpc;
+
+import com.avas.library.grpc.LookupGrpcServer;
+import com.avas.library.grpc.LookupMethods;
+import com.avas.library.grpc.LookupToken;
+import com.avas.user.microservice.business.service.UserService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Optional gRPC endpoint that streams bulk user lookups, see {@link LookupMethods#USERS}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "grpc.lookup.enabled", havingValue = "true")
+public class UserLookupGrpcConfiguration {
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public LookupGrpcServer userLookupGrpcServer(UserService userService,
+                                                 @Value("${grpc.lookup.address:127.0.0.1}") String address,
+                                                 @Value("${grpc.lookup.port:9300}") int port,
+                                                 @Value("${grpc.lookup.max-chunk-size:1000}") int maxChunkSize,
+                                                 @Value("${grpc.lookup.token}") String token) {
+        return new LookupGrpcServer(new InetSocketAddress(address, port), LookupMethods.USERS, userService::findUsersByIds,
+                maxChunkSize, new LookupToken(token));
+    }
+}
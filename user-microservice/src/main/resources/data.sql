@@ -6,41 +6,51 @@ INSERT INTO defaultdb.user_type (id,type) VALUES
 (5,"gigaUser");
 
 
-INSERT INTO defaultdb.users (name,surname,email,user_type_id) VALUES
-('Alexis','Merceris',"testEmail@cool.com",1),
-('Gordon','Freedomman',"hf3@never.com",2),
-('Big','Lebowski',"money@ishere.com",3),
-('Adam','Sander',"click@magic.com",4),
-('Britain','Pears',"notoxicity@again.oops",5),
-('Pressiks','Tojason',"find@shawn.com",5);
-
-INSERT INTO defaultdb.movie_type (type) VALUES
-("horror"),("fantasy"),("sci-fi"),("action"),("comedy");
-
-INSERT INTO defaultdb.movie (title,description,movie_type) VALUES
-("CyborgNinja", "This is a test description lorem ipsum all that kind of stuff", 3),
-("Lord Of The Rings", "This is a test description lorem ipsum all that kind of stuff", 2),
-("Another Adam Sandler Movie", "This is a test description lorem ipsum all that kind of stuff", 5);
-
-INSERT INTO defaultdb.review (review_date,score,text_review,movie_id,user_id) VALUES
-('2010-03-21', 5 , 'Still better than Robocop',3, 1),
-('2010-03-21', 10 , "N3ver fails to impress, another masterpiece",3, 4),
-('2010-03-21', 1 , "Boooooring",2, 4),
-('2010-03-21', 10 , "Best piece of cinematography",2, 1),
-('2010-03-21', 10 , "...", 1, 2),
-('2010-03-21', 1 , "...",3, 2),
-('2010-03-21', 10 , "DUUUUDE , Best piece of cinematography ",2, 3),
-('2010-03-21', 10 , "B3st p13c3 0f kin3m@tOgr@phy EVERRRR",2, 5);
-
-INSERT INTO defaultdb.user_likes (review_id, user_id) VALUES
-(1,1),(1,2),(1,3),(1,4),(1,5),(1,6),
-(2,1),(2,3),(2,5),(2,6),
-(3,2),(3,4),(3,6),
-(4,1),
-(5,1),(5,6),
-(6,4),(6,3),
-(8,5);
-
-INSERT INTO defaultdb.movie_likes (movie_id, user_id) VALUES
-(1,1),(1,2),(1,3),(1,4),(1,5),(1,6),
-(2,1),(2,3),(2,5),(2,6);
\ No newline at end of file
+INSERT INTO defaultdb.users (id,name,surname,email,user_type_id) VALUES
+(1,'Alexis','Merceris',"testEmail@cool.com",1),
+(2,'Gordon','Freedomman',"hf3@never.com",2),
+(3,'Big','Lebowski',"money@ishere.com",3),
+(4,'Adam','Sander',"click@magic.com",4),
+(5,'Britain','Pears',"notoxicity@again.oops",5),
+(6,'Pressiks','Tojason',"find@shawn.com",5);
+
+INSERT INTO defaultdb.movie_type (id,type) VALUES
+(1,"horror"),(2,"fantasy"),(3,"sci-fi"),(4,"action"),(5,"comedy");
+
+INSERT INTO defaultdb.movie (id,title,description,movie_type) VALUES
+(1,"CyborgNinja", "This is a test description lorem ipsum all that kind of stuff", 3),
+(2,"Lord Of The Rings", "This is a test description lorem ipsum all that kind of stuff", 2),
+(3,"Another Adam Sandler Movie", "This is a test description lorem ipsum all that kind of stuff", 5);
+
+INSERT INTO defaultdb.review (id,review_date,score,text_review,movie_id,user_id) VALUES
+(1,'2010-03-21', 5 , 'Still better than Robocop',3, 1),
+(2,'2010-03-21', 10 , "N3ver fails to impress, another masterpiece",3, 4),
+(3,'2010-03-21', 1 , "Boooooring",2, 4),
+(4,'2010-03-21', 10 , "Best piece of cinematography",2, 1),
+(5,'2010-03-21', 10 , "...", 1, 2),
+(6,'2010-03-21', 1 , "...",3, 2),
+(7,'2010-03-21', 10 , "DUUUUDE , Best piece of cinematography ",2, 3),
+(8,'2010-03-21', 10 , "B3st p13c3 0f kin3m@tOgr@phy EVERRRR",2, 5);
+
+INSERT INTO defaultdb.user_likes (id,review_id, user_id) VALUES
+(1,1,1),(2,1,2),(3,1,3),(4,1,4),(5,1,5),(6,1,6),
+(7,2,1),(8,2,3),(9,2,5),(10,2,6),
+(11,3,2),(12,3,4),(13,3,6),
+(14,4,1),
+(15,5,1),(16,5,6),
+(17,6,4),(18,6,3),
+(19,8,5);
+
+INSERT INTO defaultdb.movie_likes (id,movie_id, user_id) VALUES
+(1,1,1),(2,1,2),(3,1,3),(4,1,4),(5,1,5),(6,1,6),
+(7,2,1),(8,2,3),(9,2,5),(10,2,6);
+
+INSERT INTO defaultdb.id_generator (sequence_name, next_val)
+SELECT 'user_type', COALESCE(MAX(id), 0) + 1 FROM defaultdb.user_type
+UNION ALL SELECT 'users', COALESCE(MAX(id), 0) + 1 FROM defaultdb.users
+UNION ALL SELECT 'movie_type', COALESCE(MAX(id), 0) + 1 FROM defaultdb.movie_type
+UNION ALL SELECT 'movie', COALESCE(MAX(id), 0) + 1 FROM defaultdb.movie
+UNION ALL SELECT 'review', COALESCE(MAX(id), 0) + 1 FROM defaultdb.review
+UNION ALL SELECT 'user_likes', COALESCE(MAX(id), 0) + 1 FROM defaultdb.user_likes
+UNION ALL SELECT 'movie_likes', COALESCE(MAX(id), 0) + 1 FROM defaultdb.movie_likes
+ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val));
\ No newline at end of file
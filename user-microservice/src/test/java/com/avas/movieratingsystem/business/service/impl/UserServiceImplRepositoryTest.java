@@ -0,0 +1,57 @@
+package com.avas.movieratingsystem.business.service.impl;
+
+import com.avas.library.business.repository.model.User;
+import com.avas.library.business.repository.model.UserType;
+import com.avas.library.model.UserDTO;
+import com.avas.user.microservice.UserMicroserviceApplication;
+import com.avas.user.microservice.business.repository.UserRepository;
+import com.avas.user.microservice.business.service.UserService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Runs the multi-get the gRPC lookups serve through the real service and repository on an
+ * in-memory H2 database, from a thread with no open session, as the gRPC executor calls it.
+ */
+@SpringBootTest(classes = UserMicroserviceApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:users;MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.open-in-view=false",
+        "spring.sql.init.mode=never"})
+public class UserServiceImplRepositoryTest {
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Users looked up by ids off the request thread come with their type")
+    public void findUsersByIdsWithoutSession() {
+        jdbcTemplate.update("INSERT INTO user_type (id, type) VALUES (?, ?)", 901L, "critic");
+        UserType critic = new UserType(901L, "critic", null);
+        User first = userRepository.save(new User(null, "Grace", "Hopper", "grace@lookups.test", null, critic, null));
+        User second = userRepository.save(new User(null, "Alan", "Turing", "alan@lookups.test", null, critic, null));
+
+        List<UserDTO> users = CompletableFuture
+                .supplyAsync(() -> userService.findUsersByIds(Arrays.asList(first.getId(), second.getId(), -1L)))
+                .join();
+        Assertions.assertEquals(2, users.size());
+        Assertions.assertEquals(first.getId(), users.get(0).getId());
+        Assertions.assertEquals("critic", users.get(0).getUserType());
+        Assertions.assertEquals("critic", users.get(1).getUserType());
+    }
+}
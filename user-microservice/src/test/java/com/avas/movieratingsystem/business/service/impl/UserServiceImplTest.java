@@ -1,13 +1,17 @@
 package com.avas.movieratingsystem.business.service.impl;
 
 
+import com.avas.user.microservice.business.repository.UserActivityRepository;
 import com.avas.user.microservice.business.repository.UserRepository;
 import com.avas.user.microservice.business.service.impl.UserServiceImpl;
+import com.avas.library.business.cache.DtoCaches;
 import com.avas.library.business.exceptions.ResourceAlreadyExists;
 import com.avas.library.business.exceptions.ResourceNotFoundException;
 import com.avas.library.business.mappers.UserMapping;
 import com.avas.library.business.repository.model.User;
+import com.avas.library.business.repository.model.UserActivity;
 import com.avas.library.model.UserDTO;
+import com.avas.library.model.UserProfileDTO;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -45,6 +49,12 @@ public class UserServiceImplTest {
     @Mock
     private UserMapping mockUserMapping;
 
+    @Spy
+    private DtoCaches dtoCaches = new DtoCaches();
+
+    @Mock
+    private UserActivityRepository userActivityRepository;
+
     @Spy
     @InjectMocks
     private UserServiceImpl userService;
@@ -173,4 +183,19 @@ public class UserServiceImplTest {
         doReturn(Optional.empty()).when(userService).findUserById(anyLong());
         Assertions.assertThrows(ResourceNotFoundException.class , ()-> userService.deleteUserById(1L));
     }
+
+    @Test
+    @DisplayName("Profile averages the scores given and defaults to zeros without activity")
+    public void testUserProfile(){
+        doReturn(Optional.of(userDTO)).when(userService).findUserById(1L);
+        doReturn(Optional.of(userDTO)).when(userService).findUserById(2L);
+        when(userActivityRepository.findById(1L)).thenReturn(Optional.of(new UserActivity(1L, 4, 30, 2, 5)));
+        when(userActivityRepository.findById(2L)).thenReturn(Optional.empty());
+        UserProfileDTO profile = userService.getUserProfile(1L).get();
+        Assertions.assertEquals(4, profile.getReviewCount());
+        Assertions.assertEquals(7.5, profile.getAverageScore());
+        Assertions.assertEquals(2, profile.getMoviesLiked());
+        Assertions.assertEquals(5, profile.getReviewsLiked());
+        Assertions.assertEquals(new UserProfileDTO(2L, 0, 0, 0, 0), userService.getUserProfile(2L).get());
+    }
 }
@@ -0,0 +1,69 @@
+package com.avas.movieratingsystem.web.controller;
+
+import com.avas.library.business.repository.model.User;
+import com.avas.library.business.repository.model.UserType;
+import com.avas.library.model.ReviewDTO;
+import com.avas.user.microservice.UserMicroserviceApplication;
+import com.avas.user.microservice.business.repository.UserRepository;
+import com.avas.user.microservice.web.controller.feign.ReviewMicroserviceProxy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.Collections;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the user lookups through the real repository on an in-memory H2 database. The session is
+ * not held open for the request, so a user type left as a lazy proxy fails the mapping.
+ */
+@SpringBootTest(classes = UserMicroserviceApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:users;MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.open-in-view=false",
+        "spring.sql.init.mode=never"})
+@AutoConfigureMockMvc
+public class UserControllerRepositoryTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private ReviewMicroserviceProxy reviewMicroserviceProxy;
+
+    @Test
+    @DisplayName("Reviews of a user that is not cached yet are returned with its type mapped")
+    public void findReviewsOfUncachedUser() throws Exception {
+        jdbcTemplate.update("INSERT INTO user_type (id, type) VALUES (?, ?)", 900L, "reviewer");
+        User user = userRepository.save(new User(null, "Ada", "Lovelace", "ada@reviews.test", null,
+                new UserType(900L, "reviewer", null), null));
+        ReviewDTO review = new ReviewDTO();
+        review.setId(7L);
+        when(reviewMicroserviceProxy.getReviewsForUser(user.getId())).thenReturn(Collections.singletonList(review));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/user/" + user.getId() + "/reviews"))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$", hasSize(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].id").value(7L));
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/user/" + user.getId()))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.userType").value("reviewer"));
+    }
+}
@@ -2,16 +2,19 @@ package com.avas.movieratingsystem.web.controller;
 
 import com.avas.user.microservice.business.service.UserService;
 import com.avas.user.microservice.web.controller.UserController;
+import com.avas.user.microservice.web.controller.feign.ReviewMicroserviceProxy;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.avas.library.business.exceptions.ResourceAlreadyExists;
 import com.avas.library.business.exceptions.ResourceConflict;
 import com.avas.library.business.exceptions.ResourceNotFoundException;
+import com.avas.library.business.fanout.FanOut;
 import com.avas.library.model.UserDTO;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
@@ -32,6 +35,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(UserController.class)
+@Import(FanOut.class)
 public class UserControllerTest {
     public static String URL = "/api/v1/user";
 
@@ -43,6 +47,8 @@ public class UserControllerTest {
 
     @MockBean
     private UserService userService;
+    @MockBean
+    private ReviewMicroserviceProxy reviewMicroserviceProxy;
 
 
     @Test
@@ -193,6 +199,21 @@ public class UserControllerTest {
         verify(userService, times(1)).deleteUserById(1L);
     }
 
+    @Test
+    @DisplayName("Test that a missing user is a 404 even when the review lookup fails first")
+    public void findReviewsOfNonExistingUserWhileReviewServiceFails() throws Exception {
+        when(userService.findUserById(anyLong())).thenAnswer(invocation -> {
+            Thread.sleep(200);
+            return Optional.empty();
+        });
+        when(reviewMicroserviceProxy.getReviewsForUser(anyLong())).thenThrow(new IllegalStateException("Review service is down"));
+
+        mockMvc.perform(MockMvcRequestBuilders
+                        .get(URL + "/1/reviews"))
+                .andExpect(result -> assertTrue(result.getResolvedException() instanceof ResourceNotFoundException))
+                .andExpect(status().isNotFound());
+    }
+
 
     //TODO: Need to change some test to account for architecture changes
 //    @Test
@@ -2,7 +2,26 @@ package com.avas.usertype.microservice.business.repository;
 
 import com.avas.library.business.repository.model.UserType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.QueryHint;
+import java.util.List;
+import java.util.Optional;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
 
 public interface UserTypeRepository extends JpaRepository<UserType, Long> {
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     boolean existsByType(String type);
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    Optional<UserType> findUserTypeByType(String type);
+
+    @Query("SELECT u.id FROM User u WHERE u.userType.id = :typeId AND u.id > :afterId ORDER BY u.id")
+    List<Long> findUserIdPage(@Param("typeId") Long typeId, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT COUNT(u) FROM User u WHERE u.userType.id = :typeId")
+    long countUsers(@Param("typeId") Long typeId);
 }
@@ -2,6 +2,8 @@ package com.avas.usertype.microservice.business.service;
 
 import com.avas.library.model.UserTypeDTO;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Optional;
 
@@ -9,6 +11,8 @@ public interface UserTypeService {
 
     List<UserTypeDTO> getAllUserTypes();
 
+    Optional<UserTypeDTO> getUserTypeByName(String userTypeName);
+
     Optional<UserTypeDTO> findUserTypeById(Long id);
 
     void deleteUserTypeById(Long id);
@@ -16,4 +20,18 @@ public interface UserTypeService {
     UserTypeDTO createUserType(UserTypeDTO newUserType);
 
     UserTypeDTO updateUserTypeById(UserTypeDTO modifyExistingUserType, Long id);
+
+    long countUsersOfType(Long id);
+
+    List<Long> getUserIdsOfType(Long id, Long afterId, int limit);
+
+    void writeUserIdsOfType(Long id, OutputStream out) throws IOException;
+
+    boolean isServingFromSnapshot();
+
+    byte[] getAllUserTypesJson();
+
+    byte[] findUserTypeJsonById(Long id);
+
+    byte[] findUserTypeJsonByName(String userTypeName);
 }
@@ -8,32 +8,80 @@ import com.avas.library.business.exceptions.ResourceNotFoundException;
 import com.avas.library.business.mappers.UserTypeMapper;
 import com.avas.library.business.repository.model.UserType;
 import com.avas.library.model.UserTypeDTO;
+import com.avas.library.business.cache.DtoCache;
+import com.avas.library.business.cache.DtoCaches;
+import com.avas.library.business.encoding.DeltaVarintIds;
+import com.avas.library.business.reference.ReferenceDataResolver;
+import com.avas.library.business.snapshot.JsonSnapshot;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Log4j2
 @Service
 public class UserTypeServiceImpl implements UserTypeService {
+
+    private static final ResourceNotFoundException NO_USER_TYPES_FOUND = ResourceNotFoundException.shared("No user types found");
+
     @Autowired
     UserTypeRepository userTypeRepository;
 
     @Autowired
     UserTypeMapper userTypeMapper;
+    @Autowired
+    DtoCaches dtoCaches;
+    @Autowired
+    ReferenceDataResolver referenceDataResolver;
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Value("${type-snapshot.enabled:false}")
+    private boolean servingFromSnapshot;
+    @Value("${type-members.stream-chunk-size:10000}")
+    private int streamChunkSize;
+
+    private final AtomicReference<JsonSnapshot<UserTypeDTO>> snapshot = new AtomicReference<>(JsonSnapshot.empty());
 
     public List<UserTypeDTO> getAllUserTypes() {
+        if (servingFromSnapshot) {
+            if (snapshot.get().getAll().isEmpty())
+                throw NO_USER_TYPES_FOUND;
+            return snapshot.get().getAll();
+        }
         List<UserType> returnedUserTypeList = userTypeRepository.findAll();
         if (returnedUserTypeList.isEmpty())
-            throw new ResourceNotFoundException("No user types found");
+            throw NO_USER_TYPES_FOUND;
         log.info("user type list size is :{}", returnedUserTypeList.size());
         return userTypeMapper.mapUserTypeListToUserTypeListDto(returnedUserTypeList);
     }
 
-    public Optional<UserTypeDTO> findUserTypeById(Long id) {
-        Optional<UserTypeDTO> userTypeDTO = userTypeRepository.findById(id)
+    public Optional<UserTypeDTO> getUserTypeByName(String userTypeName) {
+        if (servingFromSnapshot)
+            return snapshot.get().findIdByName(userTypeName).flatMap(this::findUserTypeById);
+        Optional<UserTypeDTO> userTypeDTO = userTypeRepository.findUserTypeByType(userTypeName)
                 .map(userType -> userTypeMapper.mapUserTypeToUserTypeDto(userType));
+        userTypeDTO.orElseThrow(() -> new ResourceNotFoundException("user type with name:" + userTypeName + " does not exist"));
+        log.info("Found UserType :{}", userTypeDTO);
+        return userTypeDTO;
+    }
+
+    public Optional<UserTypeDTO> findUserTypeById(Long id) {
+        if (servingFromSnapshot)
+            return Optional.of(snapshot.get().findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("user type with id:{0} does not exist", id)));
+        Optional<UserTypeDTO> userTypeDTO = userTypeCache().get(id, key -> userTypeRepository.findById(key)
+                .map(userType -> userTypeMapper.mapUserTypeToUserTypeDto(userType)));
         userTypeDTO.orElseThrow(() -> new ResourceNotFoundException("user type with id:{0} does not exist", id));
         log.info("Found UserType :{}", userTypeDTO);
         return userTypeDTO;
@@ -43,6 +91,9 @@ public class UserTypeServiceImpl implements UserTypeService {
         findUserTypeById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("UserType for delete with id {0} is not found.", id));
         userTypeRepository.deleteById(id);
+        referenceDataResolver.refresh();
+        userTypeCache().invalidate(id);
+        rebuildSnapshot();
         log.info("UserType with id: {} is deleted", id);
     }
 
@@ -52,6 +103,8 @@ public class UserTypeServiceImpl implements UserTypeService {
             throw new ResourceAlreadyExists("Can not create UserType, UserType already exists");
         }
         UserType savedUserType = userTypeRepository.save(userTypeMapper.mapUserTypeDtoToUserType(newUserType));
+        referenceDataResolver.refresh();
+        rebuildSnapshot();
         log.info("UserType is created : {}", savedUserType);
         return userTypeMapper.mapUserTypeToUserTypeDto(savedUserType);
     }
@@ -64,8 +117,75 @@ public class UserTypeServiceImpl implements UserTypeService {
         }
         modifyExistingUserType.setId(id);
         UserType modifiedUserType = userTypeRepository.save(userTypeMapper.mapUserTypeDtoToUserType(modifyExistingUserType));
+        referenceDataResolver.refresh();
+        userTypeCache().invalidate(id);
+        rebuildSnapshot();
         log.info("UserType is updated id :{}, UserType is now :{}", modifiedUserType.getId(), modifiedUserType);
         return userTypeMapper.mapUserTypeToUserTypeDto(modifiedUserType);
     }
 
+    public long countUsersOfType(Long id) {
+        findUserTypeById(id);
+        return userTypeRepository.countUsers(id);
+    }
+
+    public List<Long> getUserIdsOfType(Long id, Long afterId, int limit) {
+        findUserTypeById(id);
+        return userTypeRepository.findUserIdPage(id, afterId, PageRequest.of(0, limit));
+    }
+
+    /**
+     * Writes the ids of all users of the type as a {@link DeltaVarintIds} stream, reading them
+     * in keyset pages so memory use does not grow with the number of users.
+     */
+    public void writeUserIdsOfType(Long id, OutputStream out) throws IOException {
+        long lastId = 0;
+        List<Long> page;
+        do {
+            page = userTypeRepository.findUserIdPage(id, lastId, PageRequest.of(0, streamChunkSize));
+            lastId = DeltaVarintIds.write(out, lastId, page);
+        } while (page.size() == streamChunkSize);
+    }
+
+    public boolean isServingFromSnapshot() {
+        return servingFromSnapshot;
+    }
+
+    public byte[] getAllUserTypesJson() {
+        if (snapshot.get().getAll().isEmpty())
+            throw NO_USER_TYPES_FOUND;
+        return snapshot.get().getAllJson();
+    }
+
+    public byte[] findUserTypeJsonById(Long id) {
+        return snapshot.get().findJsonById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("user type with id:{0} does not exist", id));
+    }
+
+    public byte[] findUserTypeJsonByName(String userTypeName) {
+        JsonSnapshot<UserTypeDTO> current = snapshot.get();
+        return current.findIdByName(userTypeName).flatMap(current::findJsonById)
+                .orElseThrow(() -> new ResourceNotFoundException("user type with name:" + userTypeName + " does not exist"));
+    }
+
+    /**
+     * Loads all user types, without their users, and swaps in a new snapshot. Members are only
+     * served by the keyset listings, so the snapshot stays the size of the type table. Rebuilds
+     * run one at a time, so a rebuild that loaded the types earlier never replaces the snapshot of
+     * one that loaded them later.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${type-snapshot.refresh-interval-ms:30000}",
+            fixedDelayString = "${type-snapshot.refresh-interval-ms:30000}")
+    public synchronized void rebuildSnapshot() {
+        if (!servingFromSnapshot)
+            return;
+        List<UserTypeDTO> userTypes = userTypeMapper.mapUserTypeListToUserTypeListDto(userTypeRepository.findAll());
+        snapshot.set(JsonSnapshot.of(userTypes, UserTypeDTO::getId, UserTypeDTO::getType, objectMapper));
+        log.info("User type snapshot rebuilt with {} user types", userTypes.size());
+    }
+
+    private DtoCache<Long, UserTypeDTO> userTypeCache() {
+        return dtoCaches.get("user-types");
+    }
 }
@@ -2,9 +2,12 @@ package com.avas.usertype.microservice.controller;
 
 import com.avas.usertype.microservice.business.service.UserTypeService;
 import lombok.extern.log4j.Log4j2;
+import com.avas.library.business.encoding.DeltaVarintIds;
 import com.avas.library.model.UserTypeDTO;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.BindingResult;
@@ -15,6 +18,8 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Optional;
@@ -27,19 +32,55 @@ public class UserTypeController {
     @Autowired
     UserTypeService userTypeService;
 
+    @Value("${type-members.default-page-size:100}")
+    private int defaultPageSize;
+    @Value("${type-members.max-page-size:1000}")
+    private int maxPageSize;
+
     @GetMapping
-    public ResponseEntity<List<UserTypeDTO>> getAllUserTypes() {
+    public ResponseEntity<?> getAllUserTypes() {
+        if (userTypeService.isServingFromSnapshot())
+            return json(userTypeService.getAllUserTypesJson());
         List<UserTypeDTO> userTypeDTOS = userTypeService.getAllUserTypes();
         return ResponseEntity.ok(userTypeDTOS);
     }
 
+    @GetMapping("/name/{typeName}")
+    public ResponseEntity<?> getUserTypeByName(@PathVariable String typeName) {
+        if (userTypeService.isServingFromSnapshot())
+            return json(userTypeService.findUserTypeJsonByName(typeName));
+        Optional<UserTypeDTO> foundUserTypeDTO = userTypeService.getUserTypeByName(typeName);
+        log.info("User type found : {}", foundUserTypeDTO.get());
+        return new ResponseEntity<>(foundUserTypeDTO.get(), HttpStatus.OK);
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<UserTypeDTO> getUserTypeById(@PathVariable Long id) {
+    public ResponseEntity<?> getUserTypeById(@PathVariable Long id) {
+        if (userTypeService.isServingFromSnapshot())
+            return json(userTypeService.findUserTypeJsonById(id));
         Optional<UserTypeDTO> foundUserTypeDTO = userTypeService.findUserTypeById(id);
         log.info("User type found : {}", foundUserTypeDTO.get());
         return new ResponseEntity<>(foundUserTypeDTO.get(), HttpStatus.OK);
     }
 
+    @GetMapping("/{id}/users/count")
+    public ResponseEntity<Long> countUsersOfType(@PathVariable Long id) {
+        return new ResponseEntity<>(userTypeService.countUsersOfType(id), HttpStatus.OK);
+    }
+
+    @GetMapping("/{id}/users")
+    public ResponseEntity<List<Long>> getUserIdsOfType(@PathVariable Long id,
+                                                       @RequestParam(defaultValue = "0") Long afterId,
+                                                       @RequestParam(required = false) Integer limit) {
+        return new ResponseEntity<>(userTypeService.getUserIdsOfType(id, afterId, pageSize(limit)), HttpStatus.OK);
+    }
+
+    @GetMapping(value = "/{id}/users/ids", produces = DeltaVarintIds.MEDIA_TYPE)
+    public ResponseEntity<StreamingResponseBody> streamUserIdsOfType(@PathVariable Long id) {
+        userTypeService.findUserTypeById(id);
+        return new ResponseEntity<>(out -> userTypeService.writeUserIdsOfType(id, out), HttpStatus.OK);
+    }
+
     @PostMapping
     public ResponseEntity<UserTypeDTO> createUserType(@RequestBody UserTypeDTO userTypeDTO, BindingResult bindingResult) {
         if (bindingResult.hasErrors()) {
@@ -72,4 +113,14 @@ public class UserTypeController {
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
 
     }
+
+    private int pageSize(Integer limit) {
+        if (limit == null)
+            return defaultPageSize;
+        return Math.max(1, Math.min(limit, maxPageSize));
+    }
+
+    private static ResponseEntity<byte[]> json(byte[] body) {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
 }
@@ -3,9 +3,11 @@ package com.avas.usertype.microservice.business.service.impl;
 
 import com.avas.usertype.microservice.business.repository.UserTypeRepository;
 import com.avas.usertype.microservice.test.data.UserTypeTestData;
+import com.avas.library.business.cache.DtoCaches;
 import com.avas.library.business.exceptions.ResourceAlreadyExists;
 import com.avas.library.business.exceptions.ResourceNotFoundException;
 import com.avas.library.business.mappers.UserTypeMapper;
+import com.avas.library.business.reference.ReferenceDataResolver;
 import com.avas.library.business.repository.model.UserType;
 import com.avas.library.model.UserTypeDTO;
 import org.junit.jupiter.api.Assertions;
@@ -43,6 +45,12 @@ public class UserTypeServiceImplTest {
     @Mock
     private UserTypeMapper mockUserTypeMapper;
 
+    @Spy
+    private DtoCaches dtoCaches = new DtoCaches();
+
+    @Mock
+    private ReferenceDataResolver referenceDataResolver;
+
     @Spy
     @InjectMocks
     private UserTypeServiceImpl userTypeService;